@@ -0,0 +1,363 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package com.shvet.poi.batch;
+
+import com.shvet.poi.batch.DocumentResult.Format;
+import com.shvet.poi.hwpf.extractor.FieldCodeStripper;
+import com.shvet.poi.hwpf.extractor.WordStreamingExtractor;
+import com.shvet.poi.openxml4j.opc.OPCPackage;
+import com.shvet.poi.openxml4j.opc.PackageAccess;
+import com.shvet.poi.poifs.common.POIFSConstants;
+import com.shvet.poi.poifs.filesystem.NPOIFSFileSystem;
+import com.shvet.poi.util.POILogFactory;
+import com.shvet.poi.util.POILogger;
+import com.shvet.poi.xwpf.extractor.XWPFWordExtractor;
+import com.shvet.poi.xwpf.usermodel.XWPFDocument;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Opens Word documents (binary <tt>.doc</tt> and OOXML <tt>.docx</tt>) and
+ * extracts their text on a fixed pool of worker threads.
+ * <p>
+ * Submission is bounded: {@link #submit(File)} blocks while the given number
+ * of documents is already queued, so producer can't run far ahead of workers
+ * and documents are not piled up in memory. Every worker keeps its own
+ * header buffer and text buffer and reuses them for all documents it
+ * processes. Binary documents are read straight from file channel by
+ * {@link WordStreamingExtractor}, without building document model. For every
+ * document {@link DocumentResult} with open and extract timings is returned.
+ * <p>
+ * Documents are independent: failure of one document is reported in its
+ * result and doesn't affect others.
+ */
+public final class DocumentBatchProcessor {
+    private static final POILogger logger = POILogFactory
+            .getLogger(DocumentBatchProcessor.class);
+
+    /**
+     * Text buffers grown larger than this (in characters) are dropped after
+     * document, not to keep memory of the largest document per worker
+     */
+    private static final int MAX_RETAINED_TEXT_BUFFER = 1 << 20;
+
+    private static final int HEADER_SIZE = 8;
+
+    /**
+     * Receives text of processed documents
+     */
+    public interface TextHandler {
+        /**
+         * Called on worker thread after text of document is extracted. Text
+         * buffer is reused by worker for the next document, so text is only
+         * valid during this call and shall be copied if needed later.
+         *
+         * @param source file or channel the document was submitted as
+         * @param text   text of document
+         */
+        void processText(Object source, CharSequence text) throws IOException;
+    }
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final TextHandler handler;
+    private boolean stripFieldCodes = false;
+
+    /**
+     * @param threads       number of worker threads
+     * @param queueCapacity number of documents waiting for worker, after
+     *                      which {@link #submit(File)} blocks
+     * @param handler       receiver of extracted text, may be <tt>null</tt>
+     *                      if only results are needed
+     */
+    public DocumentBatchProcessor(int threads, int queueCapacity,
+                                  TextHandler handler) {
+        if (threads < 1)
+            throw new IllegalArgumentException("threads must be positive, not "
+                    + threads);
+        if (queueCapacity < 0)
+            throw new IllegalArgumentException(
+                    "queueCapacity must not be negative, not " + queueCapacity);
+
+        this.executor = Executors.newFixedThreadPool(threads,
+                new WorkerThreadFactory());
+        this.permits = new Semaphore(threads + queueCapacity);
+        this.handler = handler;
+    }
+
+    /**
+     * Processes files given on command line and prints per-document timings
+     * and overall throughput. Run with different number of threads to
+     * measure scaling.
+     */
+    public static void main(String[] args) throws Exception {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int first = 0;
+        if (args.length > 1 && args[0].equals("-threads")) {
+            threads = Integer.parseInt(args[1]);
+            first = 2;
+        }
+        if (args.length <= first) {
+            System.err.println("Use:");
+            System.err
+                    .println("  DocumentBatchProcessor [-threads <n>] <file>...");
+            System.exit(1);
+        }
+
+        DocumentBatchProcessor processor = new DocumentBatchProcessor(threads,
+                threads * 2, null);
+        List<Future<DocumentResult>> futures = new ArrayList<Future<DocumentResult>>();
+        long start = System.nanoTime();
+        for (int i = first; i < args.length; i++) {
+            futures.add(processor.submit(new File(args[i])));
+        }
+        long chars = 0;
+        int failed = 0;
+        for (Future<DocumentResult> future : futures) {
+            DocumentResult result = future.get();
+            System.out.println(result.getSource() + "\t" + result.getFormat()
+                    + "\t" + result.getTotalTime(TimeUnit.MICROSECONDS)
+                    + "us\t" + result.getTextLength()
+                    + (result.isSuccessful() ? "" : "\t" + result.getFailure()));
+            chars += result.getTextLength();
+            if (!result.isSuccessful())
+                failed++;
+        }
+        processor.shutdown();
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        System.out.println(futures.size() + " documents (" + failed
+                + " failed), " + chars + " characters in " + millis + "ms on "
+                + threads + " threads, "
+                + (futures.size() * 1000L / Math.max(1, millis))
+                + " documents/s");
+    }
+
+    /**
+     * Whether field codes shall be removed from text of binary documents, see
+     * {@link FieldCodeStripper}. Shall be set before documents are submitted.
+     */
+    public void setStripFieldCodes(boolean stripFieldCodes) {
+        this.stripFieldCodes = stripFieldCodes;
+    }
+
+    /**
+     * Queues the file for processing, waiting if queue is full
+     *
+     * @return future result of processing, never completed exceptionally
+     * @throws RejectedExecutionException if processor is shut down
+     */
+    public Future<DocumentResult> submit(File file)
+            throws InterruptedException {
+        return submit(file, file, null);
+    }
+
+    /**
+     * Queues document read from the channel for processing, waiting if queue
+     * is full. Document is read from the start of the channel, whatever its
+     * current position is, and channel is closed after processing.
+     *
+     * @return future result of processing, never completed exceptionally
+     * @throws RejectedExecutionException if processor is shut down
+     */
+    public Future<DocumentResult> submit(FileChannel channel)
+            throws InterruptedException {
+        return submit(channel, null, channel);
+    }
+
+    private Future<DocumentResult> submit(final Object source,
+                                          final File file, final FileChannel channel)
+            throws InterruptedException {
+        permits.acquire();
+        try {
+            return executor.submit(new Callable<DocumentResult>() {
+                public DocumentResult call() {
+                    try {
+                        return process(source, file, channel);
+                    } finally {
+                        permits.release();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Stops accepting documents, already submitted ones are still processed
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit)
+            throws InterruptedException {
+        return executor.awaitTermination(timeout, unit);
+    }
+
+    private DocumentResult process(Object source, File file,
+                                   FileChannel channel) {
+        final WorkerThread worker = (WorkerThread) Thread.currentThread();
+        final StringBuilder text = worker.text;
+
+        final long start = System.nanoTime();
+        long opened = start;
+        Format format = Format.UNKNOWN;
+        try {
+            if (file != null)
+                channel = new RandomAccessFile(file, "r").getChannel();
+            format = detectFormat(channel, worker.header);
+            // caller's channel may be at any position, documents are read
+            // from the start
+            channel.position(0);
+
+            switch (format) {
+                case OLE2: {
+                    NPOIFSFileSystem fs = new NPOIFSFileSystem(channel, true);
+                    // closed with file system now
+                    channel = null;
+                    try {
+                        WordStreamingExtractor extractor = new WordStreamingExtractor(
+                                fs.getRoot());
+                        opened = System.nanoTime();
+                        extractor.writeTextTo(stripFieldCodes ? new FieldCodeStripper(
+                                text) : text);
+                    } finally {
+                        fs.close();
+                    }
+                    break;
+                }
+                case OOXML: {
+                    OPCPackage pkg;
+                    if (file != null) {
+                        // zip file reads only central directory and needed parts
+                        channel.close();
+                        channel = null;
+                        pkg = OPCPackage.open(file, PackageAccess.READ);
+                    } else {
+                        pkg = OPCPackage.open(Channels.newInputStream(channel));
+                    }
+                    try {
+                        XWPFDocument document = new XWPFDocument(pkg);
+                        opened = System.nanoTime();
+                        text.append(new XWPFWordExtractor(document).getText());
+                    } finally {
+                        pkg.revert();
+                    }
+                    break;
+                }
+                default:
+                    throw new IllegalArgumentException(source
+                            + " is neither an OLE2 nor an OOXML document");
+            }
+            final long extracted = System.nanoTime();
+
+            if (handler != null)
+                handler.processText(source, text);
+            return new DocumentResult(source, format, opened - start,
+                    extracted - opened, text.length(), null);
+        } catch (Throwable exc) {
+            // errors (e.g. stack overflow on corrupt document) are reported
+            // too, so future is never completed exceptionally
+            logger.log(POILogger.DEBUG, "Unable to process ", source, ": ",
+                    exc);
+            if (opened == start)
+                opened = System.nanoTime();
+            return new DocumentResult(source, format, opened - start, 0, 0, exc);
+        } finally {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException exc) {
+                    // ignore
+                }
+            }
+            worker.releaseText();
+        }
+    }
+
+    private static Format detectFormat(FileChannel channel, ByteBuffer header)
+            throws IOException {
+        header.clear();
+        // positional reads, as document is always read from the start
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0)
+                return Format.UNKNOWN;
+        }
+
+        byte[] bytes = header.array();
+        if (NPOIFSFileSystem.hasPOIFSHeader(bytes))
+            return Format.OLE2;
+        for (int i = 0; i < POIFSConstants.OOXML_FILE_HEADER.length; i++) {
+            if (bytes[i] != POIFSConstants.OOXML_FILE_HEADER[i])
+                return Format.UNKNOWN;
+        }
+        return Format.OOXML;
+    }
+
+    /**
+     * Pool thread with buffers reused for all documents it processes
+     */
+    private static final class WorkerThread extends Thread {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        StringBuilder text = new StringBuilder();
+
+        WorkerThread(Runnable target, String name) {
+            super(target, name);
+        }
+
+        void releaseText() {
+            if (text.capacity() > MAX_RETAINED_TEXT_BUFFER)
+                text = new StringBuilder();
+            else
+                text.setLength(0);
+        }
+    }
+
+    private static final class WorkerThreadFactory implements ThreadFactory {
+        private static final AtomicInteger poolNumber = new AtomicInteger();
+
+        private final int pool = poolNumber.incrementAndGet();
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        public Thread newThread(Runnable r) {
+            Thread thread = new WorkerThread(r, "DocumentBatchProcessor-"
+                    + pool + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package com.shvet.poi.batch;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of processing one document by {@link DocumentBatchProcessor}: its
+ * format, time spent to open it and to extract its text, and the failure if
+ * document could not be processed.
+ * <p>
+ * Instances are immutable.
+ */
+public final class DocumentResult {
+    /**
+     * Container format of document
+     */
+    public enum Format {
+        /**
+         * OLE2 file, read as Word 97-2007 binary document
+         */
+        OLE2,
+        /**
+         * OOXML (zip) package, read as Word 2007+ document
+         */
+        OOXML,
+        /**
+         * Neither OLE2 nor OOXML, or not read at all
+         */
+        UNKNOWN
+    }
+
+    private final Object source;
+    private final Format format;
+    private final long openNanos;
+    private final long extractNanos;
+    private final int textLength;
+    private final Throwable failure;
+
+    DocumentResult(Object source, Format format, long openNanos,
+                   long extractNanos, int textLength, Throwable failure) {
+        this.source = source;
+        this.format = format;
+        this.openNanos = openNanos;
+        this.extractNanos = extractNanos;
+        this.textLength = textLength;
+        this.failure = failure;
+    }
+
+    /**
+     * @return file or channel the document was submitted as
+     */
+    public Object getSource() {
+        return source;
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    /**
+     * @return time spent to detect format and open document, in nanoseconds
+     */
+    public long getOpenNanos() {
+        return openNanos;
+    }
+
+    /**
+     * @return time spent to extract text of opened document, in nanoseconds
+     */
+    public long getExtractNanos() {
+        return extractNanos;
+    }
+
+    /**
+     * @return total processing time in the given unit, excluding time spent by
+     * text handler
+     */
+    public long getTotalTime(TimeUnit unit) {
+        return unit.convert(openNanos + extractNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return length of extracted text, <tt>0</tt> if document failed
+     */
+    public int getTextLength() {
+        return textLength;
+    }
+
+    /**
+     * @return exception or error thrown while processing document, or
+     * <tt>null</tt> if it was processed successfully
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    public boolean isSuccessful() {
+        return failure == null;
+    }
+
+    @Override
+    public String toString() {
+        return "DocumentResult [source=" + source + ", format=" + format
+                + ", openNanos=" + openNanos + ", extractNanos=" + extractNanos
+                + ", textLength=" + textLength + ", failure=" + failure + "]";
+    }
+}
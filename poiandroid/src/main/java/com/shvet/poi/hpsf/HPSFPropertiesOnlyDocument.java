@@ -17,6 +17,7 @@
 package com.shvet.poi.hpsf;
 
 import com.shvet.poi.POIDocument;
+import com.shvet.poi.poifs.filesystem.DirectoryNode;
 import com.shvet.poi.poifs.filesystem.EntryUtils;
 import com.shvet.poi.poifs.filesystem.NPOIFSFileSystem;
 import com.shvet.poi.poifs.filesystem.OPOIFSFileSystem;
@@ -33,6 +34,10 @@ import java.util.List;
  * the Document Properties, without affecting the rest of the file
  */
 public class HPSFPropertiesOnlyDocument extends POIDocument {
+    public HPSFPropertiesOnlyDocument(DirectoryNode dir) {
+        super(dir);
+    }
+
     public HPSFPropertiesOnlyDocument(NPOIFSFileSystem fs) {
         super(fs.getRoot());
     }
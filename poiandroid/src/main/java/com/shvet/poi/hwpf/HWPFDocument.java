@@ -21,6 +21,7 @@ import com.shvet.poi.hpsf.DocumentSummaryInformation;
 import com.shvet.poi.hpsf.SummaryInformation;
 import com.shvet.poi.hwpf.model.BookmarksTables;
 import com.shvet.poi.hwpf.model.CHPBinTable;
+import com.shvet.poi.hwpf.model.ChangeTracker;
 import com.shvet.poi.hwpf.model.ComplexFileTable;
 import com.shvet.poi.hwpf.model.DocumentProperties;
 import com.shvet.poi.hwpf.model.EscherRecordHolder;
@@ -32,6 +33,7 @@ import com.shvet.poi.hwpf.model.ListTables;
 import com.shvet.poi.hwpf.model.NoteType;
 import com.shvet.poi.hwpf.model.NotesTables;
 import com.shvet.poi.hwpf.model.PAPBinTable;
+import com.shvet.poi.hwpf.model.PlexOfCps;
 import com.shvet.poi.hwpf.model.PicturesTable;
 import com.shvet.poi.hwpf.model.RevisionMarkAuthorTable;
 import com.shvet.poi.hwpf.model.SavedByTable;
@@ -60,6 +62,7 @@ import com.shvet.poi.poifs.filesystem.DirectoryNode;
 import com.shvet.poi.poifs.filesystem.DocumentEntry;
 import com.shvet.poi.poifs.filesystem.Entry;
 import com.shvet.poi.poifs.filesystem.EntryUtils;
+import com.shvet.poi.poifs.filesystem.NDocumentView;
 import com.shvet.poi.poifs.filesystem.NPOIFSFileSystem;
 import com.shvet.poi.poifs.filesystem.POIFSFileSystem;
 import com.shvet.poi.util.Internal;
@@ -69,7 +72,13 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.charset.Charset;
 import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * This class acts as the bucket that we throw all of the Word data structures
@@ -79,7 +88,43 @@ import java.util.Iterator;
  */
 public final class HWPFDocument extends HWPFDocumentCore {
     static final String PROPERTY_PRESERVE_BIN_TABLES = "com.shvet.poi.hwpf.preserveBinTables";
-    private static final String PROPERTY_PRESERVE_TEXT_TABLE = "com.shvet.poi.hwpf.preserveTextTable";
+    /**
+     * Property to keep text pieces of the file instead of rebuilding text into
+     * one piece. Text changes and changes of runs, paragraphs and sections are
+     * tracked, so document can be saved with
+     * {@link #writeIncremental(OutputStream)}
+     */
+    public static final String PROPERTY_PRESERVE_TEXT_TABLE = "com.shvet.poi.hwpf.preserveTextTable";
+    /**
+     * If <tt>true</tt>, drawings, pictures, bookmarks, notes, fields and
+     * history tables are not loaded with document, but on first access. For
+     * {@link HWPFOldDocument} the same applies to text, CHPX, PAPX and
+     * section tables
+     */
+    public static final String PROPERTY_LAZY_LOADING = "com.shvet.poi.hwpf.lazyLoading";
+
+    /**
+     * Property to open Data stream as read-only view of file system blocks
+     * instead of copying it into memory. Data stream is copied only if
+     * {@link #getDataStream()} is called. Requires document to be loaded from
+     * {@link NPOIFSFileSystem}, which should not be closed while document is
+     * in use
+     */
+    public static final String PROPERTY_DATA_STREAM_VIEW = "com.shvet.poi.hwpf.dataStreamView";
+
+    /**
+     * Property to decode formatted disk pages of CHPX and PAPX bin tables in
+     * parallel. Pages are decoded with one pool of daemon threads (one per
+     * available processor) shared by all documents being loaded
+     */
+    public static final String PROPERTY_PARALLEL_BIN_TABLES = "com.shvet.poi.hwpf.parallelBinTables";
+
+    /**
+     * Property to keep CHPX and PAPX runs in compact form (primitive arrays
+     * and shared grpprls) after bin tables are rebuilt. Run objects are
+     * created on first access only
+     */
+    public static final String PROPERTY_COMPACT_RUNS = "com.shvet.poi.hwpf.compactRuns";
 
     private static final String STREAM_DATA = "Data";
     private static final String STREAM_TABLE_0 = "0Table";
@@ -95,6 +140,11 @@ public final class HWPFDocument extends HWPFDocumentCore {
      */
     protected byte[] _dataStream;
 
+    /**
+     * data stream view, used if data stream was not copied to buffer
+     */
+    private NDocumentView _dataStreamView;
+
     /**
      * Document wide Properties
      */
@@ -180,6 +230,20 @@ public final class HWPFDocument extends HWPFDocumentCore {
      * Holds FSBA (shape) information
      */
     private FSPATable _fspaMain;
+    /**
+     * <tt>true</tt> if some of the structures may still be not loaded from
+     * table stream
+     */
+    private boolean _lazyLoading;
+    /**
+     * Changes since load or last save, tracked only if text pieces of the file
+     * are preserved ({@link #PROPERTY_PRESERVE_TEXT_TABLE})
+     */
+    private ChangeTracker _changeTracker;
+    /**
+     * <tt>true</tt> if lists were registered since load or last save
+     */
+    private boolean _listsChanged;
 
     protected HWPFDocument() {
         super();
@@ -235,6 +299,25 @@ public final class HWPFDocument extends HWPFDocumentCore {
      *                     POIFSFileSystem.
      */
     public HWPFDocument(DirectoryNode directory) throws IOException {
+        this(directory, (Executor) null);
+    }
+
+    /**
+     * This constructor loads a Word document from a specific point in a
+     * POIFSFileSystem, decoding formatted disk pages of CHPX and PAPX bin tables
+     * with the given executor.
+     *
+     * @param directory          The DirectoryNode that contains the Word
+     *                           document.
+     * @param binTablesExecutor  executor to decode bin tables pages in
+     *                           parallel, or <tt>null</tt> to decode them in
+     *                           current thread (unless
+     *                           {@link #PROPERTY_PARALLEL_BIN_TABLES} is set)
+     * @throws IOException If there is an unexpected IOException from the passed in
+     *                     POIFSFileSystem.
+     */
+    public HWPFDocument(DirectoryNode directory, Executor binTablesExecutor)
+            throws IOException {
         // Load the main stream and FIB
         // Also handles HPSF bits
         super(directory);
@@ -268,12 +351,25 @@ public final class HWPFDocument extends HWPFDocumentCore {
 
         _fib.fillVariableFields(_mainStream, _tableStream);
 
+        boolean dataStreamView = false;
+        try {
+            dataStreamView = Boolean.parseBoolean(System
+                    .getProperty(PROPERTY_DATA_STREAM_VIEW));
+        } catch (Exception exc) {
+            // ignore;
+        }
+
         // read in the data stream.
         try {
             DocumentEntry dataProps = (DocumentEntry) directory
                     .getEntry(STREAM_DATA);
-            _dataStream = new byte[dataProps.getSize()];
-            directory.createDocumentInputStream(STREAM_DATA).read(_dataStream);
+            if (dataStreamView && directory.getNFileSystem() != null) {
+                _dataStreamView = new NDocumentView(dataProps);
+            } else {
+                _dataStream = new byte[dataProps.getSize()];
+                directory.createDocumentInputStream(STREAM_DATA).read(
+                        _dataStream);
+            }
         } catch (java.io.FileNotFoundException e) {
             _dataStream = new byte[0];
         }
@@ -292,10 +388,26 @@ public final class HWPFDocument extends HWPFDocumentCore {
 
         // Now load the rest of the properties, which need to be adjusted
         // for where text really begin
+        if (binTablesExecutor == null) {
+            boolean parallelBinTables = false;
+            try {
+                parallelBinTables = Boolean.parseBoolean(System
+                        .getProperty(PROPERTY_PARALLEL_BIN_TABLES));
+            } catch (Exception exc) {
+                // ignore;
+            }
+            if (parallelBinTables) {
+                binTablesExecutor = BinTablesExecutorHolder.EXECUTOR;
+            }
+        }
         _cbt = new CHPBinTable(_mainStream, _tableStream,
-                _fib.getFcPlcfbteChpx(), _fib.getLcbPlcfbteChpx(), _tpt);
+                _fib.getFcPlcfbteChpx(), _fib.getLcbPlcfbteChpx(), _tpt,
+                binTablesExecutor);
         _pbt = new PAPBinTable(_mainStream, _tableStream, _dataStream,
-                _fib.getFcPlcfbtePapx(), _fib.getLcbPlcfbtePapx(), _tpt);
+                _fib.getFcPlcfbtePapx(), _fib.getLcbPlcfbtePapx(), _tpt,
+                binTablesExecutor);
+        if (_dataStreamView != null)
+            _pbt.loadHugeGrpprls(_dataStreamView);
 
         _text = _tpt.getText();
 
@@ -316,9 +428,21 @@ public final class HWPFDocument extends HWPFDocumentCore {
             _pbt.rebuild(_text, _cft);
         }
 
+        boolean compactRuns = false;
+        try {
+            compactRuns = Boolean.parseBoolean(System
+                    .getProperty(PROPERTY_COMPACT_RUNS));
+        } catch (Exception exc) {
+            // ignore;
+        }
+        if (compactRuns) {
+            _cbt.compact();
+            _pbt.compact();
+        }
+
 		/*
-         * Property to disable text rebuilding. In this mode changing the text
-		 * will lead to unpredictable behavior
+         * Property to disable text rebuilding. In this mode text of pieces is
+		 * not changed by edits, changed text replaces them on save
 		 */
         boolean preserveTextTable = false;
         try {
@@ -335,7 +459,63 @@ public final class HWPFDocument extends HWPFDocumentCore {
             _text = textPiece.getStringBuilder();
         }
 
-        // Read FSPA and Escher information
+        _st = new SectionTable(_mainStream, _tableStream, _fib.getFcPlcfsed(),
+                _fib.getLcbPlcfsed(), fcMin, _tpt,
+                _fib.getSubdocumentTextStreamLength(SubdocumentType.MAIN));
+        if (preserveTextTable) {
+            _changeTracker = new ChangeTracker(_cbt, _pbt, _st);
+        }
+        _ss = new StyleSheet(_tableStream, _fib.getFcStshf());
+        _ft = new FontTable(_tableStream, _fib.getFcSttbfffn(),
+                _fib.getLcbSttbfffn());
+
+        int listOffset = _fib.getFcPlfLst();
+        // int lfoOffset = _fib.getFcPlfLfo();
+        if (listOffset != 0 && _fib.getLcbPlfLst() != 0) {
+            _lt = new ListTables(_tableStream, listOffset, _fib.getFcPlfLfo(),
+                    _fib.getLcbPlfLfo());
+        }
+
+        /*
+         * In lazy mode drawings, pictures, bookmarks, notes, fields and history
+         * tables are read from table stream on first access through their
+         * getters
+         */
+        boolean lazyLoading = false;
+        try {
+            lazyLoading = Boolean.parseBoolean(System
+                    .getProperty(PROPERTY_LAZY_LOADING));
+        } catch (Exception exc) {
+            // ignore;
+        }
+
+        // notes of a new empty document are not the ones of a loaded document
+        _endnotesTables = null;
+        _endnotes = null;
+        _footnotesTables = null;
+        _footnotes = null;
+
+        if (lazyLoading) {
+            _lazyLoading = true;
+        } else {
+            initOfficeDrawings();
+            initPictures();
+            initShapes();
+            initSavedBy();
+            initRevisionMarkAuthors();
+            initBookmarks();
+            initNotes();
+            initFields();
+        }
+    }
+
+    /**
+     * Reads FSPA and Escher information, unless already loaded
+     */
+    private void initEscher() {
+        if (_escherRecordHolder != null)
+            return;
+
         // _fspa = new FSPATable(_tableStream, _fib.getFcPlcspaMom(),
         // _fib.getLcbPlcspaMom(), getTextTable().getTextPieces());
         _fspaHeaders = new FSPATable(_tableStream, _fib,
@@ -348,54 +528,93 @@ public final class HWPFDocument extends HWPFDocumentCore {
         } else {
             _escherRecordHolder = new EscherRecordHolder();
         }
+    }
 
+    private void initPictures() {
+        if (_pictures != null)
+            return;
+
+        initEscher();
         // read in the pictures stream
-        _pictures = new PicturesTable(this, _dataStream, _mainStream,
-                _fspaMain, _escherRecordHolder);
+        if (_dataStreamView != null) {
+            _pictures = new PicturesTable(this, _dataStreamView, _mainStream,
+                    _escherRecordHolder);
+        } else {
+            _pictures = new PicturesTable(this, _dataStream, _mainStream,
+                    _fspaMain, _escherRecordHolder);
+        }
+    }
+
+    private void initShapes() {
+        if (_officeArts != null)
+            return;
+
         // And the art shapes stream
         _officeArts = new ShapesTable(_tableStream, _fib);
+    }
 
+    private void initOfficeDrawings() {
+        if (_officeDrawingsMain != null)
+            return;
+
+        initEscher();
         // And escher pictures
         _officeDrawingsHeaders = new OfficeDrawingsImpl(_fspaHeaders,
                 _escherRecordHolder, _mainStream);
         _officeDrawingsMain = new OfficeDrawingsImpl(_fspaMain,
                 _escherRecordHolder, _mainStream);
+    }
 
-        _st = new SectionTable(_mainStream, _tableStream, _fib.getFcPlcfsed(),
-                _fib.getLcbPlcfsed(), fcMin, _tpt,
-                _fib.getSubdocumentTextStreamLength(SubdocumentType.MAIN));
-        _ss = new StyleSheet(_tableStream, _fib.getFcStshf());
-        _ft = new FontTable(_tableStream, _fib.getFcSttbfffn(),
-                _fib.getLcbSttbfffn());
-
-        int listOffset = _fib.getFcPlfLst();
-        // int lfoOffset = _fib.getFcPlfLfo();
-        if (listOffset != 0 && _fib.getLcbPlfLst() != 0) {
-            _lt = new ListTables(_tableStream, listOffset, _fib.getFcPlfLfo(),
-                    _fib.getLcbPlfLfo());
-        }
+    private void initSavedBy() {
+        if (_sbt != null)
+            return;
 
         int sbtOffset = _fib.getFcSttbSavedBy();
         int sbtLength = _fib.getLcbSttbSavedBy();
         if (sbtOffset != 0 && sbtLength != 0) {
             _sbt = new SavedByTable(_tableStream, sbtOffset, sbtLength);
         }
+    }
+
+    private void initRevisionMarkAuthors() {
+        if (_rmat != null)
+            return;
 
         int rmarkOffset = _fib.getFcSttbfRMark();
         int rmarkLength = _fib.getLcbSttbfRMark();
         if (rmarkOffset != 0 && rmarkLength != 0) {
-            _rmat = new RevisionMarkAuthorTable(_tableStream, rmarkOffset,
-                    rmarkLength);
+            try {
+                _rmat = new RevisionMarkAuthorTable(_tableStream, rmarkOffset,
+                        rmarkLength);
+            } catch (IOException exc) {
+                // table is read from memory, so it shall not happen
+                throw new RuntimeException(exc);
+            }
         }
+    }
+
+    private void initBookmarks() {
+        if (_bookmarks != null)
+            return;
 
         _bookmarksTables = new BookmarksTables(_tableStream, _fib);
         _bookmarks = new BookmarksImpl(_bookmarksTables);
+    }
+
+    private void initNotes() {
+        if (_endnotes != null)
+            return;
 
         _endnotesTables = new NotesTables(NoteType.ENDNOTE, _tableStream, _fib);
         _endnotes = new NotesImpl(_endnotesTables);
         _footnotesTables = new NotesTables(NoteType.FOOTNOTE, _tableStream,
                 _fib);
         _footnotes = new NotesImpl(_footnotesTables);
+    }
+
+    private void initFields() {
+        if (_fields != null)
+            return;
 
         _fieldsTables = new FieldsTables(_tableStream, _fib);
         _fields = new FieldsImpl(_fieldsTables);
@@ -536,6 +755,9 @@ public final class HWPFDocument extends HWPFDocumentCore {
      */
     @Internal
     public SavedByTable getSavedByTable() {
+        if (_lazyLoading)
+            initSavedBy();
+
         return _sbt;
     }
 
@@ -547,6 +769,9 @@ public final class HWPFDocument extends HWPFDocumentCore {
      */
     @Internal
     public RevisionMarkAuthorTable getRevisionMarkAuthorTable() {
+        if (_lazyLoading)
+            initRevisionMarkAuthors();
+
         return _rmat;
     }
 
@@ -555,11 +780,17 @@ public final class HWPFDocument extends HWPFDocumentCore {
      * document
      */
     public PicturesTable getPicturesTable() {
+        if (_lazyLoading)
+            initPictures();
+
         return _pictures;
     }
 
     @Internal
     public EscherRecordHolder getEscherRecordHolder() {
+        if (_lazyLoading)
+            initEscher();
+
         return _escherRecordHolder;
     }
 
@@ -571,14 +802,23 @@ public final class HWPFDocument extends HWPFDocumentCore {
     @Deprecated
     @Internal
     public ShapesTable getShapesTable() {
+        if (_lazyLoading)
+            initShapes();
+
         return _officeArts;
     }
 
     public OfficeDrawings getOfficeDrawingsHeaders() {
+        if (_lazyLoading)
+            initOfficeDrawings();
+
         return _officeDrawingsHeaders;
     }
 
     public OfficeDrawings getOfficeDrawingsMain() {
+        if (_lazyLoading)
+            initOfficeDrawings();
+
         return _officeDrawingsMain;
     }
 
@@ -586,6 +826,9 @@ public final class HWPFDocument extends HWPFDocumentCore {
      * @return user-friendly interface to access document bookmarks
      */
     public Bookmarks getBookmarks() {
+        if (_lazyLoading)
+            initBookmarks();
+
         return _bookmarks;
     }
 
@@ -593,6 +836,9 @@ public final class HWPFDocument extends HWPFDocumentCore {
      * @return user-friendly interface to access document endnotes
      */
     public Notes getEndnotes() {
+        if (_lazyLoading)
+            initNotes();
+
         return _endnotes;
     }
 
@@ -600,6 +846,9 @@ public final class HWPFDocument extends HWPFDocumentCore {
      * @return user-friendly interface to access document footnotes
      */
     public Notes getFootnotes() {
+        if (_lazyLoading)
+            initNotes();
+
         return _footnotes;
     }
 
@@ -611,6 +860,9 @@ public final class HWPFDocument extends HWPFDocumentCore {
     @Deprecated
     @Internal
     public FieldsTables getFieldsTables() {
+        if (_lazyLoading)
+            initFields();
+
         return _fieldsTables;
     }
 
@@ -620,6 +872,9 @@ public final class HWPFDocument extends HWPFDocumentCore {
      * @return user-friendly interface to access document {@link Field}s
      */
     public Fields getFields() {
+        if (_lazyLoading)
+            initFields();
+
         return _fields;
     }
 
@@ -632,6 +887,26 @@ public final class HWPFDocument extends HWPFDocumentCore {
      *                     OutputStream.
      */
     public void write(OutputStream out) throws IOException {
+        // offsets in FIB are about to be rewritten, so nothing can be read
+        // lazily after this point
+        if (_lazyLoading) {
+            initOfficeDrawings();
+            initPictures();
+            initShapes();
+            initSavedBy();
+            initRevisionMarkAuthors();
+            initBookmarks();
+            initNotes();
+            initFields();
+            _lazyLoading = false;
+        }
+
+        // preserved pieces still have text of the file, positions of the new
+        // piece are set when text is written
+        if (_changeTracker != null) {
+            replaceChangedText(0);
+        }
+
         // initialize our streams for writing.
         HWPFFileSystem docSys = new HWPFFileSystem();
         HWPFOutputStream wordDocumentStream = docSys
@@ -910,7 +1185,7 @@ public final class HWPFDocument extends HWPFDocumentCore {
             tableBuf = tempBuf;
         }
 
-        byte[] dataBuf = _dataStream;
+        byte[] dataBuf = getDataStream();
         if (dataBuf == null) {
             dataBuf = new byte[4096];
         }
@@ -920,7 +1195,147 @@ public final class HWPFDocument extends HWPFDocumentCore {
             dataBuf = tempBuf;
         }
 
-        // create new document preserving order of entries
+        writeFileSystem(out, mainBuf, STREAM_TABLE_1, tableBuf, dataBuf);
+
+		/*
+		 * since we updated all references in FIB and etc, using new arrays to
+		 * access data
+		 */
+        this._mainStream = mainBuf;
+        this._tableStream = tableStream.toByteArray();
+        this._dataStream = dataBuf;
+        this._dataStreamView = null;
+        if (_changeTracker != null) {
+            _changeTracker.reset(_cbt, _pbt, _st);
+        }
+        _listsChanged = false;
+    }
+
+    /**
+     * Writes out the word file incrementally, like fast save of Word does.
+     * Document and table streams of the file are kept as they are, changed
+     * text is appended to document stream as a new piece, and only FKPs of
+     * changed text and tables which refer to moved positions (piece table, bin
+     * tables, sections, bookmarks) are appended and referred from FIB. Other
+     * streams are copied without being read.
+     * <p>
+     * Requires document to be loaded with
+     * {@link #PROPERTY_PRESERVE_TEXT_TABLE}, otherwise whole document is
+     * written with {@link #write(OutputStream)}.
+     *
+     * @param out The OutputStream to write to.
+     * @throws IOException If there is an unexpected IOException from the passed in
+     *                     OutputStream.
+     */
+    public void writeIncremental(OutputStream out) throws IOException {
+        if (_changeTracker == null) {
+            write(out);
+            return;
+        }
+
+        HWPFOutputStream wordDocumentStream = new HWPFOutputStream();
+        wordDocumentStream.write(_mainStream);
+        HWPFOutputStream tableStream = new HWPFOutputStream();
+        tableStream.write(_tableStream);
+
+        int[] range = replaceChangedText(wordDocumentStream.getOffset());
+        if (range != null) {
+            wordDocumentStream.write(_text.substring(range[0], range[1])
+                    .getBytes(Charset.forName("UTF-16LE")));
+            TextPieceTable tpt = _cft.getTextPieceTable();
+
+            int tableOffset = tableStream.getOffset();
+            _fib.setFcClx(tableOffset);
+            _cft.writePieceTableTo(tableStream);
+            _fib.setLcbClx(tableStream.getOffset() - tableOffset);
+
+            // bin tables of the file get entries of FKPs of new text
+            tableOffset = tableStream.getOffset();
+            _cbt.writeTo(wordDocumentStream, tableStream, new PlexOfCps(
+                    _tableStream, _fib.getFcPlcfbteChpx(),
+                    _fib.getLcbPlcfbteChpx(), 4), range[0], range[1], tpt);
+            _fib.setFcPlcfbteChpx(tableOffset);
+            _fib.setLcbPlcfbteChpx(tableStream.getOffset() - tableOffset);
+
+            tableOffset = tableStream.getOffset();
+            _pbt.writeTo(wordDocumentStream, tableStream, new PlexOfCps(
+                    _tableStream, _fib.getFcPlcfbtePapx(),
+                    _fib.getLcbPlcfbtePapx(), 4), range[0], range[1], tpt);
+            _fib.setFcPlcfbtePapx(tableOffset);
+            _fib.setLcbPlcfbtePapx(tableStream.getOffset() - tableOffset);
+        }
+
+        if (_changeTracker.isSectionsChanged(_st)) {
+            int tableOffset = tableStream.getOffset();
+            _fib.setFcPlcfsed(tableOffset);
+            _st.writeTo(wordDocumentStream, tableStream);
+            _fib.setLcbPlcfsed(tableStream.getOffset() - tableOffset);
+        }
+
+        // bookmarks are moved by text changes and may be renamed or removed
+        if (_bookmarksTables != null) {
+            _bookmarksTables.writePlcfBkmkf(_fib, tableStream);
+            _bookmarksTables.writePlcfBkmkl(_fib, tableStream);
+            _bookmarksTables.writeSttbfBkmk(_fib, tableStream);
+        }
+
+        if (_lt != null && _listsChanged) {
+            _lt.writeListDataTo(_fib, tableStream);
+            _lt.writeListOverridesTo(_fib, tableStream);
+        }
+
+        _fib.getFibBase().setFComplex(true);
+        if (_fib.getFibBase().getNFib() < 0x00D9) {
+            _fib.getFibBase().setCQuickSaves((byte) Math.min(15, _fib
+                    .getFibBase().getCQuickSaves() + 1));
+        } else {
+            _fib.getFibBase().setCQuickSaves((byte) 0xF);
+        }
+        _fib.setCbMac(wordDocumentStream.getOffset());
+
+        // structures not handled by HWPF are kept in table stream of the file
+        byte[] mainBuf = wordDocumentStream.toByteArray();
+        _fib.writeTo(mainBuf, null);
+        byte[] tableBuf = tableStream.toByteArray();
+
+        String tableName = _fib.getFibBase().isFWhichTblStm() ? STREAM_TABLE_1
+                : STREAM_TABLE_0;
+        writeFileSystem(out, mainBuf, tableName, tableBuf, null);
+
+        this._mainStream = mainBuf;
+        this._tableStream = tableBuf;
+        _changeTracker.reset(_cbt, _pbt, _st);
+        _listsChanged = false;
+    }
+
+    /**
+     * Replaces preserved pieces of changed text with one piece of current
+     * text
+     *
+     * @param fc position of the new piece in document stream
+     * @return replaced range in current character positions, or <tt>null</tt>
+     * if nothing was changed
+     */
+    private int[] replaceChangedText(int fc) {
+        int[] range = _changeTracker.getChangedRange(_cbt, _pbt);
+        if (range != null) {
+            _cft.getTextPieceTable().replaceText(range[0],
+                    range[1] - _changeTracker.getLengthChange(),
+                    _text.substring(range[0], range[1]), fc);
+        }
+        return range;
+    }
+
+    /**
+     * Writes out file system with the given streams and other entries of
+     * document directory, preserving order of entries
+     *
+     * @param dataBuf data stream, or <tt>null</tt> to copy data stream entry
+     *                as is
+     */
+    private void writeFileSystem(OutputStream out, byte[] mainBuf,
+                                 String tableName, byte[] tableBuf, byte[] dataBuf)
+            throws IOException {
         NPOIFSFileSystem pfs = new NPOIFSFileSystem();
         boolean docWritten = false;
         boolean dataWritten = false;
@@ -944,7 +1359,7 @@ public final class HWPFDocument extends HWPFDocumentCore {
                     || entry.getName().equals(STREAM_TABLE_1)) {
                 if (!tableWritten) {
                     pfs.createDocument(new ByteArrayInputStream(tableBuf),
-                            STREAM_TABLE_1);
+                            tableName);
                     tableWritten = true;
                 }
             } else if (entry.getName().equals(
@@ -957,8 +1372,12 @@ public final class HWPFDocument extends HWPFDocumentCore {
                 }
             } else if (entry.getName().equals(STREAM_DATA)) {
                 if (!dataWritten) {
-                    pfs.createDocument(new ByteArrayInputStream(dataBuf),
-                            STREAM_DATA);
+                    if (dataBuf != null) {
+                        pfs.createDocument(new ByteArrayInputStream(dataBuf),
+                                STREAM_DATA);
+                    } else {
+                        EntryUtils.copyNodeRecursively(entry, pfs.getRoot());
+                    }
                     dataWritten = true;
                 }
             } else {
@@ -970,29 +1389,24 @@ public final class HWPFDocument extends HWPFDocumentCore {
             pfs.createDocument(new ByteArrayInputStream(mainBuf),
                     STREAM_WORD_DOCUMENT);
         if (!tableWritten)
-            pfs.createDocument(new ByteArrayInputStream(tableBuf),
-                    STREAM_TABLE_1);
+            pfs.createDocument(new ByteArrayInputStream(tableBuf), tableName);
         if (!propertiesWritten)
             writeProperties(pfs);
-        if (!dataWritten)
+        if (!dataWritten && dataBuf != null)
             pfs.createDocument(new ByteArrayInputStream(dataBuf), STREAM_DATA);
         if (!objectPoolWritten)
             _objectPool.writeTo(pfs.getRoot());
 
         pfs.writeFilesystem(out);
         this.directory = pfs.getRoot();
-
-		/*
-		 * since we updated all references in FIB and etc, using new arrays to
-		 * access data
-		 */
-        this.directory = pfs.getRoot();
-        this._tableStream = tableStream.toByteArray();
-        this._dataStream = dataBuf;
     }
 
     @Internal
     public byte[] getDataStream() {
+        if (_dataStream == null && _dataStreamView != null) {
+            _dataStream = _dataStreamView.getBytes(0,
+                    _dataStreamView.getSize());
+        }
         return _dataStream;
     }
 
@@ -1005,6 +1419,7 @@ public final class HWPFDocument extends HWPFDocumentCore {
         if (_lt == null) {
             _lt = new ListTables();
         }
+        _listsChanged = true;
         return _lt
                 .addList(list.getListData(), list.getLFO(), list.getLFOData());
     }
@@ -1013,4 +1428,36 @@ public final class HWPFDocument extends HWPFDocumentCore {
         Range r = new Range(start, start + length, this);
         r.delete();
     }
+
+    /**
+     * Also records change of text for incremental save
+     */
+    @Internal
+    @Override
+    public void textChanged(int cp, int adjustment) {
+        super.textChanged(cp, adjustment);
+        if (_changeTracker != null) {
+            _changeTracker.textChanged(cp, adjustment);
+        }
+    }
+
+    /**
+     * Holds executor used for {@link #PROPERTY_PARALLEL_BIN_TABLES}, created on
+     * first use and shared by all documents. Its threads are daemons, so it is
+     * never shut down
+     */
+    private static final class BinTablesExecutorHolder {
+        static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors(),
+                new ThreadFactory() {
+                    private final AtomicInteger threadNumber = new AtomicInteger();
+
+                    public Thread newThread(Runnable r) {
+                        Thread thread = new Thread(r, "HWPFDocument-binTables-"
+                                + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+    }
 }
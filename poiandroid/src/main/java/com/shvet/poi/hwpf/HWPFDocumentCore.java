@@ -26,9 +26,11 @@ import com.shvet.poi.hwpf.model.PAPBinTable;
 import com.shvet.poi.hwpf.model.SectionTable;
 import com.shvet.poi.hwpf.model.StyleSheet;
 import com.shvet.poi.hwpf.model.TextPieceTable;
+import com.shvet.poi.hwpf.usermodel.ListNumbering;
 import com.shvet.poi.hwpf.usermodel.ObjectPoolImpl;
 import com.shvet.poi.hwpf.usermodel.ObjectsPool;
 import com.shvet.poi.hwpf.usermodel.Range;
+import com.shvet.poi.hwpf.usermodel.TableIndex;
 import com.shvet.poi.poifs.filesystem.DirectoryEntry;
 import com.shvet.poi.poifs.filesystem.DirectoryNode;
 import com.shvet.poi.poifs.filesystem.DocumentEntry;
@@ -94,6 +96,16 @@ public abstract class HWPFDocumentCore extends POIDocument {
      */
     protected byte[] _mainStream;
 
+    /**
+     * Labels of list paragraphs, built on first access
+     */
+    private ListNumbering _listNumbering;
+
+    /**
+     * Table structure of document paragraphs, built on first access
+     */
+    private TableIndex _tableIndex;
+
     protected HWPFDocumentCore() {
         super((DirectoryNode) null);
     }
@@ -229,6 +241,50 @@ public abstract class HWPFDocumentCore extends POIDocument {
         return _lt;
     }
 
+    /**
+     * Returns number labels of all list paragraphs of document. Labels are
+     * computed once (in one pass over all paragraphs) and cached until
+     * document text is changed.
+     */
+    public ListNumbering getListNumbering() {
+        ListNumbering listNumbering = _listNumbering;
+        if (listNumbering == null) {
+            listNumbering = new ListNumbering(this);
+            _listNumbering = listNumbering;
+        }
+        return listNumbering;
+    }
+
+    /**
+     * Returns table structure of document paragraphs, shared by all ranges of
+     * document. Index is built once (in one pass over all paragraphs) and
+     * cached until document text is changed.
+     */
+    @Internal
+    public TableIndex getTableIndex() {
+        TableIndex tableIndex = _tableIndex;
+        if (tableIndex == null) {
+            tableIndex = new TableIndex(this, getParagraphTable()
+                    .getParagraphs());
+            _tableIndex = tableIndex;
+        }
+        return tableIndex;
+    }
+
+    /**
+     * Drops caches built over document paragraphs. Called by {@link Range}
+     * after text is inserted or deleted
+     *
+     * @param cp         position of inserted or deleted text
+     * @param adjustment number of inserted characters, or negative number of
+     *                   deleted ones
+     */
+    @Internal
+    public void textChanged(int cp, int adjustment) {
+        _listNumbering = null;
+        _tableIndex = null;
+    }
+
     public FontTable getFontTable() {
         return _ft;
     }
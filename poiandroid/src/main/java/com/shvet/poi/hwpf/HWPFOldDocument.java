@@ -16,12 +16,14 @@
 ==================================================================== */
 package com.shvet.poi.hwpf;
 
+import com.shvet.poi.hwpf.model.CHPBinTable;
 import com.shvet.poi.hwpf.model.ComplexFileTable;
 import com.shvet.poi.hwpf.model.OldCHPBinTable;
 import com.shvet.poi.hwpf.model.OldPAPBinTable;
 import com.shvet.poi.hwpf.model.OldSectionTable;
+import com.shvet.poi.hwpf.model.PAPBinTable;
 import com.shvet.poi.hwpf.model.PieceDescriptor;
-import com.shvet.poi.hwpf.model.TextPiece;
+import com.shvet.poi.hwpf.model.SectionTable;
 import com.shvet.poi.hwpf.model.TextPieceTable;
 import com.shvet.poi.hwpf.usermodel.Range;
 import com.shvet.poi.poifs.filesystem.DirectoryNode;
@@ -36,10 +38,28 @@ import java.io.OutputStream;
  * files.
  */
 public class HWPFOldDocument extends HWPFDocumentCore {
+    /**
+     * Number of characters written to output at once by
+     * {@link #writeTextTo(Appendable)}
+     */
+    private static final int TEXT_CHUNK_SIZE = 4096;
+
     private TextPieceTable tpt;
 
+    /**
+     * Complex file table of fast-saved document, <tt>null</tt> for regular
+     * one or if text is not loaded yet
+     */
+    private ComplexFileTable _cft;
+
     private StringBuilder _text;
 
+    /**
+     * Whether text and bin tables are loaded on first access (see
+     * {@link HWPFDocument#PROPERTY_LAZY_LOADING})
+     */
+    private boolean _lazyLoading;
+
     public HWPFOldDocument(POIFSFileSystem fs) throws IOException {
         this(fs.getRoot());
     }
@@ -54,31 +74,44 @@ public class HWPFOldDocument extends HWPFDocumentCore {
             throws IOException {
         super(directory);
 
-        // Where are things?
-        int sedTableOffset = LittleEndian.getInt(_mainStream, 0x88);
-        int sedTableSize = LittleEndian.getInt(_mainStream, 0x8c);
-        int chpTableOffset = LittleEndian.getInt(_mainStream, 0xb8);
-        int chpTableSize = LittleEndian.getInt(_mainStream, 0xbc);
-        int papTableOffset = LittleEndian.getInt(_mainStream, 0xc0);
-        int papTableSize = LittleEndian.getInt(_mainStream, 0xc4);
-        //int shfTableOffset = LittleEndian.getInt(_mainStream, 0x60);
-        //int shfTableSize   = LittleEndian.getInt(_mainStream, 0x64);
+        /*
+         * In lazy mode text piece table is read on first access to text, and
+         * CHPX, PAPX and section tables on first access to them (i.e. when
+         * the first range is created)
+         */
+        boolean lazyLoading = false;
+        try {
+            lazyLoading = Boolean.parseBoolean(System
+                    .getProperty(HWPFDocument.PROPERTY_LAZY_LOADING));
+        } catch (Exception exc) {
+            // ignore;
+        }
+
+        if (lazyLoading) {
+            _lazyLoading = true;
+        } else {
+            initBinTables();
+        }
+    }
+
+    /**
+     * Reads text pieces, unless already loaded. Text of pieces is not
+     * decoded.
+     */
+    private void initTextTable() throws IOException {
+        if (tpt != null)
+            return;
+
         int complexTableOffset = LittleEndian.getInt(_mainStream, 0x160);
 
         // We need to get hold of the text that makes up the
         //  document, which might be regular or fast-saved
-        ComplexFileTable cft = null;
-        StringBuffer text = new StringBuffer();
         if (_fib.getFibBase().isFComplex()) {
-            cft = new ComplexFileTable(
+            _cft = new ComplexFileTable(
                     _mainStream, _mainStream,
                     complexTableOffset, _fib.getFibBase().getFcMin()
             );
-            tpt = cft.getTextPieceTable();
-
-            for (TextPiece tp : tpt.getTextPieces()) {
-                text.append(tp.getStringBuilder());
-            }
+            tpt = _cft.getTextPieceTable();
         } else {
             // TODO Discover if these older documents can ever hold Unicode Strings?
             //  (We think not, because they seem to lack a Piece table)
@@ -88,19 +121,43 @@ public class HWPFOldDocument extends HWPFDocumentCore {
             pd.setFilePosition(_fib.getFibBase().getFcMin());
 
             // Generate a single Text Piece Table, with a single Text Piece
-            //  which covers all the (8 bit only) text in the file
-            tpt = new TextPieceTable();
-            byte[] textData = new byte[_fib.getFibBase().getFcMac() - _fib.getFibBase().getFcMin()];
-            System.arraycopy(_mainStream, _fib.getFibBase().getFcMin(), textData, 0, textData.length);
-            TextPiece tp = new TextPiece(
-                    0, textData.length, textData, pd
-            );
-            tpt.add(tp);
-
-            text.append(tp.getStringBuilder());
+            //  which covers all the (8 bit only) text in the file, decoded
+            //  from main stream when needed
+            tpt = new TextPieceTable(_mainStream, _fib.getFibBase().getFcMin(),
+                    _fib.getFibBase().getFcMac(), pd);
         }
+    }
 
+    /**
+     * Decodes document text, unless already loaded
+     */
+    private void initText() throws IOException {
+        if (_text != null)
+            return;
+
+        initTextTable();
         _text = tpt.getText();
+    }
+
+    /**
+     * Reads CHPX, PAPX and section tables (and text they refer to), unless
+     * already loaded
+     */
+    private void initBinTables() throws IOException {
+        if (_cbt != null)
+            return;
+
+        // Where are things?
+        int sedTableOffset = LittleEndian.getInt(_mainStream, 0x88);
+        int sedTableSize = LittleEndian.getInt(_mainStream, 0x8c);
+        int chpTableOffset = LittleEndian.getInt(_mainStream, 0xb8);
+        int chpTableSize = LittleEndian.getInt(_mainStream, 0xbc);
+        int papTableOffset = LittleEndian.getInt(_mainStream, 0xc0);
+        int papTableSize = LittleEndian.getInt(_mainStream, 0xc4);
+        //int shfTableOffset = LittleEndian.getInt(_mainStream, 0x60);
+        //int shfTableSize   = LittleEndian.getInt(_mainStream, 0x64);
+
+        initText();
 
         // Now we can fetch the character and paragraph properties
         _cbt = new OldCHPBinTable(
@@ -129,8 +186,23 @@ public class HWPFOldDocument extends HWPFDocumentCore {
         }
 
         if (!preserveBinTables) {
-            _cbt.rebuild(cft);
-            _pbt.rebuild(_text, cft);
+            _cbt.rebuild(_cft);
+            _pbt.rebuild(_text, _cft);
+        }
+    }
+
+    /**
+     * Loads lazily loaded parts of document needed for access to text, and
+     * to bin tables if requested
+     */
+    private void loadLazily(boolean binTables) {
+        try {
+            if (binTables)
+                initBinTables();
+            else
+                initText();
+        } catch (IOException exc) {
+            throw new RuntimeException(exc);
         }
     }
 
@@ -143,15 +215,75 @@ public class HWPFOldDocument extends HWPFDocumentCore {
         return getOverallRange();
     }
 
+    @Override
+    public CHPBinTable getCharacterTable() {
+        if (_lazyLoading)
+            loadLazily(true);
+
+        return _cbt;
+    }
+
+    @Override
+    public PAPBinTable getParagraphTable() {
+        if (_lazyLoading)
+            loadLazily(true);
+
+        return _pbt;
+    }
+
+    @Override
+    public SectionTable getSectionTable() {
+        if (_lazyLoading)
+            loadLazily(true);
+
+        return _st;
+    }
+
     public TextPieceTable getTextTable() {
+        if (_lazyLoading)
+            loadLazily(false);
+
         return tpt;
     }
 
     @Override
     public StringBuilder getText() {
+        if (_lazyLoading)
+            loadLazily(false);
+
         return _text;
     }
 
+    /**
+     * Writes document text to the output by chunks, decoding it straight
+     * from WordDocument stream. Neither CHPX, PAPX and section tables are
+     * loaded nor the whole text is kept in memory for this (unless it was
+     * already loaded), so it is the cheapest way to get text of document
+     * loaded with {@link HWPFDocument#PROPERTY_LAZY_LOADING} set.
+     *
+     * @param out where to write text to, i.e. {@link StringBuilder} or
+     *            {@link java.io.Writer}
+     */
+    public void writeTextTo(Appendable out) throws IOException {
+        if (_text != null) {
+            out.append(_text);
+            return;
+        }
+
+        initTextTable();
+        CharSequence text = tpt.getLazyText();
+        if (text == null) {
+            out.append(getText());
+            return;
+        }
+
+        final int length = text.length();
+        for (int offset = 0; offset < length; offset += TEXT_CHUNK_SIZE) {
+            out.append(text, offset, Math.min(length, offset
+                    + TEXT_CHUNK_SIZE));
+        }
+    }
+
     @Override
     public void write(OutputStream out) throws IOException {
         throw new IllegalStateException("Writing is not available for the older file formats");
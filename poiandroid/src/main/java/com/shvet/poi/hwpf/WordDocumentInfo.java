@@ -0,0 +1,368 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package com.shvet.poi.hwpf;
+
+import com.shvet.poi.hpsf.DocumentSummaryInformation;
+import com.shvet.poi.hpsf.HPSFPropertiesOnlyDocument;
+import com.shvet.poi.hpsf.SummaryInformation;
+import com.shvet.poi.hwpf.model.FibBase;
+import com.shvet.poi.poifs.filesystem.DirectoryNode;
+import com.shvet.poi.poifs.filesystem.DocumentEntry;
+import com.shvet.poi.poifs.filesystem.DocumentInputStream;
+import com.shvet.poi.poifs.filesystem.NPOIFSFileSystem;
+import com.shvet.poi.util.LittleEndian;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Date;
+
+/**
+ * Basic information about Word binary file: FIB header flags and version,
+ * and document summary properties. Unlike {@link HWPFDocumentCore} it reads
+ * only the FIB header from the WordDocument stream and the two property set
+ * streams, so it can be used to decide whether (and how) document shall be
+ * parsed at all.
+ * <p>
+ * Instances are immutable.
+ */
+public final class WordDocumentInfo {
+    /**
+     * Offset of cbRgFcLcb field in FIB of Word 97 and later documents
+     */
+    private static final int FIB_CB_RG_FC_LCB_OFFSET = 152;
+
+    /**
+     * Time of absent date
+     */
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private final int nFib;
+    private final int nFibNew;
+    private final int lid;
+    private final boolean template;
+    private final boolean glossary;
+    private final boolean complex;
+    private final boolean hasPictures;
+    private final int quickSaves;
+    private final boolean encrypted;
+    private final boolean obfuscated;
+    private final boolean table1;
+    private final boolean readOnlyRecommended;
+    private final boolean extChar;
+
+    private final String title;
+    private final String subject;
+    private final String author;
+    private final String keywords;
+    private final String comments;
+    private final String lastAuthor;
+    private final String applicationName;
+    private final long createDateTime;
+    private final long lastSaveDateTime;
+    private final int pageCount;
+    private final int wordCount;
+    private final int charCount;
+    private final String company;
+    private final String manager;
+    private final String category;
+
+    private WordDocumentInfo(FibBase fibBase, int nFibNew,
+                             SummaryInformation si, DocumentSummaryInformation dsi) {
+        nFib = fibBase.getNFib();
+        this.nFibNew = nFibNew;
+        lid = fibBase.getLid();
+        template = fibBase.isFDot();
+        glossary = fibBase.isFGlsy();
+        complex = fibBase.isFComplex();
+        hasPictures = fibBase.isFHasPic();
+        quickSaves = fibBase.getCQuickSaves();
+        encrypted = fibBase.isFEncrypted();
+        obfuscated = fibBase.isFObfuscated();
+        table1 = fibBase.isFWhichTblStm();
+        readOnlyRecommended = fibBase.isFReadOnlyRecommended();
+        extChar = fibBase.isFExtChar();
+
+        if (si != null) {
+            title = si.getTitle();
+            subject = si.getSubject();
+            author = si.getAuthor();
+            keywords = si.getKeywords();
+            comments = si.getComments();
+            lastAuthor = si.getLastAuthor();
+            applicationName = si.getApplicationName();
+            createDateTime = getTime(si.getCreateDateTime());
+            lastSaveDateTime = getTime(si.getLastSaveDateTime());
+            pageCount = si.getPageCount();
+            wordCount = si.getWordCount();
+            charCount = si.getCharCount();
+        } else {
+            title = null;
+            subject = null;
+            author = null;
+            keywords = null;
+            comments = null;
+            lastAuthor = null;
+            applicationName = null;
+            createDateTime = NO_DATE;
+            lastSaveDateTime = NO_DATE;
+            pageCount = 0;
+            wordCount = 0;
+            charCount = 0;
+        }
+
+        if (dsi != null) {
+            company = dsi.getCompany();
+            manager = dsi.getManager();
+            category = dsi.getCategory();
+        } else {
+            company = null;
+            manager = null;
+            category = null;
+        }
+    }
+
+    /**
+     * Reads information about Word document in the given file. File is opened
+     * read-only, and only the needed streams are read.
+     */
+    public static WordDocumentInfo read(File file) throws IOException {
+        NPOIFSFileSystem fs = new NPOIFSFileSystem(file, true);
+        try {
+            return read(fs.getRoot());
+        } finally {
+            fs.close();
+        }
+    }
+
+    /**
+     * Reads information about Word document from the stream. Whole stream is
+     * loaded to build file system, use {@link #read(File)} if possible.
+     */
+    public static WordDocumentInfo read(InputStream is) throws IOException {
+        NPOIFSFileSystem fs = new NPOIFSFileSystem(is);
+        try {
+            return read(fs.getRoot());
+        } finally {
+            fs.close();
+        }
+    }
+
+    /**
+     * Reads information about Word document stored in the given directory
+     */
+    public static WordDocumentInfo read(DirectoryNode directory)
+            throws IOException {
+        DocumentEntry documentEntry = (DocumentEntry) directory
+                .getEntry(HWPFDocumentCore.STREAM_WORD_DOCUMENT);
+        DocumentInputStream mainStream = directory
+                .createDocumentInputStream(documentEntry);
+        FibBase fibBase;
+        int nFibNew = -1;
+        try {
+            byte[] header = new byte[FibBase.getSize()];
+            mainStream.readFully(header);
+            fibBase = new FibBase(header, 0);
+            nFibNew = readNFibNew(fibBase, mainStream, documentEntry.getSize());
+        } finally {
+            mainStream.close();
+        }
+
+        HPSFPropertiesOnlyDocument properties = new HPSFPropertiesOnlyDocument(
+                directory);
+        return new WordDocumentInfo(fibBase, nFibNew,
+                properties.getSummaryInformation(),
+                properties.getDocumentSummaryInformation());
+    }
+
+    /**
+     * Reads nFibNew from FIB, skipping fields between
+     *
+     * @param mainStream positioned after FibBase
+     * @return nFibNew, or <tt>-1</tt> if FIB doesn't have it
+     */
+    private static int readNFibNew(FibBase fibBase,
+                                   DocumentInputStream mainStream, int streamSize)
+            throws IOException {
+        if (fibBase.getNFib() < 106 || streamSize < FIB_CB_RG_FC_LCB_OFFSET
+                + LittleEndian.SHORT_SIZE)
+            return -1;
+
+        mainStream.skip(FIB_CB_RG_FC_LCB_OFFSET - FibBase.getSize());
+        final int cbRgFcLcb = mainStream.readUShort();
+        final int cswNewOffset = FIB_CB_RG_FC_LCB_OFFSET
+                + LittleEndian.SHORT_SIZE + cbRgFcLcb * LittleEndian.INT_SIZE
+                * 2;
+        if (streamSize < cswNewOffset + 2 * LittleEndian.SHORT_SIZE)
+            return -1;
+
+        mainStream.skip(cbRgFcLcb * LittleEndian.INT_SIZE * 2);
+        if (mainStream.readUShort() == 0)
+            return -1;
+        return mainStream.readUShort();
+    }
+
+    private static long getTime(Date date) {
+        return date != null ? date.getTime() : NO_DATE;
+    }
+
+    private static Date getDate(long time) {
+        return time != NO_DATE ? new Date(time) : null;
+    }
+
+    /**
+     * @return nFib of FibBase, <tt>0xC1</tt> for Word 97 and later
+     */
+    public int getNFib() {
+        return nFib;
+    }
+
+    /**
+     * @return nFibNew, which specifies version of Word 2000 and later files,
+     * or <tt>-1</tt> if FIB doesn't have it
+     */
+    public int getNFibNew() {
+        return nFibNew;
+    }
+
+    /**
+     * @return <tt>true</tt> if document is Word 95 or older, and shall be read
+     * by {@link HWPFOldDocument}
+     */
+    public boolean isOldFormat() {
+        return nFib < 106;
+    }
+
+    public int getLid() {
+        return lid;
+    }
+
+    public boolean isTemplate() {
+        return template;
+    }
+
+    public boolean isGlossary() {
+        return glossary;
+    }
+
+    /**
+     * @return <tt>true</tt> if document was fast saved
+     */
+    public boolean isComplex() {
+        return complex;
+    }
+
+    public boolean isHasPictures() {
+        return hasPictures;
+    }
+
+    public int getQuickSaves() {
+        return quickSaves;
+    }
+
+    public boolean isEncrypted() {
+        return encrypted;
+    }
+
+    public boolean isObfuscated() {
+        return obfuscated;
+    }
+
+    /**
+     * @return <tt>true</tt> if table stream is 1Table, <tt>false</tt> for
+     * 0Table
+     */
+    public boolean isTable1() {
+        return table1;
+    }
+
+    public boolean isReadOnlyRecommended() {
+        return readOnlyRecommended;
+    }
+
+    public boolean isExtChar() {
+        return extChar;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public String getKeywords() {
+        return keywords;
+    }
+
+    public String getComments() {
+        return comments;
+    }
+
+    public String getLastAuthor() {
+        return lastAuthor;
+    }
+
+    public String getApplicationName() {
+        return applicationName;
+    }
+
+    public Date getCreateDateTime() {
+        return getDate(createDateTime);
+    }
+
+    public Date getLastSaveDateTime() {
+        return getDate(lastSaveDateTime);
+    }
+
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    public int getWordCount() {
+        return wordCount;
+    }
+
+    public int getCharCount() {
+        return charCount;
+    }
+
+    public String getCompany() {
+        return company;
+    }
+
+    public String getManager() {
+        return manager;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    @Override
+    public String toString() {
+        return "WordDocumentInfo [nFib=" + nFib + ", nFibNew=" + nFibNew
+                + ", encrypted=" + encrypted + ", complex=" + complex
+                + ", title=" + title + ", author=" + author + "]";
+    }
+}
@@ -0,0 +1,141 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package com.shvet.poi.hwpf.extractor;
+
+import com.shvet.poi.hwpf.usermodel.Range;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * {@link Appendable} wrapper that removes field codes from text passing
+ * through it. A field is <tt>0x13 [code] 0x15</tt> or
+ * <tt>0x13 [code] 0x14 [result] 0x15</tt>, fields may be nested: field marks
+ * and codes are removed, results are kept. Text is filtered in one pass, so
+ * it can be used with streaming output, i.e.
+ * <pre>
+ * extractor.writeTextTo(new FieldCodeStripper(writer));
+ * </pre>
+ * <p>
+ * Unlike {@link Range#stripFields(String)} fields are matched by nesting, not
+ * by the last field end mark of the text. Separator and end marks outside of
+ * fields are passed as is, and text of field not ended till the end of text
+ * is lost.
+ */
+public final class FieldCodeStripper implements Appendable {
+    private static final char FIELD_BEGIN_MARK = '\u0013';
+    private static final char FIELD_SEPARATOR_MARK = '\u0014';
+    private static final char FIELD_END_MARK = '\u0015';
+
+    private final Appendable out;
+
+    /**
+     * For every open field, whether its separator was passed
+     */
+    private boolean[] separated = new boolean[8];
+    private int depth = 0;
+
+    /**
+     * Number of open fields still in code part, text is written only when it
+     * is zero
+     */
+    private int inCode = 0;
+
+    public FieldCodeStripper(Appendable out) {
+        this.out = out;
+    }
+
+    public FieldCodeStripper append(CharSequence csq) throws IOException {
+        if (csq == null)
+            csq = "null";
+        return append(csq, 0, csq.length());
+    }
+
+    public FieldCodeStripper append(CharSequence csq, int start, int end)
+            throws IOException {
+        if (csq == null)
+            csq = "null";
+
+        int written = start;
+        for (int i = start; i < end; i++) {
+            char c = csq.charAt(i);
+            if (c != FIELD_BEGIN_MARK && c != FIELD_SEPARATOR_MARK
+                    && c != FIELD_END_MARK)
+                continue;
+
+            if (inCode == 0 && written < i)
+                out.append(csq, written, i);
+            written = i + 1;
+
+            if (!mark(c))
+                out.append(c);
+        }
+        if (inCode == 0 && written < end)
+            out.append(csq, written, end);
+        return this;
+    }
+
+    public FieldCodeStripper append(char c) throws IOException {
+        if (c == FIELD_BEGIN_MARK || c == FIELD_SEPARATOR_MARK
+                || c == FIELD_END_MARK) {
+            if (mark(c))
+                return this;
+        }
+        if (inCode == 0)
+            out.append(c);
+        return this;
+    }
+
+    /**
+     * @return <tt>true</tt> if text is in field (code or result) now
+     */
+    public boolean isInField() {
+        return depth > 0;
+    }
+
+    /**
+     * Updates fields nesting with the mark
+     *
+     * @return <tt>false</tt> if mark is not a part of field and shall be
+     * written as a regular character
+     */
+    private boolean mark(char c) {
+        switch (c) {
+            case FIELD_BEGIN_MARK:
+                if (depth == separated.length)
+                    separated = Arrays.copyOf(separated, depth * 2);
+                separated[depth++] = false;
+                inCode++;
+                return true;
+            case FIELD_SEPARATOR_MARK:
+                if (depth == 0)
+                    return false;
+                if (!separated[depth - 1]) {
+                    separated[depth - 1] = true;
+                    inCode--;
+                }
+                return true;
+            default:
+                if (depth == 0)
+                    return false;
+                if (!separated[--depth])
+                    inCode--;
+                return true;
+        }
+    }
+}
@@ -0,0 +1,358 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package com.shvet.poi.hwpf.extractor;
+
+import com.shvet.poi.EncryptedDocumentException;
+import com.shvet.poi.POIOLE2TextExtractor;
+import com.shvet.poi.hpsf.HPSFPropertiesOnlyDocument;
+import com.shvet.poi.hwpf.HWPFDocument;
+import com.shvet.poi.hwpf.HWPFDocumentCore;
+import com.shvet.poi.hwpf.OldWordFileFormatException;
+import com.shvet.poi.hwpf.model.ComplexFileTable;
+import com.shvet.poi.hwpf.model.FIBFieldHandler;
+import com.shvet.poi.hwpf.model.FibBase;
+import com.shvet.poi.hwpf.model.GenericPropertyNode;
+import com.shvet.poi.hwpf.model.PieceDescriptor;
+import com.shvet.poi.hwpf.model.PlexOfCps;
+import com.shvet.poi.poifs.filesystem.DirectoryNode;
+import com.shvet.poi.poifs.filesystem.DocumentEntry;
+import com.shvet.poi.poifs.filesystem.DocumentInputStream;
+import com.shvet.poi.poifs.filesystem.POIFSFileSystem;
+import com.shvet.poi.util.LittleEndian;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Lightweight text extractor for Word 97-2007 binary files. Unlike
+ * {@link HWPFDocument#getDocumentText()} it does not build document model:
+ * only the FIB, the piece table (CLX) and the text pieces of WordDocument
+ * stream are read, and text is decoded piece by piece straight to the output.
+ * <p>
+ * Resulting text is the same as document text of {@link HWPFDocument}, i.e. it
+ * includes headers, notes, other subdocuments and field codes.
+ */
+public final class WordStreamingExtractor extends POIOLE2TextExtractor {
+    private static final String STREAM_WORD_DOCUMENT = "WordDocument";
+    private static final String STREAM_TABLE_0 = "0Table";
+    private static final String STREAM_TABLE_1 = "1Table";
+
+    /**
+     * Offset of fibRgFcLcbBlob in FIB of Word 97 and later documents
+     */
+    private static final int FIB_RG_FC_LCB_OFFSET = 154;
+
+    private static final int BUFFER_SIZE = 4096;
+
+    private static final Charset CHARSET_UNICODE = Charset.forName("UTF-16LE");
+    private static final Charset CHARSET_8BIT = Charset.forName("Cp1252");
+
+    private final DirectoryNode directory;
+
+    public WordStreamingExtractor(InputStream is) throws IOException {
+        this(HWPFDocumentCore.verifyAndBuildPOIFS(is));
+    }
+
+    public WordStreamingExtractor(POIFSFileSystem fs) {
+        this(fs.getRoot());
+    }
+
+    public WordStreamingExtractor(DirectoryNode directory) {
+        super(new HPSFPropertiesOnlyDocument(directory));
+        this.directory = directory;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Use:");
+            System.err.println("   java com.shvet.poi.hwpf.extractor.WordStreamingExtractor <filename>");
+            System.exit(1);
+        }
+
+        // Process the first argument as a file
+        InputStream fin = new FileInputStream(args[0]);
+        try {
+            WordStreamingExtractor extractor = new WordStreamingExtractor(fin);
+            Writer out = new OutputStreamWriter(System.out);
+            extractor.writeTextTo(out);
+            out.flush();
+        } finally {
+            fin.close();
+        }
+    }
+
+    private static Piece[] readPieces(byte[] clx) throws IOException {
+        PlexOfCps pieceTable = ComplexFileTable.readPieceTable(clx, 0);
+
+        Piece[] pieces = new Piece[pieceTable.length()];
+        for (int x = 0; x < pieces.length; x++) {
+            GenericPropertyNode node = pieceTable.getProperty(x);
+            pieces[x] = new Piece(node.getStart(), node.getEnd(),
+                    new PieceDescriptor(node.getBytes(), 0));
+        }
+
+        // text pieces don't have to be stored in order
+        Arrays.sort(pieces, new Comparator<Piece>() {
+            public int compare(Piece o1, Piece o2) {
+                return o1.cpStart < o2.cpStart ? -1
+                        : (o1.cpStart == o2.cpStart ? 0 : 1);
+            }
+        });
+        return pieces;
+    }
+
+    /**
+     * Returns document text, i.e. text information from all text pieces,
+     * including OLE descriptions and field codes
+     */
+    @Override
+    public String getText() {
+        StringBuilder text = new StringBuilder();
+        try {
+            writeTextTo(text);
+        } catch (IOException exc) {
+            throw new RuntimeException(exc);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Returns document text without field codes, i.e. with field results only
+     *
+     * @see FieldCodeStripper
+     */
+    public String getTextWithoutFieldCodes() {
+        StringBuilder text = new StringBuilder();
+        try {
+            writeTextTo(new FieldCodeStripper(text));
+        } catch (IOException exc) {
+            throw new RuntimeException(exc);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Writes document text to the output. Wrap output into
+     * {@link FieldCodeStripper} to write text without field codes.
+     *
+     * @param out where to write text to, i.e. {@link StringBuilder} or
+     *            {@link Writer}
+     */
+    public void writeTextTo(Appendable out) throws IOException {
+        writeTextTo(out, null);
+    }
+
+    /**
+     * Writes document text to the output, notifying callback about every
+     * paragraph written
+     *
+     * @param out      where to write text to, i.e. {@link StringBuilder} or
+     *                 {@link Writer}
+     * @param callback to be notified after each paragraph, may be
+     *                 <tt>null</tt>
+     */
+    public void writeTextTo(Appendable out, ParagraphCallback callback)
+            throws IOException {
+        DocumentEntry documentEntry = (DocumentEntry) directory
+                .getEntry(STREAM_WORD_DOCUMENT);
+        DocumentInputStream mainStream = directory
+                .createDocumentInputStream(documentEntry);
+        try {
+            // FIB up to (including) CLX location
+            byte[] fib = new byte[Math.min(documentEntry.getSize(),
+                    FIB_RG_FC_LCB_OFFSET + (FIBFieldHandler.CLX + 1)
+                            * LittleEndian.INT_SIZE * 2)];
+            mainStream.readFully(fib);
+            long mainStreamPosition = fib.length;
+
+            FibBase fibBase = new FibBase(fib, 0);
+            if (fibBase.isFEncrypted()) {
+                throw new EncryptedDocumentException(
+                        "Cannot process encrypted word file");
+            }
+            if (fibBase.getNFib() < 106) {
+                throw new OldWordFileFormatException(
+                        "The document is too old - Word 95 or older. Try HWPFOldDocument instead?");
+            }
+
+            int clxFieldOffset = FIB_RG_FC_LCB_OFFSET + FIBFieldHandler.CLX
+                    * LittleEndian.INT_SIZE * 2;
+            int fcClx = LittleEndian.getInt(fib, clxFieldOffset);
+            int lcbClx = LittleEndian.getInt(fib, clxFieldOffset
+                    + LittleEndian.INT_SIZE);
+
+            Piece[] pieces = readPieces(readClx(
+                    fibBase.isFWhichTblStm() ? STREAM_TABLE_1 : STREAM_TABLE_0,
+                    fcClx, lcbClx));
+
+            TextSink sink = new TextSink(out, callback);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+            for (Piece piece : pieces) {
+                final int fc = piece.descriptor.getFilePosition();
+                if (fc < mainStreamPosition) {
+                    // back to the stream beginning
+                    mainStream.reset();
+                    mainStreamPosition = 0;
+                }
+                mainStream.skip(fc - mainStreamPosition);
+                mainStreamPosition = fc;
+
+                final boolean unicode = piece.descriptor.isUnicode();
+                final int bytesLength = (piece.cpEnd - piece.cpStart)
+                        * (unicode ? 2 : 1);
+                CharsetDecoder decoder = (unicode ? CHARSET_UNICODE
+                        : CHARSET_8BIT).newDecoder()
+                        .onMalformedInput(CodingErrorAction.REPLACE)
+                        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+                int remaining = bytesLength;
+                int carried = 0;
+                while (remaining > 0) {
+                    int read = mainStream.read(buffer, carried,
+                            Math.min(buffer.length - carried, remaining));
+                    if (read <= 0) {
+                        throw new IOException("Text piece at " + fc
+                                + " is outside of WordDocument stream");
+                    }
+                    remaining -= read;
+
+                    ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, carried
+                            + read);
+                    decoder.decode(bytes, chars, remaining == 0);
+                    if (remaining == 0)
+                        decoder.flush(chars);
+                    chars.flip();
+                    sink.append(chars);
+                    chars.clear();
+
+                    // keep incomplete characters for the next chunk
+                    carried = bytes.remaining();
+                    System.arraycopy(buffer, bytes.position(), buffer, 0,
+                            carried);
+                }
+                mainStreamPosition += bytesLength;
+            }
+            sink.finish();
+        } finally {
+            mainStream.close();
+        }
+    }
+
+    /**
+     * Reads CLX structure only, not the whole table stream
+     */
+    private byte[] readClx(String tableStreamName, int fcClx, int lcbClx)
+            throws IOException {
+        DocumentInputStream tableStream = directory
+                .createDocumentInputStream(tableStreamName);
+        try {
+            tableStream.skip(fcClx);
+            byte[] clx = new byte[lcbClx];
+            tableStream.readFully(clx);
+            return clx;
+        } finally {
+            tableStream.close();
+        }
+    }
+
+    /**
+     * Receives notifications about paragraphs boundaries while text is being
+     * written. Paragraphs (and table cells and rows) are terminated by
+     * <tt>\r</tt> or <tt>\u0007</tt> marks.
+     */
+    public interface ParagraphCallback {
+        /**
+         * Called after paragraph text, including its end mark, was written to
+         * output
+         *
+         * @param startCp character position of paragraph start
+         * @param endCp   character position after paragraph end mark
+         */
+        void paragraphEnd(int startCp, int endCp) throws IOException;
+    }
+
+    private static final class Piece {
+        final int cpStart;
+        final int cpEnd;
+        final PieceDescriptor descriptor;
+
+        Piece(int cpStart, int cpEnd, PieceDescriptor descriptor) {
+            this.cpStart = cpStart;
+            this.cpEnd = cpEnd;
+            this.descriptor = descriptor;
+        }
+    }
+
+    /**
+     * Writes decoded chunks to the output and tracks paragraph boundaries
+     */
+    private static final class TextSink {
+        private final Appendable out;
+        private final ParagraphCallback callback;
+
+        private int cp = 0;
+        private int paragraphStart = 0;
+
+        TextSink(Appendable out, ParagraphCallback callback) {
+            this.out = out;
+            this.callback = callback;
+        }
+
+        void append(CharBuffer chars) throws IOException {
+            final int length = chars.remaining();
+            if (callback == null) {
+                out.append(chars);
+                cp += length;
+                return;
+            }
+
+            int written = 0;
+            for (int i = 0; i < length; i++) {
+                char c = chars.get(chars.position() + i);
+                if (c != '\r' && c != '\u0007')
+                    continue;
+
+                out.append(chars, written, i + 1);
+                written = i + 1;
+
+                int paragraphEnd = cp + written;
+                callback.paragraphEnd(paragraphStart, paragraphEnd);
+                paragraphStart = paragraphEnd;
+            }
+            out.append(chars, written, length);
+            cp += length;
+        }
+
+        void finish() throws IOException {
+            // text without trailing paragraph mark
+            if (callback != null && paragraphStart < cp)
+                callback.paragraphEnd(paragraphStart, cp);
+        }
+    }
+}
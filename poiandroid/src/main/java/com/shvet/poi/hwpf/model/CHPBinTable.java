@@ -31,15 +31,9 @@ import com.shvet.poi.util.POILogger;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashSet;
-import java.util.IdentityHashMap;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 
 /**
  * This class holds all of the character formatting properties.
@@ -76,6 +70,19 @@ public class CHPBinTable {
      */
     public CHPBinTable(byte[] documentStream, byte[] tableStream, int offset,
                        int size, CharIndexTranslator translator) {
+        this(documentStream, tableStream, offset, size, translator, null);
+    }
+
+    /**
+     * Constructor used to read a binTable in from a Word document, optionally
+     * decoding FKP pages in parallel. Result does not depend on executor used.
+     *
+     * @param executor executor to decode FKP pages with, or <tt>null</tt> to
+     *                 decode them one by one in current thread
+     */
+    public CHPBinTable(final byte[] documentStream, byte[] tableStream,
+                       int offset, int size, final CharIndexTranslator translator,
+                       Executor executor) {
         long start = System.currentTimeMillis();
         /*
          * Page 35:
@@ -88,18 +95,30 @@ public class CHPBinTable {
         PlexOfCps bte = new PlexOfCps(tableStream, offset, size, 4);
 
         int length = bte.length();
-        for (int x = 0; x < length; x++) {
-            GenericPropertyNode node = bte.getProperty(x);
+        if (executor == null) {
+            for (int x = 0; x < length; x++) {
+                int pageOffset = FormattedDiskPage.getPageOffset(bte, x);
 
-            int pageNum = LittleEndian.getInt(node.getBytes());
-            int pageOffset = POIFSConstants.SMALLER_BIG_BLOCK_SIZE * pageNum;
+                CHPFormattedDiskPage cfkp = new CHPFormattedDiskPage(
+                        documentStream, pageOffset, translator);
 
-            CHPFormattedDiskPage cfkp = new CHPFormattedDiskPage(
-                    documentStream, pageOffset, translator);
-
-            for (CHPX chpx : cfkp.getCHPXs()) {
-                if (chpx != null)
-                    _textRuns.add(chpx);
+                addTextRuns(cfkp.getCHPXs());
+            }
+        } else {
+            List<Callable<List<CHPX>>> pages = new ArrayList<Callable<List<CHPX>>>(
+                    length);
+            for (int x = 0; x < length; x++) {
+                final int pageOffset = FormattedDiskPage.getPageOffset(bte, x);
+                pages.add(new Callable<List<CHPX>>() {
+                    public List<CHPX> call() {
+                        return new CHPFormattedDiskPage(documentStream,
+                                pageOffset, translator).getCHPXs();
+                    }
+                });
+            }
+            for (List<CHPX> chpxs : FormattedDiskPage.decodePages(pages,
+                    executor)) {
+                addTextRuns(chpxs);
             }
         }
         logger.log(POILogger.DEBUG, "CHPX FKPs loaded in ",
@@ -112,23 +131,26 @@ public class CHPBinTable {
         }
     }
 
-    private static int binarySearch(List<CHPX> chpxs, int startPosition) {
-        int low = 0;
-        int high = chpxs.size() - 1;
-
-        while (low <= high) {
-            int mid = (low + high) >>> 1;
-            CHPX midVal = chpxs.get(mid);
-            int midValue = midVal.getStart();
-
-            if (midValue < startPosition)
-                low = mid + 1;
-            else if (midValue > startPosition)
-                high = mid - 1;
-            else
-                return mid; // key found
+    private void addTextRuns(List<CHPX> chpxs) {
+        for (CHPX chpx : chpxs) {
+            if (chpx != null)
+                _textRuns.add(chpx);
         }
-        return -(low + 1); // key not found.
+    }
+
+    /**
+     * @return sort key of node position, with node index as tie-breaker
+     */
+    private static long toSortKey(int position, int index) {
+        return (((long) position) << 32) | index;
+    }
+
+    private static int getSortKeyPosition(long sortKey) {
+        return (int) (sortKey >> 32);
+    }
+
+    private static int getSortKeyIndex(long sortKey) {
+        return (int) sortKey;
     }
 
     public void rebuild(ComplexFileTable complexFileTable) {
@@ -155,7 +177,7 @@ public class CHPBinTable {
                 SprmBuffer sprmBuffer = sprmBuffers[igrpprl];
                 for (SprmIterator iterator = sprmBuffer.iterator(); iterator
                         .hasNext(); ) {
-                    SprmOperation sprmOperation = iterator.next();
+                    SprmOperation sprmOperation = iterator.nextShared();
                     if (sprmOperation.getType() == SprmOperation.TYPE_CHP) {
                         hasChp = true;
                         break;
@@ -183,83 +205,50 @@ public class CHPBinTable {
             start = System.currentTimeMillis();
         }
 
-        List<CHPX> oldChpxSortedByStartPos = new ArrayList<CHPX>(_textRuns);
-        Collections.sort(oldChpxSortedByStartPos,
-                PropertyNode.StartComparator.instance);
-
-        logger.log(POILogger.DEBUG, "CHPX sorted by start position in ",
-                Long.valueOf(System.currentTimeMillis() - start), " ms");
-        start = System.currentTimeMillis();
-
-        final Map<CHPX, Integer> chpxToFileOrder = new IdentityHashMap<CHPX, Integer>();
-        {
-            int counter = 0;
-            for (CHPX chpx : _textRuns) {
-                chpxToFileOrder.put(chpx, Integer.valueOf(counter++));
-            }
-        }
-        final Comparator<CHPX> chpxFileOrderComparator = new Comparator<CHPX>() {
-            public int compare(CHPX o1, CHPX o2) {
-                Integer i1 = chpxToFileOrder.get(o1);
-                Integer i2 = chpxToFileOrder.get(o2);
-                return i1.compareTo(i2);
-            }
-        };
-
-        logger.log(POILogger.DEBUG, "CHPX's order map created in ",
-                Long.valueOf(System.currentTimeMillis() - start), " ms");
-        start = System.currentTimeMillis();
-
-        List<Integer> textRunsBoundariesList;
-        {
-            Set<Integer> textRunsBoundariesSet = new HashSet<Integer>();
-            for (CHPX chpx : _textRuns) {
-                textRunsBoundariesSet.add(Integer.valueOf(chpx.getStart()));
-                textRunsBoundariesSet.add(Integer.valueOf(chpx.getEnd()));
-            }
-            textRunsBoundariesSet.remove(Integer.valueOf(0));
-            textRunsBoundariesList = new ArrayList<Integer>(
-                    textRunsBoundariesSet);
-            Collections.sort(textRunsBoundariesList);
+        /*
+         * Sweep over text runs boundaries. Runs are sorted by start position
+         * (file order is used as tie-breaker), and each segment between two
+         * boundaries takes properties of the last run started before its end,
+         * if that run covers the segment
+         */
+        final int count = _textRuns.size();
+        final CHPX[] chpxs = _textRuns.toArray(new CHPX[count]);
+        final long[] byStart = new long[count];
+        final int[] boundaries = new int[count * 2];
+        for (int i = 0; i < count; i++) {
+            CHPX chpx = chpxs[i];
+            byStart[i] = toSortKey(chpx.getStart(), i);
+            boundaries[2 * i] = chpx.getStart();
+            boundaries[2 * i + 1] = chpx.getEnd();
         }
+        Arrays.sort(byStart);
+        Arrays.sort(boundaries);
 
-        logger.log(POILogger.DEBUG, "Texts CHPX boundaries collected in ",
+        logger.log(POILogger.DEBUG, "CHPX boundaries sorted in ",
                 Long.valueOf(System.currentTimeMillis() - start), " ms");
         start = System.currentTimeMillis();
 
-        List<CHPX> newChpxs = new LinkedList<CHPX>();
+        List<CHPX> newChpxs = new ArrayList<CHPX>();
+        int nextByStart = 0;
+        CHPX lastStarted = null;
         int lastTextRunStart = 0;
-        for (Integer objBoundary : textRunsBoundariesList) {
-            final int boundary = objBoundary.intValue();
+        for (int b = 0; b < boundaries.length; b++) {
+            final int boundary = boundaries[b];
+            if (boundary == 0 || (b > 0 && boundaries[b - 1] == boundary))
+                continue;
 
             final int startInclusive = lastTextRunStart;
             final int endExclusive = boundary;
             lastTextRunStart = endExclusive;
 
-            int startPosition = binarySearch(oldChpxSortedByStartPos, boundary);
-            startPosition = Math.abs(startPosition);
-            while (startPosition >= oldChpxSortedByStartPos.size())
-                startPosition--;
-            while (startPosition > 0
-                    && oldChpxSortedByStartPos.get(startPosition).getStart() >= boundary)
-                startPosition--;
-
-            List<CHPX> chpxs = new LinkedList<CHPX>();
-            for (int c = startPosition; c < oldChpxSortedByStartPos.size(); c++) {
-                CHPX chpx = oldChpxSortedByStartPos.get(c);
-
-                if (boundary < chpx.getStart())
-                    break;
-
-                int left = Math.max(startInclusive, chpx.getStart());
-                int right = Math.min(endExclusive, chpx.getEnd());
-
-                if (left < right) {
-                    chpxs.add(chpx);
-                }
+            while (nextByStart < count
+                    && getSortKeyPosition(byStart[nextByStart]) < endExclusive) {
+                lastStarted = chpxs[getSortKeyIndex(byStart[nextByStart++])];
             }
 
-            if (chpxs.size() == 0) {
+            if (lastStarted == null
+                    || Math.max(startInclusive, lastStarted.getStart()) >= Math
+                    .min(endExclusive, lastStarted.getEnd())) {
                 logger.log(POILogger.WARN, "Text piece [",
                         Integer.valueOf(startInclusive), "; ",
                         Integer.valueOf(endExclusive),
@@ -271,51 +260,37 @@ public class CHPBinTable {
                 continue;
             }
 
-            if (chpxs.size() == 1) {
-                // can we reuse existing?
-                CHPX existing = chpxs.get(0);
-                if (existing.getStart() == startInclusive
-                        && existing.getEnd() == endExclusive) {
-                    newChpxs.add(existing);
-                    continue;
-                }
+            // can we reuse existing?
+            if (lastStarted.getStart() == startInclusive
+                    && lastStarted.getEnd() == endExclusive) {
+                newChpxs.add(lastStarted);
+                continue;
             }
 
-            Collections.sort(chpxs, chpxFileOrderComparator);
-
             SprmBuffer sprmBuffer = new SprmBuffer(0);
-            for (CHPX chpx : chpxs) {
-                sprmBuffer.append(chpx.getGrpprl(), 0);
-            }
+            sprmBuffer.append(lastStarted.getGrpprl(), 0);
             CHPX newChpx = new CHPX(startInclusive, endExclusive, sprmBuffer);
             newChpxs.add(newChpx);
-
-            continue;
         }
-        this._textRuns = new ArrayList<CHPX>(newChpxs);
 
         logger.log(POILogger.DEBUG, "CHPX rebuilded in ",
                 Long.valueOf(System.currentTimeMillis() - start), " ms (",
-                Integer.valueOf(_textRuns.size()), " elements)");
+                Integer.valueOf(newChpxs.size()), " elements)");
         start = System.currentTimeMillis();
 
+        ArrayList<CHPX> compacted = new ArrayList<CHPX>(newChpxs.size());
         CHPX previous = null;
-        for (Iterator<CHPX> iterator = _textRuns.iterator(); iterator.hasNext(); ) {
-            CHPX current = iterator.next();
-            if (previous == null) {
-                previous = current;
-                continue;
-            }
-
-            if (previous.getEnd() == current.getStart()
+        for (CHPX current : newChpxs) {
+            if (previous != null && previous.getEnd() == current.getStart()
                     && Arrays.equals(previous.getGrpprl(), current.getGrpprl())) {
                 previous.setEnd(current.getEnd());
-                iterator.remove();
                 continue;
             }
 
+            compacted.add(current);
             previous = current;
         }
+        this._textRuns = compacted;
 
         logger.log(POILogger.DEBUG, "CHPX compacted in ",
                 Long.valueOf(System.currentTimeMillis() - start), " ms (",
@@ -402,6 +377,28 @@ public class CHPBinTable {
         return _textRuns;
     }
 
+    /**
+     * Moves text runs to {@link CompactRunList}, so CHPX objects are created
+     * only when accessed
+     */
+    public void compact() {
+        if (_textRuns instanceof CompactRunList)
+            return;
+
+        _textRuns = new CompactRunList<CHPX>(_textRuns) {
+            @Override
+            protected byte[] getNodeGrpprl(CHPX node) {
+                return node.getGrpprl();
+            }
+
+            @Override
+            protected CHPX createNode(int index, int start, int end,
+                                      byte[] grpprl) {
+                return new CHPX(start, end, new SprmBuffer(grpprl, 0));
+            }
+        };
+    }
+
     @Deprecated
     public void writeTo(HWPFFileSystem sys, int fcMin,
                         CharIndexTranslator translator) throws IOException {
@@ -424,7 +421,39 @@ public class CHPBinTable {
 		 * further partitions an interval into runs of exception text."
 		 */
         PlexOfCps bte = new PlexOfCps(4);
+        writeFkpsTo(wordDocumentStream, _textRuns, bte, translator);
+        tableStream.write(bte.toByteArray());
+    }
 
+    /**
+     * Writes FKPs of runs between the given character positions only, cut by
+     * these positions, and adds their entries to the given bin table, which is
+     * then written to table stream. FKPs of text outside of the range are
+     * expected to be kept in document stream as they are, like incremental
+     * save does.
+     *
+     * @param bte bin table read from file, to add entries of the new FKPs to
+     */
+    public void writeTo(HWPFOutputStream wordDocumentStream,
+                        HWPFOutputStream tableStream, PlexOfCps bte, int start,
+                        int end, CharIndexTranslator translator) throws IOException {
+        List<CHPX> runs = new ArrayList<CHPX>();
+        for (CHPX chpx : _textRuns) {
+            int runStart = Math.max(chpx.getStart(), start);
+            int runEnd = Math.min(chpx.getEnd(), end);
+            if (runStart < runEnd) {
+                runs.add(new CHPX(runStart, runEnd, chpx.getSprmBuf()));
+            }
+        }
+
+        if (!runs.isEmpty())
+            writeFkpsTo(wordDocumentStream, runs, bte, translator);
+        tableStream.write(bte.toByteArray());
+    }
+
+    private static void writeFkpsTo(HWPFOutputStream wordDocumentStream,
+                                    List<CHPX> runs, PlexOfCps bte,
+                                    CharIndexTranslator translator) throws IOException {
         // each FKP must start on a 512 byte page.
         int docOffset = wordDocumentStream.getOffset();
         int mod = docOffset % POIFSConstants.SMALLER_BIG_BLOCK_SIZE;
@@ -439,13 +468,13 @@ public class CHPBinTable {
         int pageNum = docOffset / POIFSConstants.SMALLER_BIG_BLOCK_SIZE;
 
         // get the ending fc
-        // CHPX lastRun = _textRuns.get(_textRuns.size() - 1);
+        // CHPX lastRun = runs.get(runs.size() - 1);
         // int endingFc = lastRun.getEnd();
         // endingFc += fcMin;
-        int endingFc = translator.getByteIndex(_textRuns.get(
-                _textRuns.size() - 1).getEnd());
+        int endingFc = translator.getByteIndex(runs.get(
+                runs.size() - 1).getEnd());
 
-        List<CHPX> overflow = _textRuns;
+        List<CHPX> overflow = runs;
         do {
             CHPX startingProp = overflow.get(0);
             // int start = startingProp.getStart() + fcMin;
@@ -469,6 +498,5 @@ public class CHPBinTable {
             bte.addProperty(new GenericPropertyNode(start, end, intHolder));
 
         } while (overflow != null);
-        tableStream.write(bte.toByteArray());
     }
 }
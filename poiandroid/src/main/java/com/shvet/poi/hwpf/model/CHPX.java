@@ -65,9 +65,31 @@ public final class CHPX extends BytePropertyNode<CHPX> {
             return new CharacterProperties();
         }
 
-        CharacterProperties baseStyle = ss.getCharacterStyle(istd);
         CharacterProperties props = CharacterSprmUncompressor.uncompressCHP(ss,
-                baseStyle, getGrpprl(), 0);
+                istd, getGrpprl(), 0);
+        return props;
+    }
+
+    /**
+     * Returns character properties shared by all CHPXs with the same style
+     * and grpprl, resolving them only once per stylesheet. Returned object must
+     * not be changed, clone it instead.
+     */
+    public CharacterProperties getSharedCharacterProperties(StyleSheet ss,
+                                                            short istd) {
+        if (ss == null) {
+            return getCharacterProperties(ss, istd);
+        }
+
+        PropertiesCache<CharacterProperties> cache = ss
+                .getCharacterPropertiesCache();
+        byte[] grpprl = getGrpprl();
+        CharacterProperties props = cache.get(istd, grpprl);
+        if (props == null) {
+            props = CharacterSprmUncompressor.uncompressCHP(ss, istd, grpprl,
+                    0);
+            cache.put(istd, grpprl, props);
+        }
         return props;
     }
 
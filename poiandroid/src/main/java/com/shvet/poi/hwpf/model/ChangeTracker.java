@@ -0,0 +1,260 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package com.shvet.poi.hwpf.model;
+
+import com.shvet.poi.util.Internal;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tracks changes of document text, character runs, paragraphs and sections
+ * since document was loaded or last saved, so incremental save writes only
+ * changed part of document again.
+ * <p>
+ * Text changes are reported as they are made and are kept as one range of
+ * current character positions. Changes of properties are found on save by
+ * comparing runs with the snapshot taken on load (bounds and hash of grpprl
+ * of each run).
+ */
+@Internal
+public final class ChangeTracker {
+    /**
+     * Start of changed text, in current character positions, or -1 if text
+     * was not changed
+     */
+    private int _changedStart = -1;
+    /**
+     * End of changed text, in current character positions
+     */
+    private int _changedEnd;
+    /**
+     * Change of text length
+     */
+    private int _lengthChange;
+
+    private RunsSnapshot _characters;
+    private RunsSnapshot _paragraphs;
+    private RunsSnapshot _sections;
+
+    public ChangeTracker(CHPBinTable cbt, PAPBinTable pbt, SectionTable st) {
+        reset(cbt, pbt, st);
+    }
+
+    /**
+     * Forgets all changes, so current document state becomes the saved one
+     */
+    public void reset(CHPBinTable cbt, PAPBinTable pbt, SectionTable st) {
+        _changedStart = -1;
+        _changedEnd = 0;
+        _lengthChange = 0;
+        _characters = new RunsSnapshot(cbt.getTextRuns());
+        _paragraphs = new RunsSnapshot(pbt.getParagraphs());
+        _sections = new RunsSnapshot(st.getSections());
+    }
+
+    /**
+     * Records change of text
+     *
+     * @param cp         position of inserted or deleted text
+     * @param adjustment number of inserted characters, or negative number of
+     *                   deleted ones
+     */
+    public void textChanged(int cp, int adjustment) {
+        if (adjustment == 0)
+            return;
+
+        if (_changedStart == -1) {
+            _changedStart = cp;
+            _changedEnd = adjustment > 0 ? cp + adjustment : cp;
+        } else if (adjustment > 0) {
+            _changedStart = Math.min(_changedStart, cp);
+            _changedEnd = cp <= _changedEnd ? _changedEnd + adjustment : cp
+                    + adjustment;
+        } else {
+            _changedStart = Math.min(_changedStart, cp);
+            _changedEnd = cp < _changedEnd ? Math.max(cp, _changedEnd
+                    + adjustment) : cp;
+        }
+        _lengthChange += adjustment;
+    }
+
+    /**
+     * @return change of text length since load or last save
+     */
+    public int getLengthChange() {
+        return _lengthChange;
+    }
+
+    /**
+     * Finds range of text that has to be written again: changed text and runs
+     * or paragraphs with changed properties, extended to whole paragraphs.
+     *
+     * @return start and end of the range in current character positions, or
+     * <tt>null</tt> if neither text nor properties of runs and paragraphs
+     * were changed
+     */
+    public int[] getChangedRange(CHPBinTable cbt, PAPBinTable pbt) {
+        int[] range = _changedStart == -1 ? null : new int[]{_changedStart,
+                _changedEnd};
+        range = _characters.findChanges(cbt.getTextRuns(), range,
+                _lengthChange);
+        range = _paragraphs.findChanges(pbt.getParagraphs(), range,
+                _lengthChange);
+        if (range == null)
+            return null;
+
+        // new text starts and ends with whole paragraphs, so paragraph marks
+        // of text kept in file still have their PAPXs in file
+        List<PAPX> paragraphs = pbt.getParagraphs();
+        final int size = paragraphs.size();
+        if (size > 0) {
+            int first = size - 1;
+            for (int i = 0; i < size; i++) {
+                if (paragraphs.get(i).getEnd() > range[0]) {
+                    first = i;
+                    break;
+                }
+            }
+            int last = first;
+            for (int i = size - 1; i > first; i--) {
+                if (paragraphs.get(i).getStart() < range[1]) {
+                    last = i;
+                    break;
+                }
+            }
+            range[0] = Math.min(range[0], paragraphs.get(first).getStart());
+            range[1] = Math.max(range[1], paragraphs.get(last).getEnd());
+        }
+        return range;
+    }
+
+    /**
+     * @return <tt>true</tt> if sections were moved by text changes or their
+     * properties were changed
+     */
+    public boolean isSectionsChanged(SectionTable st) {
+        return _sections.findChanges(st.getSections(), null, 0) != null;
+    }
+
+    /**
+     * Bounds and hashes of grpprls of runs
+     */
+    private static final class RunsSnapshot {
+        private final int[] _starts;
+        private final int[] _ends;
+        private final int[] _hashes;
+
+        RunsSnapshot(List<? extends PropertyNode<?>> runs) {
+            final int size = runs.size();
+            _starts = new int[size];
+            _ends = new int[size];
+            _hashes = new int[size];
+            for (int i = 0; i < size; i++) {
+                PropertyNode<?> run = runs.get(i);
+                _starts[i] = run.getStart();
+                _ends[i] = run.getEnd();
+                _hashes[i] = hash(run);
+            }
+        }
+
+        private static int hash(PropertyNode<?> run) {
+            if (run instanceof SEPX)
+                return Arrays.hashCode(((SEPX) run).getGrpprl());
+            if (run instanceof PAPX)
+                return Arrays.hashCode(((PAPX) run).getGrpprl());
+            return Arrays.hashCode(((CHPX) run).getGrpprl());
+        }
+
+        private boolean isSame(PropertyNode<?> run, int index, int shift) {
+            return index >= 0 && index < _starts.length
+                    && run.getStart() == _starts[index] + shift
+                    && run.getEnd() == _ends[index] + shift
+                    && hash(run) == _hashes[index];
+        }
+
+        /**
+         * Compares runs before and after the changed text with the snapshot.
+         * Runs which overlap changed text or differ from the snapshot are added
+         * to the range.
+         *
+         * @param range        changed range, or <tt>null</tt> if nothing was
+         *                     changed yet
+         * @param lengthChange change of text length, to find snapshot runs
+         *                     after changed text
+         * @return extended range, or <tt>null</tt> if nothing was changed
+         */
+        int[] findChanges(List<? extends PropertyNode<?>> runs, int[] range,
+                          int lengthChange) {
+            final int size = runs.size();
+            final int rangeStart = range == null ? Integer.MAX_VALUE
+                    : range[0];
+            final int rangeEnd = range == null ? Integer.MAX_VALUE : range[1];
+
+            int head = 0;
+            for (; head < size; head++) {
+                PropertyNode<?> run = runs.get(head);
+                if (run.getEnd() > rangeStart)
+                    break;
+                if (!isSame(run, head, 0))
+                    range = extend(range, run);
+            }
+
+            int tail = size - 1;
+            if (range != null || size != _starts.length) {
+                for (int index = _starts.length - 1; tail >= head; tail--, index--) {
+                    PropertyNode<?> run = runs.get(tail);
+                    if (run.getStart() < rangeEnd)
+                        break;
+                    if (!isSame(run, index, lengthChange))
+                        range = extend(range, run);
+                }
+            }
+
+            // runs overlapping changed text, their parts outside of it are
+            // kept in file if properties were not changed
+            for (int i = head; i <= tail; i++) {
+                PropertyNode<?> run = runs.get(i);
+                boolean same = true;
+                if (run.getStart() < rangeStart) {
+                    same = i < _starts.length
+                            && run.getStart() == _starts[i]
+                            && hash(run) == _hashes[i];
+                }
+                if (same && run.getEnd() > rangeEnd) {
+                    int index = _starts.length - (size - i);
+                    same = index >= 0
+                            && run.getEnd() == _ends[index] + lengthChange
+                            && hash(run) == _hashes[index];
+                }
+                if (!same)
+                    range = extend(range, run);
+            }
+            return range;
+        }
+
+        private static int[] extend(int[] range, PropertyNode<?> run) {
+            if (range == null)
+                return new int[]{run.getStart(), run.getEnd()};
+
+            range[0] = Math.min(range[0], run.getStart());
+            range[1] = Math.max(range[1], run.getEnd());
+            return range;
+        }
+    }
+}
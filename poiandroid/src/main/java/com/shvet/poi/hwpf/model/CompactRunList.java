@@ -0,0 +1,232 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package com.shvet.poi.hwpf.model;
+
+import com.shvet.poi.util.Internal;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Compact storage of CHPX or PAPX runs. Runs are kept as primitive start and
+ * end arrays, with all (distinct) grpprls stored in one shared byte array.
+ * Node objects are created on first access only, and are kept after that, so
+ * changes made to them are not lost.
+ * <p>
+ * Structural changes (add, remove, set) convert this list to regular
+ * {@link ArrayList}-based storage, creating all remaining nodes.
+ *
+ * @param <T> type of nodes stored
+ */
+@Internal
+public abstract class CompactRunList<T extends PropertyNode<T>> extends
+        AbstractList<T> implements RandomAccess {
+    private int[] _starts;
+    private int[] _ends;
+
+    /**
+     * Offsets of grpprls in {@link #_grpprls}, grpprl of run <tt>i</tt> ends
+     * at <tt>_grpprlOffsets[i] + _grpprlLengths[i]</tt>
+     */
+    private int[] _grpprlOffsets;
+    private int[] _grpprlLengths;
+    private byte[] _grpprls;
+
+    /**
+     * Nodes created on demand, allocated on first access
+     */
+    private Object[] _nodes;
+
+    /**
+     * Regular storage used after first structural change
+     */
+    private ArrayList<T> _delegate;
+
+    protected CompactRunList(List<T> nodes) {
+        final int size = nodes.size();
+        _starts = new int[size];
+        _ends = new int[size];
+        _grpprlOffsets = new int[size];
+        _grpprlLengths = new int[size];
+
+        // runs usually share just a few distinct grpprls
+        Map<ByteBuffer, Integer> grpprlOffsets = new HashMap<ByteBuffer, Integer>();
+        ByteArrayOutputStream grpprls = new ByteArrayOutputStream();
+        for (int i = 0; i < size; i++) {
+            T node = nodes.get(i);
+            _starts[i] = node.getStart();
+            _ends[i] = node.getEnd();
+
+            byte[] grpprl = getNodeGrpprl(node);
+            ByteBuffer key = ByteBuffer.wrap(grpprl);
+            Integer offset = grpprlOffsets.get(key);
+            if (offset == null) {
+                offset = Integer.valueOf(grpprls.size());
+                grpprls.write(grpprl, 0, grpprl.length);
+                grpprlOffsets.put(ByteBuffer.wrap(grpprl.clone()), offset);
+            }
+            _grpprlOffsets[i] = offset.intValue();
+            _grpprlLengths[i] = grpprl.length;
+        }
+        _grpprls = grpprls.toByteArray();
+    }
+
+    /**
+     * @return grpprl of the node, as returned by
+     * {@link CHPX#getGrpprl()}/{@link PAPX#getGrpprl()}
+     */
+    protected abstract byte[] getNodeGrpprl(T node);
+
+    /**
+     * Creates node from stored data
+     *
+     * @param index  index of node in this list
+     * @param grpprl copy of node grpprl, owned by created node
+     */
+    protected abstract T createNode(int index, int start, int end,
+                                    byte[] grpprl);
+
+    @Override
+    public T get(int index) {
+        if (_delegate != null)
+            return _delegate.get(index);
+
+        if (index < 0 || index >= _starts.length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: "
+                    + _starts.length);
+        }
+
+        if (_nodes == null)
+            _nodes = new Object[_starts.length];
+
+        @SuppressWarnings("unchecked")
+        T node = (T) _nodes[index];
+        if (node == null) {
+            node = createNode(index, _starts[index], _ends[index],
+                    getGrpprl(index));
+            _nodes[index] = node;
+        }
+        return node;
+    }
+
+    /**
+     * @return start of the node, without creating it
+     */
+    public int getStart(int index) {
+        if (_delegate != null)
+            return _delegate.get(index).getStart();
+        if (_nodes != null && _nodes[index] != null)
+            return get(index).getStart();
+        return _starts[index];
+    }
+
+    /**
+     * @return end of the node, without creating it
+     */
+    public int getEnd(int index) {
+        if (_delegate != null)
+            return _delegate.get(index).getEnd();
+        if (_nodes != null && _nodes[index] != null)
+            return get(index).getEnd();
+        return _ends[index];
+    }
+
+    /**
+     * @return start of the node, without creating it if list is compact
+     */
+    public static int getNodeStart(List<? extends PropertyNode<?>> nodes,
+                                   int index) {
+        if (nodes instanceof CompactRunList)
+            return ((CompactRunList<?>) nodes).getStart(index);
+        return nodes.get(index).getStart();
+    }
+
+    /**
+     * @return end of the node, without creating it if list is compact
+     */
+    public static int getNodeEnd(List<? extends PropertyNode<?>> nodes,
+                                 int index) {
+        if (nodes instanceof CompactRunList)
+            return ((CompactRunList<?>) nodes).getEnd(index);
+        return nodes.get(index).getEnd();
+    }
+
+    /**
+     * @return copy of the node grpprl, without creating node
+     */
+    public byte[] getGrpprl(int index) {
+        if (_delegate != null)
+            return getNodeGrpprl(_delegate.get(index)).clone();
+        if (_nodes != null && _nodes[index] != null)
+            return getNodeGrpprl(get(index)).clone();
+
+        final int offset = _grpprlOffsets[index];
+        return Arrays.copyOfRange(_grpprls, offset, offset
+                + _grpprlLengths[index]);
+    }
+
+    @Override
+    public int size() {
+        if (_delegate != null)
+            return _delegate.size();
+        return _starts.length;
+    }
+
+    @Override
+    public T set(int index, T element) {
+        return toRegularList().set(index, element);
+    }
+
+    @Override
+    public void add(int index, T element) {
+        toRegularList().add(index, element);
+        modCount++;
+    }
+
+    @Override
+    public T remove(int index) {
+        T removed = toRegularList().remove(index);
+        modCount++;
+        return removed;
+    }
+
+    private ArrayList<T> toRegularList() {
+        if (_delegate == null) {
+            ArrayList<T> delegate = new ArrayList<T>(_starts.length + 16);
+            for (int i = 0; i < _starts.length; i++) {
+                delegate.add(get(i));
+            }
+            _delegate = delegate;
+
+            _starts = null;
+            _ends = null;
+            _grpprlOffsets = null;
+            _grpprlLengths = null;
+            _grpprls = null;
+            _nodes = null;
+        }
+        return _delegate;
+    }
+}
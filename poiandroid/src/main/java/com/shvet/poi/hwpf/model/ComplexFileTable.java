@@ -68,6 +68,35 @@ public final class ComplexFileTable {
                 pieceTableSize, fcMin);
     }
 
+    /**
+     * Reads piece descriptors of CLX structure without loading text of the
+     * pieces. Property modifiers (grpprls) preceding the piece table are
+     * skipped.
+     *
+     * @param tableStream buffer with CLX structure
+     * @param offset      offset of CLX structure in buffer
+     * @return plex of {@link PieceDescriptor}s bytes, with character positions
+     * as limits
+     * @throws IOException if the text piece table is corrupted
+     */
+    public static PlexOfCps readPieceTable(byte[] tableStream, int offset)
+            throws IOException {
+        while (tableStream[offset] == GRPPRL_TYPE) {
+            offset++;
+            int size = LittleEndian.getShort(tableStream, offset);
+            offset += LittleEndian.SHORT_SIZE;
+            offset += size;
+        }
+
+        if (tableStream[offset] != TEXT_PIECE_TABLE_TYPE) {
+            throw new IOException("The text piece table is corrupted");
+        }
+        int pieceTableSize = LittleEndian.getInt(tableStream, ++offset);
+        offset += LittleEndian.INT_SIZE;
+        return new PlexOfCps(tableStream, offset, pieceTableSize,
+                PieceDescriptor.getSizeInBytes());
+    }
+
     public TextPieceTable getTextPieceTable() {
         return _tpt;
     }
@@ -96,4 +125,33 @@ public final class ComplexFileTable {
         tableStream.write(table);
     }
 
+    /**
+     * Writes CLX structure with property modifiers and pieces as they are,
+     * without writing text of the pieces. File positions of pieces are
+     * expected to be already valid in document stream.
+     */
+    public void writePieceTableTo(HWPFOutputStream tableStream)
+            throws IOException {
+        if (_grpprls != null) {
+            for (SprmBuffer sprmBuffer : _grpprls) {
+                byte[] grpprl = sprmBuffer.toByteArray();
+                tableStream.write(GRPPRL_TYPE);
+
+                byte[] sizeHolder = new byte[LittleEndian.SHORT_SIZE];
+                LittleEndian.putShort(sizeHolder, (short) grpprl.length);
+                tableStream.write(sizeHolder);
+                tableStream.write(grpprl);
+            }
+        }
+
+        tableStream.write(TEXT_PIECE_TABLE_TYPE);
+
+        byte[] table = _tpt.toPieceTableByteArray();
+
+        byte[] numHolder = new byte[LittleEndian.INT_SIZE];
+        LittleEndian.putInt(numHolder, table.length);
+        tableStream.write(numHolder);
+        tableStream.write(table);
+    }
+
 }
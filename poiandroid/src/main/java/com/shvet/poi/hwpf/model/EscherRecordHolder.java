@@ -21,28 +21,69 @@ import com.shvet.poi.ddf.DefaultEscherRecordFactory;
 import com.shvet.poi.ddf.EscherContainerRecord;
 import com.shvet.poi.ddf.EscherRecord;
 import com.shvet.poi.ddf.EscherRecordFactory;
+import com.shvet.poi.ddf.EscherSpRecord;
 import com.shvet.poi.util.Internal;
+import com.shvet.poi.util.LittleEndian;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Based on AbstractEscherRecordHolder from HSSF.
+ * <p>
+ * Top-level records (drawing group and drawing containers) are not parsed
+ * when holder is created: only their headers are read to find where they
+ * are, and every record is parsed on first access to it. I.e. looking up a
+ * blip parses only the drawing group container, and looking up a shape
+ * parses only drawing containers.
  *
  * @author Squeeself
  */
 @Internal
 public final class EscherRecordHolder {
+    private static final int HEADER_SIZE = 8;
+
+    private static final short DGG_CONTAINER = (short) 0xF000;
+    private static final short DG_CONTAINER = (short) 0xF002;
+
     private final ArrayList<EscherRecord> escherRecords;
 
+    /**
+     * Buffer with records, <tt>null</tt> once all of them are parsed
+     */
+    private byte[] _data;
+
+    /**
+     * Offsets of top-level records in buffer
+     */
+    private int[] _offsets;
+
+    /**
+     * Ids of top-level records, read from their headers
+     */
+    private short[] _recordIds;
+
+    /**
+     * Top-level records, <tt>null</tt> for not yet parsed ones
+     */
+    private EscherRecord[] _records;
+
+    /**
+     * Shape containers by shape id, built on first lookup
+     */
+    private Map<Integer, EscherContainerRecord> _spContainersById;
+
     public EscherRecordHolder() {
         escherRecords = new ArrayList<EscherRecord>();
     }
 
     public EscherRecordHolder(byte[] data, int offset, int size) {
         this();
-        fillEscherRecords(data, offset, size);
+        findEscherRecords(data, offset, size);
     }
 
     private static EscherRecord findFirstWithId(short id,
@@ -70,25 +111,103 @@ public final class EscherRecordHolder {
         return null;
     }
 
-    private void fillEscherRecords(byte[] data, int offset, int size) {
-        EscherRecordFactory recordFactory = new DefaultEscherRecordFactory();
+    /**
+     * Reads headers of top-level records only
+     */
+    private void findEscherRecords(byte[] data, int offset, int size) {
+        int[] offsets = new int[4];
+        short[] recordIds = new short[4];
+        int count = 0;
+
+        final int end = Math.min(offset + size, data.length);
         int pos = offset;
         while (pos < offset + size) {
-            EscherRecord r = recordFactory.createRecord(data, pos);
-            escherRecords.add(r);
-            int bytesRead = r.fillFields(data, pos, recordFactory);
-            pos += bytesRead + 1; // There is an empty byte between each
+            if (count == offsets.length) {
+                offsets = Arrays.copyOf(offsets, count * 2);
+                recordIds = Arrays.copyOf(recordIds, count * 2);
+            }
+            offsets[count] = pos;
+            // header is read now if present, parsing fails later otherwise
+            recordIds[count] = pos + HEADER_SIZE <= end ? LittleEndian
+                    .getShort(data, pos + 2) : 0;
+            count++;
+
+            if (pos + HEADER_SIZE > end)
+                break;
+            int recordSize = HEADER_SIZE
+                    + LittleEndian.getInt(data, pos + 4);
+            if (recordSize < HEADER_SIZE)
+                break;
+            pos += recordSize + 1; // There is an empty byte between each
             // top-level record in a Word doc
         }
+
+        _data = data;
+        _offsets = Arrays.copyOf(offsets, count);
+        _recordIds = Arrays.copyOf(recordIds, count);
+        _records = new EscherRecord[count];
+    }
+
+    /**
+     * @return top-level record with the given index, parsing it if needed
+     */
+    private synchronized EscherRecord getRecord(int index) {
+        EscherRecord record = _records[index];
+        if (record == null) {
+            EscherRecordFactory recordFactory = new DefaultEscherRecordFactory();
+            record = recordFactory.createRecord(_data, _offsets[index]);
+            record.fillFields(_data, _offsets[index], recordFactory);
+            _records[index] = record;
+        }
+        return record;
     }
 
-    public List<EscherRecord> getEscherRecords() {
+    private int numRecords() {
+        return _records != null ? _records.length : escherRecords.size();
+    }
+
+    /**
+     * @return all top-level records, parsing the ones not parsed yet
+     */
+    public synchronized List<EscherRecord> getEscherRecords() {
+        if (_records != null) {
+            for (int i = 0; i < _records.length; i++) {
+                escherRecords.add(getRecord(i));
+            }
+            _data = null;
+            _offsets = null;
+            _recordIds = null;
+            _records = null;
+        }
         return escherRecords;
     }
 
+    /**
+     * @return parsed top-level records with the given id
+     */
+    private synchronized List<EscherContainerRecord> getContainers(short id) {
+        List<EscherContainerRecord> containers = new ArrayList<EscherContainerRecord>(
+                1);
+        if (_records != null) {
+            for (int i = 0; i < _records.length; i++) {
+                if (_recordIds[i] == id)
+                    containers.add((EscherContainerRecord) getRecord(i));
+            }
+            return containers;
+        }
+
+        for (EscherRecord escherRecord : escherRecords) {
+            if (escherRecord.getRecordId() == id) {
+                containers.add((EscherContainerRecord) escherRecord);
+            }
+        }
+        return containers;
+    }
+
     public String toString() {
         StringBuffer buffer = new StringBuffer();
 
+        List<EscherRecord> escherRecords = getEscherRecords();
         if (escherRecords.size() == 0) {
             buffer.append("No Escher Records Decoded").append("\n");
         }
@@ -104,9 +223,10 @@ public final class EscherRecordHolder {
      * If we have a EscherContainerRecord as one of our children (and most top
      * level escher holders do), then return that.
      */
-    public EscherContainerRecord getEscherContainer() {
-        for (Iterator<EscherRecord> it = escherRecords.iterator(); it.hasNext(); ) {
-            Object er = it.next();
+    public synchronized EscherContainerRecord getEscherContainer() {
+        for (int i = 0; i < numRecords(); i++) {
+            EscherRecord er = _records != null ? getRecord(i) : escherRecords
+                    .get(i);
             if (er instanceof EscherContainerRecord) {
                 return (EscherContainerRecord) er;
             }
@@ -123,25 +243,11 @@ public final class EscherRecordHolder {
     }
 
     public List<? extends EscherContainerRecord> getDgContainers() {
-        List<EscherContainerRecord> dgContainers = new ArrayList<EscherContainerRecord>(
-                1);
-        for (EscherRecord escherRecord : getEscherRecords()) {
-            if (escherRecord.getRecordId() == (short) 0xF002) {
-                dgContainers.add((EscherContainerRecord) escherRecord);
-            }
-        }
-        return dgContainers;
+        return getContainers(DG_CONTAINER);
     }
 
     public List<? extends EscherContainerRecord> getDggContainers() {
-        List<EscherContainerRecord> dggContainers = new ArrayList<EscherContainerRecord>(
-                1);
-        for (EscherRecord escherRecord : getEscherRecords()) {
-            if (escherRecord.getRecordId() == (short) 0xF000) {
-                dggContainers.add((EscherContainerRecord) escherRecord);
-            }
-        }
-        return dggContainers;
+        return getContainers(DGG_CONTAINER);
     }
 
     public List<? extends EscherContainerRecord> getBStoreContainers() {
@@ -182,4 +288,25 @@ public final class EscherRecordHolder {
         }
         return spContainers;
     }
+
+    /**
+     * @return shape container of shape with the given id, or <tt>null</tt> if
+     * there is no such shape
+     */
+    public synchronized EscherContainerRecord getSpContainer(int shapeId) {
+        if (_spContainersById == null) {
+            Map<Integer, EscherContainerRecord> spContainersById = new HashMap<Integer, EscherContainerRecord>();
+            for (EscherContainerRecord spContainer : getSpContainers()) {
+                EscherSpRecord escherSpRecord = spContainer
+                        .getChildById((short) 0xF00A);
+                Integer key = escherSpRecord != null ? Integer
+                        .valueOf(escherSpRecord.getShapeId()) : null;
+                // the first shape wins, as with linear search
+                if (key != null && !spContainersById.containsKey(key))
+                    spContainersById.put(key, spContainer);
+            }
+            _spContainersById = spContainersById;
+        }
+        return _spContainersById.get(Integer.valueOf(shapeId));
+    }
 }
@@ -225,7 +225,7 @@ public final class FIBFieldHandler {
             throws IOException {
         for (int x = 0; x < _fields.length / 2; x++) {
             UnhandledDataStructure ds = _unknownMap.get(Integer.valueOf(x));
-            if (ds != null) {
+            if (ds != null && tableStream != null) {
                 _fields[x * 2] = tableStream.getOffset();
                 LittleEndian
                         .putInt(mainStream, offset, tableStream.getOffset());
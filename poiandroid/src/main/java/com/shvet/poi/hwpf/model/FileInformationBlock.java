@@ -917,6 +917,11 @@ public final class FileInformationBlock implements Cloneable {
                 offset);
     }
 
+    /**
+     * Writes FIB to the beginning of document stream. Data structures not
+     * handled by HWPF are written to the table stream, or are left where they
+     * are if table stream is <tt>null</tt> (incremental save).
+     */
     public void writeTo(byte[] mainStream, HWPFOutputStream tableStream)
             throws IOException {
         _cbRgFcLcb = _fieldHandler.getFieldsCount();
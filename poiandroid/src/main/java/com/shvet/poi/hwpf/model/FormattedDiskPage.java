@@ -17,9 +17,17 @@
 
 package com.shvet.poi.hwpf.model;
 
+import com.shvet.poi.poifs.common.POIFSConstants;
 import com.shvet.poi.util.Internal;
 import com.shvet.poi.util.LittleEndian;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
 /**
  * Represents an FKP data structure. This data structure is used to store the
  * grpprls of the paragraph and character properties of the document. A grpprl
@@ -89,4 +97,53 @@ public abstract class FormattedDiskPage {
     }
 
     protected abstract byte[] getGrpprl(int index);
+
+    /**
+     * @return offset of FKP page referenced by BTE (bin table entry) in
+     * WordDocument stream
+     */
+    static int getPageOffset(PlexOfCps binTable, int index) {
+        int pageNum = LittleEndian.getInt(binTable.getProperty(index)
+                .getBytes());
+        return POIFSConstants.SMALLER_BIG_BLOCK_SIZE * pageNum;
+    }
+
+    /**
+     * Decodes FKP pages with the given executor. Pages are independent, so they
+     * may be decoded in parallel, but results are returned in pages order.
+     *
+     * @param pages    pages decoding tasks
+     * @param executor executor to run decoding tasks with
+     * @return results of decoding tasks, in the same order as tasks
+     */
+    static <T> List<T> decodePages(List<Callable<T>> pages, Executor executor) {
+        List<FutureTask<T>> tasks = new ArrayList<FutureTask<T>>(pages.size());
+        for (Callable<T> page : pages) {
+            FutureTask<T> task = new FutureTask<T>(page);
+            executor.execute(task);
+            tasks.add(task);
+        }
+
+        List<T> results = new ArrayList<T>(tasks.size());
+        try {
+            for (FutureTask<T> task : tasks) {
+                results.add(task.get());
+            }
+        } catch (InterruptedException exc) {
+            for (FutureTask<T> task : tasks) {
+                task.cancel(true);
+            }
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while decoding FKP pages",
+                    exc);
+        } catch (ExecutionException exc) {
+            Throwable cause = exc.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new RuntimeException(cause);
+        }
+        return results;
+    }
 }
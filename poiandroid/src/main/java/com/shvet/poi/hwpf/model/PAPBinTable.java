@@ -23,6 +23,7 @@ import com.shvet.poi.hwpf.sprm.SprmBuffer;
 import com.shvet.poi.hwpf.sprm.SprmIterator;
 import com.shvet.poi.hwpf.sprm.SprmOperation;
 import com.shvet.poi.poifs.common.POIFSConstants;
+import com.shvet.poi.poifs.filesystem.NDocumentView;
 import com.shvet.poi.util.Internal;
 import com.shvet.poi.util.LittleEndian;
 import com.shvet.poi.util.POILogFactory;
@@ -30,12 +31,12 @@ import com.shvet.poi.util.POILogger;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.IdentityHashMap;
-import java.util.LinkedList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 
 /**
  * This class represents the bin table of Word document but it also serves as a
@@ -49,7 +50,7 @@ public class PAPBinTable {
     private static final POILogger logger = POILogFactory
             .getLogger(PAPBinTable.class);
 
-    protected ArrayList<PAPX> _paragraphs = new ArrayList<PAPX>();
+    protected List<PAPX> _paragraphs = new ArrayList<PAPX>();
 
     public PAPBinTable() {
     }
@@ -69,26 +70,55 @@ public class PAPBinTable {
     public PAPBinTable(byte[] documentStream, byte[] tableStream,
                        byte[] dataStream, int offset, int size,
                        CharIndexTranslator charIndexTranslator) {
+        this(documentStream, tableStream, dataStream, offset, size,
+                charIndexTranslator, null);
+    }
+
+    /**
+     * Reads PAPX bin table from a Word document, optionally decoding FKP pages
+     * in parallel. Result does not depend on executor used.
+     *
+     * @param executor executor to decode FKP pages with, or <tt>null</tt> to
+     *                 decode them one by one in current thread
+     */
+    public PAPBinTable(final byte[] documentStream, byte[] tableStream,
+                       final byte[] dataStream, int offset, int size,
+                       final CharIndexTranslator charIndexTranslator,
+                       Executor executor) {
         long start = System.currentTimeMillis();
 
         {
             PlexOfCps binTable = new PlexOfCps(tableStream, offset, size, 4);
 
             int length = binTable.length();
-            for (int x = 0; x < length; x++) {
-                GenericPropertyNode node = binTable.getProperty(x);
+            if (executor == null) {
+                for (int x = 0; x < length; x++) {
+                    int pageOffset = FormattedDiskPage.getPageOffset(binTable,
+                            x);
 
-                int pageNum = LittleEndian.getInt(node.getBytes());
-                int pageOffset = POIFSConstants.SMALLER_BIG_BLOCK_SIZE
-                        * pageNum;
+                    PAPFormattedDiskPage pfkp = new PAPFormattedDiskPage(
+                            documentStream, dataStream, pageOffset,
+                            charIndexTranslator);
 
-                PAPFormattedDiskPage pfkp = new PAPFormattedDiskPage(
-                        documentStream, dataStream, pageOffset,
-                        charIndexTranslator);
-
-                for (PAPX papx : pfkp.getPAPXs()) {
-                    if (papx != null)
-                        _paragraphs.add(papx);
+                    addParagraphs(pfkp.getPAPXs());
+                }
+            } else {
+                List<Callable<List<PAPX>>> pages = new ArrayList<Callable<List<PAPX>>>(
+                        length);
+                for (int x = 0; x < length; x++) {
+                    final int pageOffset = FormattedDiskPage.getPageOffset(
+                            binTable, x);
+                    pages.add(new Callable<List<PAPX>>() {
+                        public List<PAPX> call() {
+                            return new PAPFormattedDiskPage(documentStream,
+                                    dataStream, pageOffset,
+                                    charIndexTranslator).getPAPXs();
+                        }
+                    });
+                }
+                for (List<PAPX> papxs : FormattedDiskPage.decodePages(pages,
+                        executor)) {
+                    addParagraphs(papxs);
                 }
             }
         }
@@ -103,6 +133,13 @@ public class PAPBinTable {
         }
     }
 
+    private void addParagraphs(List<PAPX> papxs) {
+        for (PAPX papx : papxs) {
+            if (papx != null)
+                _paragraphs.add(papx);
+        }
+    }
+
     static void rebuild(final StringBuilder docText,
                         ComplexFileTable complexFileTable, List<PAPX> paragraphs) {
         long start = System.currentTimeMillis();
@@ -128,7 +165,7 @@ public class PAPBinTable {
                 SprmBuffer sprmBuffer = sprmBuffers[igrpprl];
                 for (SprmIterator iterator = sprmBuffer.iterator(); iterator
                         .hasNext(); ) {
-                    SprmOperation sprmOperation = iterator.next();
+                    SprmOperation sprmOperation = iterator.nextShared();
                     if (sprmOperation.getType() == SprmOperation.TYPE_PAP) {
                         hasPap = true;
                         break;
@@ -152,34 +189,21 @@ public class PAPBinTable {
             start = System.currentTimeMillis();
         }
 
-        List<PAPX> oldPapxSortedByEndPos = new ArrayList<PAPX>(paragraphs);
-        Collections.sort(oldPapxSortedByEndPos,
-                PropertyNode.EndComparator.instance);
-
-        logger.log(POILogger.DEBUG, "PAPX sorted by end position in ",
-                Long.valueOf(System.currentTimeMillis() - start), " ms");
-        start = System.currentTimeMillis();
-
-        final Map<PAPX, Integer> papxToFileOrder = new IdentityHashMap<PAPX, Integer>();
-        {
-            int counter = 0;
-            for (PAPX papx : paragraphs) {
-                papxToFileOrder.put(papx, Integer.valueOf(counter++));
-            }
+        // PAPX sorted by end position, file order is used as tie-breaker
+        final int count = paragraphs.size();
+        final PAPX[] papxs = paragraphs.toArray(new PAPX[count]);
+        final long[] byEnd = new long[count];
+        for (int i = 0; i < count; i++) {
+            byEnd[i] = (((long) papxs[i].getEnd()) << 32) | i;
         }
-        final Comparator<PAPX> papxFileOrderComparator = new Comparator<PAPX>() {
-            public int compare(PAPX o1, PAPX o2) {
-                Integer i1 = papxToFileOrder.get(o1);
-                Integer i2 = papxToFileOrder.get(o2);
-                return i1.compareTo(i2);
-            }
-        };
+        Arrays.sort(byEnd);
 
-        logger.log(POILogger.DEBUG, "PAPX's order map created in ",
+        logger.log(POILogger.DEBUG, "PAPX sorted by end position in ",
                 Long.valueOf(System.currentTimeMillis() - start), " ms");
         start = System.currentTimeMillis();
 
-        List<PAPX> newPapxs = new LinkedList<PAPX>();
+        List<PAPX> newPapxs = new ArrayList<PAPX>();
+        final int[] covering = new int[count];
         int lastParStart = 0;
         int lastPapxIndex = 0;
         for (int charIndex = 0; charIndex < docText.length(); charIndex++) {
@@ -191,29 +215,27 @@ public class PAPBinTable {
             final int endExclusive = charIndex + 1;
 
             boolean broken = false;
-            List<PAPX> papxs = new LinkedList<PAPX>();
-            for (int papxIndex = lastPapxIndex; papxIndex < oldPapxSortedByEndPos
-                    .size(); papxIndex++) {
+            int coveringCount = 0;
+            for (int papxIndex = lastPapxIndex; papxIndex < count; papxIndex++) {
                 broken = false;
-                PAPX papx = oldPapxSortedByEndPos.get(papxIndex);
+                final int papxEnd = (int) (byEnd[papxIndex] >> 32);
 
-                assert startInclusive == 0
-                        || papxIndex + 1 == oldPapxSortedByEndPos.size()
-                        || papx.getEnd() > startInclusive;
+                assert startInclusive == 0 || papxIndex + 1 == count
+                        || papxEnd > startInclusive;
 
-                if (papx.getEnd() - 1 > charIndex) {
+                if (papxEnd - 1 > charIndex) {
                     lastPapxIndex = papxIndex;
                     broken = true;
                     break;
                 }
 
-                papxs.add(papx);
+                covering[coveringCount++] = (int) byEnd[papxIndex];
             }
             if (!broken) {
-                lastPapxIndex = oldPapxSortedByEndPos.size() - 1;
+                lastPapxIndex = Math.max(count - 1, 0);
             }
 
-            if (papxs.size() == 0) {
+            if (coveringCount == 0) {
                 logger.log(POILogger.WARN, "Paragraph [",
                         Integer.valueOf(startInclusive), "; ",
                         Integer.valueOf(endExclusive),
@@ -227,9 +249,9 @@ public class PAPBinTable {
                 continue;
             }
 
-            if (papxs.size() == 1) {
+            if (coveringCount == 1) {
                 // can we reuse existing?
-                PAPX existing = papxs.get(0);
+                PAPX existing = papxs[covering[0]];
                 if (existing.getStart() == startInclusive
                         && existing.getEnd() == endExclusive) {
                     newPapxs.add(existing);
@@ -239,10 +261,11 @@ public class PAPBinTable {
             }
 
             // restore file order of PAPX
-            Collections.sort(papxs, papxFileOrderComparator);
+            Arrays.sort(covering, 0, coveringCount);
 
             SprmBuffer sprmBuffer = null;
-            for (PAPX papx : papxs) {
+            for (int p = 0; p < coveringCount; p++) {
+                PAPX papx = papxs[covering[p]];
                 if (papx.getGrpprl() == null || papx.getGrpprl().length == 0)
                     continue;
 
@@ -277,6 +300,17 @@ public class PAPBinTable {
         rebuild(docText, complexFileTable, _paragraphs);
     }
 
+    /**
+     * Loads grpprls of huge PAPXs (sprmPHugePapx) from data stream, if table
+     * was created without data stream. Should be called before
+     * {@link #rebuild(StringBuilder, ComplexFileTable)}.
+     */
+    public void loadHugeGrpprls(NDocumentView dataStream) {
+        for (PAPX papx : _paragraphs) {
+            papx.loadHuge(dataStream);
+        }
+    }
+
     public void insert(int listIndex, int cpStart, SprmBuffer buf) {
 
         PAPX forInsert = new PAPX(0, 0, buf);
@@ -361,10 +395,43 @@ public class PAPBinTable {
         }
     }
 
-    public ArrayList<PAPX> getParagraphs() {
+    public List<PAPX> getParagraphs() {
         return _paragraphs;
     }
 
+    /**
+     * Moves paragraphs to {@link CompactRunList}, so PAPX objects are created
+     * only when accessed
+     */
+    public void compact() {
+        if (_paragraphs instanceof CompactRunList)
+            return;
+
+        // paragraph heights are kept only if they are not empty
+        final ParagraphHeight emptyHeight = new ParagraphHeight();
+        final Map<Integer, ParagraphHeight> heights = new HashMap<Integer, ParagraphHeight>();
+        for (int i = 0; i < _paragraphs.size(); i++) {
+            ParagraphHeight height = _paragraphs.get(i).getParagraphHeight();
+            if (height != null && !height.equals(emptyHeight))
+                heights.put(Integer.valueOf(i), height);
+        }
+
+        _paragraphs = new CompactRunList<PAPX>(_paragraphs) {
+            @Override
+            protected byte[] getNodeGrpprl(PAPX node) {
+                return node.getGrpprl();
+            }
+
+            @Override
+            protected PAPX createNode(int index, int start, int end,
+                                      byte[] grpprl) {
+                ParagraphHeight height = heights.remove(Integer.valueOf(index));
+                return new PAPX(start, end, grpprl,
+                        height != null ? height : new ParagraphHeight(), null);
+            }
+        };
+    }
+
     @Deprecated
     public void writeTo(HWPFFileSystem sys, CharIndexTranslator translator)
             throws IOException {
@@ -379,7 +446,40 @@ public class PAPBinTable {
             throws IOException {
 
         PlexOfCps binTable = new PlexOfCps(4);
+        writeFkpsTo(wordDocumentStream, tableStream, _paragraphs, binTable,
+                translator);
+        tableStream.write(binTable.toByteArray());
+    }
+
+    /**
+     * Writes FKPs of paragraphs that overlap the given range of characters
+     * only and adds their entries to the given bin table, which is then
+     * written to table stream. FKPs of other paragraphs are expected to be
+     * kept in document stream as they are, like incremental save does.
+     *
+     * @param binTable bin table read from file, to add entries of the new FKPs
+     *                 to
+     */
+    public void writeTo(HWPFOutputStream wordDocumentStream,
+                        HWPFOutputStream tableStream, PlexOfCps binTable, int start,
+                        int end, CharIndexTranslator translator) throws IOException {
+        List<PAPX> paragraphs = new ArrayList<PAPX>();
+        for (PAPX papx : _paragraphs) {
+            if (papx.getStart() < end && papx.getEnd() > start) {
+                paragraphs.add(papx);
+            }
+        }
+
+        if (!paragraphs.isEmpty())
+            writeFkpsTo(wordDocumentStream, tableStream, paragraphs, binTable,
+                    translator);
+        tableStream.write(binTable.toByteArray());
+    }
 
+    private static void writeFkpsTo(HWPFOutputStream wordDocumentStream,
+                                    HWPFOutputStream tableStream, List<PAPX> paragraphs,
+                                    PlexOfCps binTable, CharIndexTranslator translator)
+            throws IOException {
         // each FKP must start on a 512 byte page.
         int docOffset = wordDocumentStream.getOffset();
         int mod = docOffset % POIFSConstants.SMALLER_BIG_BLOCK_SIZE;
@@ -394,12 +494,12 @@ public class PAPBinTable {
         int pageNum = docOffset / POIFSConstants.SMALLER_BIG_BLOCK_SIZE;
 
         // get the ending fc
-        // int endingFc = _paragraphs.get(_paragraphs.size() - 1).getEnd();
+        // int endingFc = paragraphs.get(paragraphs.size() - 1).getEnd();
         // endingFc += fcMin;
-        int endingFc = translator.getByteIndex(_paragraphs.get(
-                _paragraphs.size() - 1).getEnd());
+        int endingFc = translator.getByteIndex(paragraphs.get(
+                paragraphs.size() - 1).getEnd());
 
-        ArrayList<PAPX> overflow = _paragraphs;
+        ArrayList<PAPX> overflow = new ArrayList<PAPX>(paragraphs);
         do {
             PAPX startingProp = overflow.get(0);
 
@@ -424,6 +524,5 @@ public class PAPBinTable {
             binTable.addProperty(new GenericPropertyNode(start, end, intHolder));
 
         } while (overflow != null);
-        tableStream.write(binTable.toByteArray());
     }
 }
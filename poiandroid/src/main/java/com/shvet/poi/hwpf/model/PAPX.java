@@ -21,6 +21,7 @@ import com.shvet.poi.hwpf.sprm.ParagraphSprmUncompressor;
 import com.shvet.poi.hwpf.sprm.SprmBuffer;
 import com.shvet.poi.hwpf.sprm.SprmOperation;
 import com.shvet.poi.hwpf.usermodel.ParagraphProperties;
+import com.shvet.poi.poifs.filesystem.NDocumentView;
 import com.shvet.poi.util.Internal;
 import com.shvet.poi.util.LittleEndian;
 
@@ -71,34 +72,72 @@ public final class PAPX extends BytePropertyNode<PAPX> {
         _phe = new ParagraphHeight();
     }
 
-    private SprmBuffer findHuge(SprmBuffer buf, byte[] datastream) {
-        byte[] grpprl = buf.toByteArray();
-        if (grpprl.length == 8 && datastream != null) // then check for
-        // sprmPHugePapx
+    /**
+     * @return offset of huge grpprl in data stream, if grpprl is a
+     * sprmPHugePapx reference, or -1 otherwise
+     */
+    private static int getHugeGrpprlOffset(byte[] grpprl) {
+        if (grpprl.length == 8) // then check for sprmPHugePapx
         {
             SprmOperation sprm = new SprmOperation(grpprl, 2);
             if ((sprm.getOperation() == 0x45 || sprm.getOperation() == 0x46)
                     && sprm.getSizeCode() == 3) {
-                int hugeGrpprlOffset = sprm.getOperand();
-                if (hugeGrpprlOffset + 1 < datastream.length) {
-                    int grpprlSize = LittleEndian.getShort(datastream,
-                            hugeGrpprlOffset);
-                    if (hugeGrpprlOffset + grpprlSize < datastream.length) {
-                        byte[] hugeGrpprl = new byte[grpprlSize + 2];
-                        // copy original istd into huge Grpprl
-                        hugeGrpprl[0] = grpprl[0];
-                        hugeGrpprl[1] = grpprl[1];
-                        // copy Grpprl from dataStream
-                        System.arraycopy(datastream, hugeGrpprlOffset + 2,
-                                hugeGrpprl, 2, grpprlSize);
-                        return new SprmBuffer(hugeGrpprl, 2);
-                    }
+                return sprm.getOperand();
+            }
+        }
+        return -1;
+    }
+
+    private SprmBuffer findHuge(SprmBuffer buf, byte[] datastream) {
+        byte[] grpprl = buf.toByteArray();
+        int hugeGrpprlOffset = datastream != null ? getHugeGrpprlOffset(grpprl)
+                : -1;
+        if (hugeGrpprlOffset != -1) {
+            if (hugeGrpprlOffset + 1 < datastream.length) {
+                int grpprlSize = LittleEndian.getShort(datastream,
+                        hugeGrpprlOffset);
+                if (hugeGrpprlOffset + grpprlSize < datastream.length) {
+                    byte[] hugeGrpprl = new byte[grpprlSize + 2];
+                    // copy original istd into huge Grpprl
+                    hugeGrpprl[0] = grpprl[0];
+                    hugeGrpprl[1] = grpprl[1];
+                    // copy Grpprl from dataStream
+                    System.arraycopy(datastream, hugeGrpprlOffset + 2,
+                            hugeGrpprl, 2, grpprlSize);
+                    return new SprmBuffer(hugeGrpprl, 2);
                 }
             }
         }
         return null;
     }
 
+    /**
+     * Replaces sprmPHugePapx reference with the grpprl it points to. Used
+     * when PAPX was loaded without data stream.
+     *
+     * @param datastream read-only view of data stream
+     */
+    void loadHuge(NDocumentView datastream) {
+        byte[] grpprl = getGrpprl();
+        int hugeGrpprlOffset = getHugeGrpprlOffset(grpprl);
+        if (hugeGrpprlOffset == -1)
+            return;
+
+        if (hugeGrpprlOffset + 1 < datastream.getSize()) {
+            int grpprlSize = datastream.getShort(hugeGrpprlOffset);
+            if (hugeGrpprlOffset + grpprlSize < datastream.getSize()) {
+                byte[] hugeGrpprl = new byte[grpprlSize + 2];
+                // copy original istd into huge Grpprl
+                hugeGrpprl[0] = grpprl[0];
+                hugeGrpprl[1] = grpprl[1];
+                // copy Grpprl from dataStream
+                datastream.read(hugeGrpprlOffset + 2, hugeGrpprl, 2,
+                        grpprlSize);
+                _buf = new SprmBuffer(hugeGrpprl, 2);
+            }
+        }
+    }
+
     public ParagraphHeight getParagraphHeight() {
         return _phe;
     }
@@ -23,15 +23,18 @@ import com.shvet.poi.ddf.EscherBlipRecord;
 import com.shvet.poi.ddf.EscherRecord;
 import com.shvet.poi.ddf.EscherRecordFactory;
 import com.shvet.poi.hwpf.HWPFDocument;
+import com.shvet.poi.hwpf.usermodel.CharacterProperties;
 import com.shvet.poi.hwpf.usermodel.CharacterRun;
 import com.shvet.poi.hwpf.usermodel.Picture;
 import com.shvet.poi.hwpf.usermodel.Range;
+import com.shvet.poi.poifs.filesystem.NDocumentView;
 import com.shvet.poi.util.Internal;
 import com.shvet.poi.util.LittleEndian;
 import com.shvet.poi.util.POILogFactory;
 import com.shvet.poi.util.POILogger;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -69,6 +72,11 @@ public final class PicturesTable {
             .getLogger(PicturesTable.class);
     private HWPFDocument _document;
     private byte[] _dataStream;
+    /**
+     * Data stream view, used instead of {@link #_dataStream} if document was
+     * loaded without data stream copy
+     */
+    private NDocumentView _dataStreamView;
     private byte[] _mainStream;
     @Deprecated
     private FSPATable _fspa;
@@ -102,13 +110,25 @@ public final class PicturesTable {
         this._mainStream = _mainStream;
     }
 
-    private static short getBlockType(byte[] dataStream, int pictOffset) {
-        return LittleEndian
-                .getShort(dataStream, pictOffset + BLOCK_TYPE_OFFSET);
+    public PicturesTable(HWPFDocument _document, NDocumentView dataStream,
+                         byte[] _mainStream, EscherRecordHolder dgg) {
+        this._document = _document;
+        this._dataStreamView = dataStream;
+        this._mainStream = _mainStream;
+        this._dgg = dgg;
     }
 
-    private static short getMmMode(byte[] dataStream, int pictOffset) {
-        return LittleEndian.getShort(dataStream, pictOffset
+    private short getBlockType(int pictOffset) {
+        if (_dataStreamView != null)
+            return _dataStreamView.getShort(pictOffset + BLOCK_TYPE_OFFSET);
+        return LittleEndian.getShort(_dataStream, pictOffset
+                + BLOCK_TYPE_OFFSET);
+    }
+
+    private short getMmMode(int pictOffset) {
+        if (_dataStreamView != null)
+            return _dataStreamView.getShort(pictOffset + MM_MODE_TYPE_OFFSET);
+        return LittleEndian.getShort(_dataStream, pictOffset
                 + MM_MODE_TYPE_OFFSET);
     }
 
@@ -174,11 +194,23 @@ public final class PicturesTable {
      */
     public Picture extractPicture(CharacterRun run, boolean fillBytes) {
         if (hasPicture(run)) {
-            return new Picture(run.getPicOffset(), _dataStream, fillBytes);
+            return extractPicture(run.getPicOffset(), fillBytes);
         }
         return null;
     }
 
+    private Picture extractPicture(int picOffset, boolean fillBytes) {
+        if (_dataStreamView != null) {
+            // copy only this picture, lcb of PICF is the size of picture
+            // data including PICF itself
+            final int lcb = Math.min(_dataStreamView.getInt(picOffset),
+                    _dataStreamView.getSize() - picOffset);
+            return new Picture(picOffset, _dataStreamView.getBytes(picOffset,
+                    lcb), 0, fillBytes);
+        }
+        return new Picture(picOffset, _dataStream, fillBytes);
+    }
+
     /**
      * Performs a recursive search for pictures in the given list of escher
      * records.
@@ -186,7 +218,7 @@ public final class PicturesTable {
      * @param escherRecords the escher records.
      * @param pictures      the list to populate with the pictures.
      */
-    private void searchForPictures(List<EscherRecord> escherRecords,
+    private void searchForPictures(List<? extends EscherRecord> escherRecords,
                                    List<Picture> pictures) {
         for (EscherRecord escherRecord : escherRecords) {
             if (escherRecord instanceof EscherBSERecord) {
@@ -231,33 +263,100 @@ public final class PicturesTable {
     public List<Picture> getAllPictures() {
         ArrayList<Picture> pictures = new ArrayList<Picture>();
 
-        Range range = _document.getOverallRange();
-        for (int i = 0; i < range.numCharacterRuns(); i++) {
-            CharacterRun run = range.getCharacterRun(i);
+        for (int picOffset : getPictureOffsets()) {
+            pictures.add(extractPicture(picOffset, false));
+        }
+
+        // BSE records are kept in BStore container of drawing group, so
+        // drawing containers of shapes are not parsed
+        searchForPictures(_dgg.getDggContainers(), pictures);
 
-            if (run == null) {
+        return pictures;
+    }
+
+    /**
+     * Finds offsets in data stream of all pictures referenced from character
+     * runs of the document, in one scan over text runs. Only runs with
+     * picture text (<tt>\u0001</tt>) have their properties resolved, and no
+     * {@link CharacterRun} objects are created.
+     *
+     * @return offsets of pictures PICF structures in data stream, in order of
+     * characters referencing them
+     * @see #hasPicture(CharacterRun)
+     */
+    public int[] getPictureOffsets() {
+        final StringBuilder text = _document.getText();
+        final int textLength = text.length();
+        final List<CHPX> runs = _document.getCharacterTable().getTextRuns();
+        final List<PAPX> paragraphs = _document.getParagraphTable()
+                .getParagraphs();
+        final StyleSheet styleSheet = _document.getStyleSheet();
+
+        int[] offsets = new int[16];
+        int count = 0;
+        for (int i = 0; i < runs.size(); i++) {
+            final int start = Math.max(0,
+                    CompactRunList.getNodeStart(runs, i));
+            final int end = Math.min(textLength,
+                    CompactRunList.getNodeEnd(runs, i));
+
+            // image should be in it's own run, or in a run with the
+            // end-of-special marker
+            final int length = end - start;
+            if (length < 1 || length > 2 || text.charAt(start) != '\u0001'
+                    || (length == 2 && text.charAt(start + 1) != '\u0015'))
                 continue;
-            }
 
-            Picture picture = extractPicture(run, false);
-            if (picture != null) {
-                pictures.add(picture);
-            }
-        }
+            final int paragraph = findParagraph(paragraphs, start);
+            if (paragraph >= paragraphs.size())
+                continue;
 
-        searchForPictures(_dgg.getEscherRecords(), pictures);
+            CharacterProperties props = runs.get(i)
+                    .getSharedCharacterProperties(styleSheet,
+                            paragraphs.get(paragraph).getIstd());
+            if (!props.isFSpec() || props.isFObj() || props.isFOle2()
+                    || props.isFData())
+                continue;
 
-        return pictures;
+            final int picOffset = props.getFcPic();
+            if (!isBlockContainsImage(picOffset))
+                continue;
+
+            if (count == offsets.length)
+                offsets = Arrays.copyOf(offsets, count * 2);
+            offsets[count++] = picOffset;
+        }
+        return Arrays.copyOf(offsets, count);
+    }
+
+    /**
+     * @return index of paragraph containing character position, same as
+     * found for character runs by {@link Range}
+     */
+    private static int findParagraph(List<PAPX> paragraphs, int cp) {
+        int low = 0;
+        int high = paragraphs.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (CompactRunList.getNodeStart(paragraphs, mid) <= cp)
+                low = mid + 1;
+            else
+                high = mid - 1;
+        }
+        int index = Math.max(0, low - 1);
+        while (index > 0
+                && CompactRunList.getNodeStart(paragraphs, index - 1) >= cp)
+            index--;
+        return index;
     }
 
     private boolean isBlockContainsImage(int i) {
-        return isPictureRecognized(getBlockType(_dataStream, i),
-                getMmMode(_dataStream, i));
+        return isPictureRecognized(getBlockType(i), getMmMode(i));
     }
 
     private boolean isBlockContainsHorizontalLine(int i) {
-        return getBlockType(_dataStream, i) == TYPE_HORIZONTAL_LINE
-                && getMmMode(_dataStream, i) == 0x64;
+        return getBlockType(i) == TYPE_HORIZONTAL_LINE
+                && getMmMode(i) == 0x64;
     }
 
 }
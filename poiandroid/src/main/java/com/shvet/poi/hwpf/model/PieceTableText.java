@@ -0,0 +1,204 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package com.shvet.poi.hwpf.model;
+
+import com.shvet.poi.util.Internal;
+
+import java.nio.charset.Charset;
+
+/**
+ * Text of contiguous text pieces, decoded on demand straight from the
+ * WordDocument stream bytes. Nothing is decoded until characters are
+ * requested, and only the requested characters are decoded, so reading a
+ * small part of the text costs as much as the part itself.
+ * <p>
+ * 8-bit pieces are read as Cp1252, 16-bit pieces as UTF-16LE. Every unpaired
+ * surrogate is replaced by its own <tt>U+FFFD</tt>, so text length always
+ * matches piece table (charset decoder would merge some of them).
+ * <p>
+ * Instances are views: {@link #subSequence(int, int)} shares stream bytes and
+ * pieces with this text.
+ */
+@Internal
+public final class PieceTableText implements CharSequence {
+    private static final char REPLACEMENT_CHAR = '\uFFFD';
+
+    private static final char[] CP1252 = new char[256];
+
+    static {
+        Charset cp1252 = Charset.forName("Cp1252");
+        for (int b = 0; b < 256; b++) {
+            CP1252[b] = new String(new byte[]{(byte) b}, cp1252).charAt(0);
+        }
+    }
+
+    private final byte[] _stream;
+
+    /**
+     * Start character positions of pieces, with the end of the last piece as
+     * the extra last element
+     */
+    private final int[] _cps;
+    private final int[] _fcs;
+    private final boolean[] _unicode;
+
+    private final int _start;
+    private final int _end;
+
+    /**
+     * Index of piece of the last character read, sequential reads don't need
+     * to search for piece
+     */
+    private int _lastPiece;
+
+    /**
+     * @param documentStream WordDocument stream bytes
+     * @param cps            start character positions of pieces, with the
+     *                       end of the last piece as the extra last element
+     * @param fcs            offsets of pieces in document stream
+     * @param unicode        whether pieces are 16-bit
+     */
+    PieceTableText(byte[] documentStream, int[] cps, int[] fcs,
+                   boolean[] unicode) {
+        this(documentStream, cps, fcs, unicode, cps[0], cps[cps.length - 1]);
+    }
+
+    private PieceTableText(byte[] documentStream, int[] cps, int[] fcs,
+                           boolean[] unicode, int start, int end) {
+        _stream = documentStream;
+        _cps = cps;
+        _fcs = fcs;
+        _unicode = unicode;
+        _start = start;
+        _end = end;
+        _lastPiece = findPiece(start);
+    }
+
+    public int length() {
+        return _end - _start;
+    }
+
+    public char charAt(int index) {
+        if (index < 0 || index >= length()) {
+            throw new StringIndexOutOfBoundsException("Index " + index
+                    + " out of range 0 -> " + length());
+        }
+
+        final int cp = _start + index;
+        int piece = _lastPiece;
+        if (cp < _cps[piece] || cp >= _cps[piece + 1]) {
+            piece = findPiece(cp);
+            _lastPiece = piece;
+        }
+        return decode(piece, cp - _cps[piece]);
+    }
+
+    public PieceTableText subSequence(int start, int end) {
+        if (start < 0 || end > length() || start > end) {
+            throw new StringIndexOutOfBoundsException("Asked for text from "
+                    + start + " to " + end + " of " + length());
+        }
+        return new PieceTableText(_stream, _cps, _fcs, _unicode,
+                _start + start, _start + end);
+    }
+
+    /**
+     * Decodes characters of this text into the destination array, like
+     * {@link String#getChars(int, int, char[], int)}
+     */
+    public void getChars(int srcBegin, int srcEnd, char[] dst, int dstBegin) {
+        if (srcBegin < 0 || srcEnd > length() || srcBegin > srcEnd) {
+            throw new StringIndexOutOfBoundsException("Asked for text from "
+                    + srcBegin + " to " + srcEnd + " of " + length());
+        }
+
+        int cp = _start + srcBegin;
+        final int endCp = _start + srcEnd;
+        int piece = findPiece(cp);
+        while (cp < endCp) {
+            final int pieceEnd = Math.min(endCp, _cps[piece + 1]);
+            for (; cp < pieceEnd; cp++) {
+                dst[dstBegin++] = decode(piece, cp - _cps[piece]);
+            }
+            piece++;
+        }
+    }
+
+    /**
+     * Appends this text to the builder, decoding it by chunks
+     */
+    public void appendTo(StringBuilder builder) {
+        final int length = length();
+        builder.ensureCapacity(builder.length() + length);
+
+        char[] chunk = new char[Math.min(length, 4096)];
+        for (int offset = 0; offset < length; offset += chunk.length) {
+            int chunkLength = Math.min(chunk.length, length - offset);
+            getChars(offset, offset + chunkLength, chunk, 0);
+            builder.append(chunk, 0, chunkLength);
+        }
+    }
+
+    @Override
+    public String toString() {
+        char[] chars = new char[length()];
+        getChars(0, chars.length, chars, 0);
+        return new String(chars);
+    }
+
+    /**
+     * @return index of piece containing the given character position, or of
+     * the last piece for the end position
+     */
+    private int findPiece(int cp) {
+        int low = 0;
+        int high = _fcs.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (_cps[mid] <= cp)
+                low = mid;
+            else
+                high = mid - 1;
+        }
+        return low;
+    }
+
+    private char decode(int piece, int index) {
+        if (!_unicode[piece])
+            return CP1252[_stream[_fcs[piece] + index] & 0xff];
+
+        char c = getUnicodeChar(piece, index);
+        if (Character.isHighSurrogate(c)) {
+            if (index + 1 >= _cps[piece + 1] - _cps[piece]
+                    || !Character.isLowSurrogate(getUnicodeChar(piece,
+                    index + 1)))
+                return REPLACEMENT_CHAR;
+        } else if (Character.isLowSurrogate(c)) {
+            if (index == 0
+                    || !Character.isHighSurrogate(getUnicodeChar(piece,
+                    index - 1)))
+                return REPLACEMENT_CHAR;
+        }
+        return c;
+    }
+
+    private char getUnicodeChar(int piece, int index) {
+        final int offset = _fcs[piece] + index * 2;
+        return (char) ((_stream[offset] & 0xff) | ((_stream[offset + 1] & 0xff) << 8));
+    }
+}
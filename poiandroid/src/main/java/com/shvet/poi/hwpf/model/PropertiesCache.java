@@ -0,0 +1,145 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package com.shvet.poi.hwpf.model;
+
+import com.shvet.poi.util.Internal;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of properties resolved from style (istd) and grpprl. Least
+ * recently used properties are discarded when cache is full.
+ * <p>
+ * Cached properties are shared between all users, so they must not be changed
+ * after being put into cache.
+ *
+ * @param <T> type of cached properties
+ */
+@Internal
+public final class PropertiesCache<T> {
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    private final LruMap<T> _cache;
+
+    private long _hits;
+    private long _misses;
+
+    public PropertiesCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public PropertiesCache(final int maxSize) {
+        _cache = new LruMap<T>(maxSize);
+    }
+
+    /**
+     * @return cached properties or <tt>null</tt> if properties for the given
+     * style and grpprl were not cached
+     */
+    public synchronized T get(int istd, byte[] grpprl) {
+        T properties = _cache.get(new Key(istd, grpprl));
+        if (properties != null)
+            _hits++;
+        else
+            _misses++;
+        return properties;
+    }
+
+    /**
+     * Puts properties into the cache. Grpprl is copied, because sprm buffers
+     * may be updated in place later.
+     */
+    public synchronized void put(int istd, byte[] grpprl, T properties) {
+        _cache.put(new Key(istd, grpprl.clone()), properties);
+    }
+
+    public synchronized int size() {
+        return _cache.size();
+    }
+
+    /**
+     * @return number of {@link #get(int, byte[])} calls that found cached
+     * properties
+     */
+    public synchronized long getHits() {
+        return _hits;
+    }
+
+    /**
+     * @return number of {@link #get(int, byte[])} calls that didn't find
+     * cached properties
+     */
+    public synchronized long getMisses() {
+        return _misses;
+    }
+
+    /**
+     * Discards all cached properties and resets counters
+     */
+    public synchronized void clear() {
+        _cache.clear();
+        _hits = 0;
+        _misses = 0;
+    }
+
+    private static final class LruMap<T> extends LinkedHashMap<Key, T> {
+        private static final long serialVersionUID = 1L;
+
+        private final int _maxSize;
+
+        LruMap(int maxSize) {
+            super(16, 0.75f, true);
+            _maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, T> eldest) {
+            return size() > _maxSize;
+        }
+    }
+
+    private static final class Key {
+        private final int _istd;
+        private final byte[] _grpprl;
+        private final int _hashCode;
+
+        Key(int istd, byte[] grpprl) {
+            _istd = istd;
+            _grpprl = grpprl;
+            _hashCode = 31 * istd + Arrays.hashCode(grpprl);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof Key))
+                return false;
+            Key other = (Key) obj;
+            return _hashCode == other._hashCode && _istd == other._istd
+                    && Arrays.equals(_grpprl, other._grpprl);
+        }
+
+        @Override
+        public int hashCode() {
+            return _hashCode;
+        }
+    }
+}
@@ -17,14 +17,12 @@
 package com.shvet.poi.hwpf.model;
 
 import com.shvet.poi.util.Internal;
-import com.shvet.poi.util.StringUtil;
 
 @Internal
 public class SinglentonTextPiece extends TextPiece {
 
     public SinglentonTextPiece(StringBuilder buffer) {
-        super(0, buffer.length(), StringUtil.getToUnicodeLE(buffer.toString()),
-                new PieceDescriptor(new byte[8], 0));
+        super(0, buffer.length(), buffer, new PieceDescriptor(new byte[8], 0));
     }
 
     @Override
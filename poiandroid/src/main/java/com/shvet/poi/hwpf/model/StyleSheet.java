@@ -26,6 +26,8 @@ import com.shvet.poi.util.Internal;
 import com.shvet.poi.util.LittleEndian;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Represents a document's stylesheet. A word documents formatting is stored as
@@ -64,6 +66,29 @@ public final class StyleSheet implements HDFType {
      */
     private Stshif _stshif;
 
+    /**
+     * Character properties resolved from styles of this stylesheet and CHPX
+     * grpprls
+     */
+    private final PropertiesCache<CharacterProperties> _chpCache = new PropertiesCache<CharacterProperties>();
+
+    /**
+     * Paragraph properties resolved from styles of this stylesheet, PAPX
+     * grpprls (including table sprms) and list levels
+     */
+    private final PropertiesCache<ParagraphProperties> _papCache = new PropertiesCache<ParagraphProperties>();
+
+    /**
+     * Paragraph style properties flattened for paragraphs, by istd
+     */
+    private final Map<Integer, ParagraphProperties> _resolvedPaps = new HashMap<Integer, ParagraphProperties>();
+
+    /**
+     * Paragraph style character properties with character style applied, by
+     * istd and character istd
+     */
+    private final Map<Integer, CharacterProperties> _resolvedChps = new HashMap<Integer, CharacterProperties>();
+
     /**
      * StyleSheet constructor. Loads a document's stylesheet information,
      *
@@ -279,6 +304,63 @@ public final class StyleSheet implements HDFType {
         }
     }
 
+    /**
+     * @return cache of character properties resolved from styles of this
+     * stylesheet, shared by all runs of the document
+     */
+    public PropertiesCache<CharacterProperties> getCharacterPropertiesCache() {
+        return _chpCache;
+    }
+
+    /**
+     * @return cache of paragraph properties resolved from styles of this
+     * stylesheet, shared by all paragraphs of the document
+     */
+    public PropertiesCache<ParagraphProperties> getParagraphPropertiesCache() {
+        return _papCache;
+    }
+
+    /**
+     * Returns paragraph properties every paragraph of the given style starts
+     * from: empty properties with istd set and style PAPX applied. Resolved
+     * once per style, returned object is shared and must not be changed,
+     * clone it instead.
+     */
+    public synchronized ParagraphProperties getResolvedParagraphStyle(int istd) {
+        Integer key = Integer.valueOf(istd);
+        ParagraphProperties properties = _resolvedPaps.get(key);
+        if (properties == null) {
+            properties = new ParagraphProperties();
+            properties.setIstd(istd);
+            properties = ParagraphSprmUncompressor.uncompressPAP(properties,
+                    getPAPX(istd), 2);
+            _resolvedPaps.put(key, properties);
+        }
+        return properties;
+    }
+
+    /**
+     * Returns character properties every run of the given paragraph style and
+     * character style starts from, so only the run own CHPX is left to be
+     * applied. Resolved once per pair of styles, returned object is shared and
+     * must not be changed, clone it instead.
+     *
+     * @param istd           paragraph style index
+     * @param characterIstd character style index set by sprmCIstd, or
+     *                       <tt>-1</tt> if none
+     */
+    public synchronized CharacterProperties getResolvedCharacterStyle(int istd,
+                                                                      int characterIstd) {
+        Integer key = Integer.valueOf((istd << 16) | (characterIstd & 0xffff));
+        CharacterProperties properties = _resolvedChps.get(key);
+        if (properties == null) {
+            properties = CharacterSprmUncompressor.uncompressStyleCHP(this,
+                    getCharacterStyle(istd), characterIstd);
+            _resolvedChps.put(key, properties);
+        }
+        return properties;
+    }
+
     /**
      * Gets the number of styles in the style sheet.
      *
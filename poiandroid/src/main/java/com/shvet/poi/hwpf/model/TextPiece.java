@@ -52,7 +52,18 @@ public class TextPiece extends PropertyNode<TextPiece> {
      * @param text  The raw bytes of our text
      */
     public TextPiece(int start, int end, byte[] text, PieceDescriptor pd) {
-        super(start, end, buildInitSB(text, pd));
+        this(start, end, buildInitSB(text, pd), pd);
+    }
+
+    /**
+     * @param start Beginning offset in main document stream, in characters.
+     * @param end   Ending offset in main document stream, in characters.
+     * @param text  Text of piece. {@link StringBuilder} is used as is, any
+     *              other text is copied on first access to
+     *              {@link #getStringBuilder()}
+     */
+    TextPiece(int start, int end, CharSequence text, PieceDescriptor pd) {
+        super(start, end, text);
         _usesUnicode = pd.isUnicode();
         _pd = pd;
 
@@ -97,6 +108,8 @@ public class TextPiece extends PropertyNode<TextPiece> {
     }
 
     public StringBuilder getStringBuilder() {
+        if (!(_buf instanceof StringBuilder))
+            _buf = new StringBuilder((CharSequence) _buf);
         return (StringBuilder) _buf;
     }
 
@@ -113,7 +126,7 @@ public class TextPiece extends PropertyNode<TextPiece> {
      */
     @Deprecated
     public String substring(int start, int end) {
-        StringBuilder buf = (StringBuilder) _buf;
+        StringBuilder buf = getStringBuilder();
 
         // Validate
         if (start < 0) {
@@ -155,7 +168,7 @@ public class TextPiece extends PropertyNode<TextPiece> {
 
             int bufStart = overlapStart - myStart;
             int bufEnd = overlapEnd - myStart;
-            ((StringBuilder) _buf).delete(bufStart, bufEnd);
+            getStringBuilder().delete(bufStart, bufEnd);
         }
 
         // We need to invoke this even if text from this piece is not being
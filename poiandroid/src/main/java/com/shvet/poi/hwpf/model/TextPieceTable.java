@@ -24,8 +24,10 @@ import com.shvet.poi.util.POILogger;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -45,6 +47,18 @@ public class TextPieceTable implements CharIndexTranslator {
     // int _multiple;
     int _cpMin;
 
+    /**
+     * Offsets index over the loaded pieces, or <tt>null</tt> if pieces were
+     * modified after load and lookups have to scan the lists
+     */
+    private PieceIndex _index;
+
+    /**
+     * Text of the loaded pieces, decoded on demand from document stream, or
+     * <tt>null</tt> if pieces are not contiguous
+     */
+    private PieceTableText _lazyText;
+
     public TextPieceTable() {
     }
 
@@ -74,6 +88,8 @@ public class TextPieceTable implements CharIndexTranslator {
             }
         }
 
+        _lazyText = createLazyText(documentStream, pieceTable, pieces);
+
         // using the PieceDescriptors, build our list of TextPieces.
         for (int x = 0; x < pieces.length; x++) {
             int start = pieces[x].getFilePosition();
@@ -94,13 +110,21 @@ public class TextPieceTable implements CharIndexTranslator {
             int textSizeChars = (nodeEndChars - nodeStartChars);
             int textSizeBytes = textSizeChars * multiple;
 
-            // Grab the data that makes up the piece
-            byte[] buf = new byte[textSizeBytes];
-            System.arraycopy(documentStream, start, buf, 0, textSizeBytes);
+            final TextPiece newTextPiece;
+            if (_lazyText != null) {
+                // text is decoded when (if ever) piece text is needed
+                newTextPiece = new TextPiece(nodeStartChars, nodeEndChars,
+                        _lazyText.subSequence(nodeStartChars, nodeEndChars),
+                        pieces[x]);
+            } else {
+                // Grab the data that makes up the piece
+                byte[] buf = new byte[textSizeBytes];
+                System.arraycopy(documentStream, start, buf, 0, textSizeBytes);
 
-            // And now build the piece
-            final TextPiece newTextPiece = new TextPiece(nodeStartChars,
-                    nodeEndChars, buf, pieces[x]);
+                // And now build the piece
+                newTextPiece = new TextPiece(nodeStartChars, nodeEndChars,
+                        buf, pieces[x]);
+            }
 
             _textPieces.add(newTextPiece);
         }
@@ -110,9 +134,85 @@ public class TextPieceTable implements CharIndexTranslator {
         Collections.sort(_textPieces);
         _textPiecesFCOrder = new ArrayList<TextPiece>(_textPieces);
         Collections.sort(_textPiecesFCOrder, new FCComparator());
+
+        _index = new PieceIndex(_textPieces, _textPiecesFCOrder);
+    }
+
+    /**
+     * Creates table of the single 8-bit piece stored in document stream
+     * between the given offsets, for files without piece table (non-complex
+     * Word 6 / Word 95 files). Text of the piece is decoded on demand.
+     */
+    public TextPieceTable(byte[] documentStream, int fcStart, int fcEnd,
+                          PieceDescriptor descriptor) {
+        if (fcStart < 0 || fcEnd < fcStart || fcEnd > documentStream.length) {
+            throw new ArrayIndexOutOfBoundsException("Text from " + fcStart
+                    + " to " + fcEnd + " is outside of document stream of "
+                    + documentStream.length + " bytes");
+        }
+
+        final int length = fcEnd - fcStart;
+        _lazyText = new PieceTableText(documentStream, new int[]{0, length},
+                new int[]{fcStart}, new boolean[]{false});
+
+        TextPiece piece = new TextPiece(0, length, _lazyText, descriptor);
+        _textPieces.add(piece);
+        _textPiecesFCOrder.add(piece);
+        _index = new PieceIndex(_textPieces, _textPiecesFCOrder);
+    }
+
+    /**
+     * @return lazy text of pieces if they start at character position 0 and
+     * follow each other without gaps, <tt>null</tt> otherwise
+     */
+    private static PieceTableText createLazyText(byte[] documentStream,
+                                                 PlexOfCps pieceTable, PieceDescriptor[] pieces) {
+        final int length = pieces.length;
+        if (length == 0)
+            return null;
+
+        Integer[] order = new Integer[length];
+        for (int x = 0; x < length; x++) {
+            order[x] = Integer.valueOf(x);
+        }
+        final PlexOfCps plex = pieceTable;
+        Arrays.sort(order, new Comparator<Integer>() {
+            public int compare(Integer o1, Integer o2) {
+                int start1 = plex.getProperty(o1.intValue()).getStart();
+                int start2 = plex.getProperty(o2.intValue()).getStart();
+                return start1 < start2 ? -1 : (start1 == start2 ? 0 : 1);
+            }
+        });
+
+        int[] cps = new int[length + 1];
+        int[] fcs = new int[length];
+        boolean[] unicode = new boolean[length];
+        int expectedStart = 0;
+        for (int x = 0; x < length; x++) {
+            final int index = order[x].intValue();
+            GenericPropertyNode node = pieceTable.getProperty(index);
+            if (node.getStart() != expectedStart || node.getEnd() < node.getStart())
+                return null;
+
+            cps[x] = node.getStart();
+            fcs[x] = pieces[index].getFilePosition();
+            unicode[x] = pieces[index].isUnicode();
+
+            int bytesLength = (node.getEnd() - node.getStart())
+                    * (unicode[x] ? 2 : 1);
+            if (fcs[x] < 0 || fcs[x] + bytesLength > documentStream.length)
+                return null;
+
+            expectedStart = node.getEnd();
+        }
+        cps[length] = expectedStart;
+
+        return new PieceTableText(documentStream, cps, fcs, unicode);
     }
 
     public void add(TextPiece piece) {
+        _index = null;
+        _lazyText = null;
         _textPieces.add(piece);
         _textPiecesFCOrder.add(piece);
         Collections.sort(_textPieces);
@@ -126,6 +226,8 @@ public class TextPieceTable implements CharIndexTranslator {
      * @param length    The number of characters inserted
      */
     public int adjustForInsert(int listIndex, int length) {
+        _index = null;
+        _lazyText = null;
         int size = _textPieces.size();
 
         TextPiece tp = _textPieces.get(listIndex);
@@ -162,6 +264,9 @@ public class TextPieceTable implements CharIndexTranslator {
     }
 
     public int getByteIndex(int charPos) {
+        if (_index != null)
+            return _index.getByteIndex(charPos);
+
         int byteCount = 0;
         for (TextPiece tp : _textPieces) {
             if (charPos >= tp.getEnd()) {
@@ -191,9 +296,11 @@ public class TextPieceTable implements CharIndexTranslator {
 
     @Deprecated
     public int getCharIndex(int startBytePos, int startCP) {
-        int charCount = 0;
-
         int bytePos = lookIndexForward(startBytePos);
+        if (_index != null)
+            return _index.getCharIndex(bytePos, startCP);
+
+        int charCount = 0;
 
         for (TextPiece tp : _textPieces) {
             int pieceStart = tp.getPieceDescriptor().getFilePosition();
@@ -264,9 +371,29 @@ public class TextPieceTable implements CharIndexTranslator {
         return _cpMin;
     }
 
+    /**
+     * @return text of the loaded pieces, decoded on demand straight from
+     * document stream, or <tt>null</tt> if pieces were changed after load or
+     * don't follow each other without gaps
+     */
+    public CharSequence getLazyText() {
+        return _lazyText;
+    }
+
     public StringBuilder getText() {
         final long start = System.currentTimeMillis();
 
+        if (_lazyText != null) {
+            // pieces text is not decoded separately
+            StringBuilder docText = new StringBuilder(_lazyText.length());
+            _lazyText.appendTo(docText);
+
+            logger.log(POILogger.DEBUG, "Document text were decoded in ",
+                    Long.valueOf(System.currentTimeMillis() - start), " ms (",
+                    Integer.valueOf(docText.length()), " chars)");
+            return docText;
+        }
+
         // rebuild document paragraphs structure
         StringBuilder docText = new StringBuilder();
         for (TextPiece textPiece : _textPieces) {
@@ -306,6 +433,9 @@ public class TextPieceTable implements CharIndexTranslator {
     }
 
     public boolean isIndexInTable(int bytePos) {
+        if (_index != null)
+            return _index.isIndexInTable(bytePos);
+
         for (TextPiece tp : _textPiecesFCOrder) {
             int pieceStart = tp.getPieceDescriptor().getFilePosition();
 
@@ -321,6 +451,9 @@ public class TextPieceTable implements CharIndexTranslator {
     }
 
     boolean isIndexInTable(int startBytePos, int endBytePos) {
+        if (_index != null)
+            return _index.isIndexInTable(startBytePos, endBytePos);
+
         for (TextPiece tp : _textPiecesFCOrder) {
             int pieceStart = tp.getPieceDescriptor().getFilePosition();
 
@@ -339,6 +472,9 @@ public class TextPieceTable implements CharIndexTranslator {
     }
 
     public int lookIndexBackward(final int startBytePos) {
+        if (_index != null)
+            return _index.lookIndexBackward(startBytePos);
+
         int bytePos = startBytePos;
         int lastEnd = 0;
 
@@ -400,10 +536,96 @@ public class TextPieceTable implements CharIndexTranslator {
                 .getFilePosition();
     }
 
+    /**
+     * Replaces pieces of the given range of characters with one unicode piece
+     * of new text. Parts of pieces before and after the range keep their file
+     * positions and property modifiers, pieces after the range are moved by
+     * change of text length.
+     *
+     * @param start start of replaced range, in characters
+     * @param end   end of replaced range before replacement, in characters
+     * @param text  new text of the range
+     * @param fc    position of new text in document stream
+     */
+    public void replaceText(int start, int end, CharSequence text, int fc) {
+        final int shift = text.length() - (end - start);
+
+        ArrayList<TextPiece> textPieces = new ArrayList<TextPiece>(
+                _textPieces.size() + 2);
+        for (TextPiece tp : _textPieces) {
+            if (tp.getEnd() <= start) {
+                textPieces.add(tp);
+                continue;
+            }
+            if (tp.getStart() < start) {
+                textPieces.add(subPiece(tp, tp.getStart(), start, 0));
+            }
+            if (tp.getEnd() > end) {
+                textPieces.add(subPiece(tp, Math.max(tp.getStart(), end),
+                        tp.getEnd(), shift));
+            }
+        }
+
+        if (text.length() > 0) {
+            PieceDescriptor pd = new PieceDescriptor(
+                    new byte[PieceDescriptor.getSizeInBytes()], 0);
+            pd.setFilePosition(fc);
+            textPieces.add(new TextPiece(start, start + text.length(), text,
+                    pd));
+        }
+
+        _textPieces = textPieces;
+        Collections.sort(_textPieces);
+        _textPiecesFCOrder = new ArrayList<TextPiece>(_textPieces);
+        Collections.sort(_textPiecesFCOrder, new FCComparator());
+
+        _lazyText = null;
+        _index = new PieceIndex(_textPieces, _textPiecesFCOrder);
+    }
+
+    /**
+     * @return piece with text of the given piece between the given character
+     * positions, moved by the given shift
+     */
+    private static TextPiece subPiece(TextPiece tp, int start, int end,
+                                      int shift) {
+        if (start == tp.getStart() && end == tp.getEnd()) {
+            if (shift != 0) {
+                tp.setStart(start + shift);
+                tp.setEnd(end + shift);
+            }
+            return tp;
+        }
+
+        PieceDescriptor pd = new PieceDescriptor(tp.getPieceDescriptor()
+                .toByteArray(), 0);
+        pd.setFilePosition(tp.getPieceDescriptor().getFilePosition()
+                + (start - tp.getStart()) * (tp.isUnicode() ? 2 : 1));
+        CharSequence text = ((CharSequence) tp._buf).subSequence(
+                start - tp.getStart(), end - tp.getStart());
+        return new TextPiece(start + shift, end + shift, text, pd);
+    }
+
+    /**
+     * @return piece table (plex of {@link PieceDescriptor}s) of current pieces,
+     * without writing their text
+     */
+    public byte[] toPieceTableByteArray() {
+        PlexOfCps textPlex = new PlexOfCps(PieceDescriptor.getSizeInBytes());
+        for (TextPiece next : _textPieces) {
+            textPlex.addProperty(new GenericPropertyNode(next.getStart(), next
+                    .getEnd(), next.getPieceDescriptor().toByteArray()));
+        }
+        return textPlex.toByteArray();
+    }
+
     public byte[] writeTo(HWPFOutputStream docStream) throws IOException {
         PlexOfCps textPlex = new PlexOfCps(PieceDescriptor.getSizeInBytes());
         // int fcMin = docStream.getOffset();
 
+        // file positions are about to change
+        _index = null;
+
         int size = _textPieces.size();
         for (int x = 0; x < size; x++) {
             TextPiece next = _textPieces.get(x);
@@ -436,6 +658,170 @@ public class TextPieceTable implements CharIndexTranslator {
         return textPlex.toByteArray();
     }
 
+    /**
+     * Immutable snapshot of piece offsets, built once at load time. Pieces are
+     * kept both in CP order (as in {@link #_textPieces}) and in FC order (as in
+     * {@link #_textPiecesFCOrder}), so CP to FC and FC to CP translations are
+     * done by binary search instead of walking all pieces. Results are exactly
+     * the same as of the linear scans in {@link TextPieceTable}.
+     */
+    private static final class PieceIndex {
+        // CP order
+        private final int[] _cpStarts;
+        private final int[] _cpEnds;
+        private final int[] _cpFcs;
+        private final int[] _cpMultiples;
+        /**
+         * Sum of characters lengths of all pieces before the given one, with
+         * total length at the last position
+         */
+        private final int[] _cpCumulative;
+
+        // FC order
+        private final int[] _fcStarts;
+        private final int[] _fcEnds;
+        /**
+         * Maximum of FC ends of all pieces up to and including the given one.
+         * Pieces should not overlap, but this keeps lookups correct even if
+         * they do
+         */
+        private final int[] _fcMaxEnds;
+        private final int[] _fcToCpIndex;
+
+        PieceIndex(List<TextPiece> cpOrder, List<TextPiece> fcOrder) {
+            final int size = cpOrder.size();
+
+            _cpStarts = new int[size];
+            _cpEnds = new int[size];
+            _cpFcs = new int[size];
+            _cpMultiples = new int[size];
+            _cpCumulative = new int[size + 1];
+
+            IdentityHashMap<TextPiece, Integer> cpIndexes = new IdentityHashMap<TextPiece, Integer>(
+                    size);
+            for (int i = 0; i < size; i++) {
+                TextPiece textPiece = cpOrder.get(i);
+                _cpStarts[i] = textPiece.getStart();
+                _cpEnds[i] = textPiece.getEnd();
+                _cpFcs[i] = textPiece.getPieceDescriptor().getFilePosition();
+                _cpMultiples[i] = textPiece.isUnicode() ? 2 : 1;
+                _cpCumulative[i + 1] = _cpCumulative[i]
+                        + (textPiece.bytesLength() / _cpMultiples[i]);
+                cpIndexes.put(textPiece, Integer.valueOf(i));
+            }
+
+            _fcStarts = new int[size];
+            _fcEnds = new int[size];
+            _fcMaxEnds = new int[size];
+            _fcToCpIndex = new int[size];
+            for (int i = 0; i < size; i++) {
+                TextPiece textPiece = fcOrder.get(i);
+                _fcStarts[i] = textPiece.getPieceDescriptor().getFilePosition();
+                _fcEnds[i] = _fcStarts[i] + textPiece.bytesLength();
+                _fcMaxEnds[i] = i == 0 ? _fcEnds[i] : Math.max(
+                        _fcMaxEnds[i - 1], _fcEnds[i]);
+                _fcToCpIndex[i] = cpIndexes.get(textPiece).intValue();
+            }
+        }
+
+        /**
+         * @return index of first element of sorted array that is greater or
+         * equal to (or strictly greater if <tt>strict</tt>) than value, or
+         * array length if there is no such element
+         */
+        private static int lowerBound(int[] sorted, int value, boolean strict) {
+            int low = 0;
+            int high = sorted.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sorted[mid] < value || (strict && sorted[mid] == value))
+                    low = mid + 1;
+                else
+                    high = mid;
+            }
+            return low;
+        }
+
+        int getByteIndex(int charPos) {
+            final int size = _cpEnds.length;
+            if (size == 0)
+                return 0;
+
+            // first piece that ends at or after charPos
+            int i = lowerBound(_cpEnds, charPos, false);
+            if (i == size || charPos == _cpEnds[i]) {
+                if (i == size)
+                    i = size - 1;
+                return _cpFcs[i] + (_cpEnds[i] - _cpStarts[i])
+                        * _cpMultiples[i];
+            }
+            return _cpFcs[i] + (charPos - _cpStarts[i]) * _cpMultiples[i];
+        }
+
+        int getCharIndex(int bytePos, int startCP) {
+            /*
+             * Pieces which do not contain bytePos contribute their full length;
+             * containing ones contribute only part before bytePos and may stop
+             * the count. Usually there are one or two such pieces.
+             */
+            int[] containing = new int[4];
+            int found = 0;
+            for (int j = lowerBound(_fcStarts, bytePos, true) - 1; j >= 0
+                    && _fcMaxEnds[j] >= bytePos; j--) {
+                if (_fcEnds[j] < bytePos)
+                    continue;
+
+                if (found == containing.length)
+                    containing = Arrays.copyOf(containing, found * 2);
+                containing[found++] = _fcToCpIndex[j];
+            }
+            Arrays.sort(containing, 0, found);
+
+            int deficit = 0;
+            for (int c = 0; c < found; c++) {
+                final int i = containing[c];
+                final int partial = (bytePos - _cpFcs[i]) / _cpMultiples[i];
+                final int charCount = _cpCumulative[i] - deficit + partial;
+                if (charCount >= startCP)
+                    return charCount;
+
+                deficit += (_cpCumulative[i + 1] - _cpCumulative[i])
+                        - partial;
+            }
+            return _cpCumulative[_cpCumulative.length - 1] - deficit;
+        }
+
+        boolean isIndexInTable(int bytePos) {
+            // first piece that ends at or after bytePos
+            int j = lowerBound(_fcMaxEnds, bytePos, false);
+            if (j == _fcMaxEnds.length)
+                return false;
+            return _fcStarts[j] <= bytePos;
+        }
+
+        boolean isIndexInTable(int startBytePos, int endBytePos) {
+            // first piece that ends after startBytePos
+            int j = lowerBound(_fcMaxEnds, startBytePos, true);
+            if (j == _fcMaxEnds.length)
+                return false;
+
+            int left = Math.max(startBytePos, _fcStarts[j]);
+            int right = Math.min(endBytePos, _fcEnds[j]);
+            return left < right;
+        }
+
+        int lookIndexBackward(int bytePos) {
+            // first piece that ends at or after bytePos
+            int j = lowerBound(_fcMaxEnds, bytePos, false);
+            if (j == _fcMaxEnds.length)
+                return bytePos;
+
+            if (_fcStarts[j] > bytePos)
+                return j == 0 ? 0 : _fcEnds[j - 1];
+            return bytePos;
+        }
+    }
+
     private static class FCComparator implements Comparator<TextPiece> {
         public int compare(TextPiece textPiece, TextPiece textPiece1) {
             if (textPiece.getPieceDescriptor().fc > textPiece1
@@ -133,6 +133,23 @@ public abstract class CHPAbstractType {
     /**/private static final BitField fHighlight = new BitField(0x0020);
     /**/private static final BitField fChsDiff = new BitField(0x0001);
     /**/private static final BitField fMacChs = new BitField(0x0020);
+    /*
+     * Boolean properties are kept as bits of one long, and objects with
+     * default values are created on first access only, to keep many
+     * property objects small
+     */
+    private static final long FLAG_FUNDETERMINE = 1L << 0;
+    private static final long FLAG_FSPECSYMBOL = 1L << 1;
+    private static final long FLAG_FDBLBDR = 1L << 2;
+    private static final long FLAG_FBORDERWS = 1L << 3;
+    private static final long FLAG_FPROPRMARK = 1L << 4;
+    private static final long FLAG_FCONFLICTORIG = 1L << 5;
+    private static final long FLAG_FCONFLICTOTHERDEL = 1L << 6;
+    private static final long FLAG_FDISPFLDRMARK = 1L << 7;
+    private static final long FLAG_FSPECVANISH = 1L << 8;
+    private static final long FLAG_FHASOLDPROPS = 1L << 9;
+    private static final long FLAG_FSDTVANISH = 1L << 10;
+
     protected int field_1_grpfChp;
     protected int field_2_hps;
     protected int field_3_ftcAscii;
@@ -146,9 +163,7 @@ public abstract class CHPAbstractType {
     protected int field_11_lidDefault;
     protected int field_12_lidFE;
     protected byte field_13_kcd;
-    protected boolean field_14_fUndetermine;
     protected byte field_15_iss;
-    protected boolean field_16_fSpecSymbol;
     protected byte field_17_idct;
     protected byte field_18_idctHint;
     protected byte field_19_kul;
@@ -159,8 +174,6 @@ public abstract class CHPAbstractType {
     protected BorderCode field_24_brc;
     protected int field_25_ibstRMark;
     protected byte field_26_sfxtText;
-    protected boolean field_27_fDblBdr;
-    protected boolean field_28_fBorderWS;
     protected short field_29_ufel;
     protected byte field_30_copt;
     protected int field_31_hpsAsci;
@@ -183,42 +196,25 @@ public abstract class CHPAbstractType {
     protected short field_48_Highlight;
     protected short field_49_CharsetFlags;
     protected short field_50_chse;
-    protected boolean field_51_fPropRMark;
     protected int field_52_ibstPropRMark;
     protected DateAndTime field_53_dttmPropRMark;
-    protected boolean field_54_fConflictOrig;
-    protected boolean field_55_fConflictOtherDel;
     protected int field_56_wConflict;
     protected int field_57_IbstConflict;
     protected DateAndTime field_58_dttmConflict;
-    protected boolean field_59_fDispFldRMark;
     protected int field_60_ibstDispFldRMark;
     protected DateAndTime field_61_dttmDispFldRMark;
     protected byte[] field_62_xstDispFldRMark;
     protected int field_63_fcObjp;
     protected byte field_64_lbrCRJ;
-    protected boolean field_65_fSpecVanish;
-    protected boolean field_66_fHasOldProps;
-    protected boolean field_67_fSdtVanish;
     protected int field_68_wCharScale;
+    protected long field_flags;
 
     protected CHPAbstractType() {
         this.field_2_hps = 20;
-        this.field_8_cv = new Colorref();
         this.field_11_lidDefault = 0x0400;
         this.field_12_lidFE = 0x0400;
-        this.field_20_hresi = new Hyphenation();
-        this.field_23_shd = new ShadingDescriptor();
-        this.field_24_brc = new BorderCode();
         this.field_36_fcPic = -1;
-        this.field_40_hresiOld = new Hyphenation();
-        this.field_42_dttmRMark = new DateAndTime();
-        this.field_43_dttmRMarkDel = new DateAndTime();
         this.field_44_istd = 10;
-        this.field_53_dttmPropRMark = new DateAndTime();
-        this.field_58_dttmConflict = new DateAndTime();
-        this.field_61_dttmDispFldRMark = new DateAndTime();
-        this.field_62_xstDispFldRMark = new byte[32];
         this.field_68_wCharScale = 100;
     }
 
@@ -231,6 +227,8 @@ public abstract class CHPAbstractType {
         if (getClass() != obj.getClass())
             return false;
         CHPAbstractType other = (CHPAbstractType) obj;
+        if (field_flags != other.field_flags)
+            return false;
         if (field_1_grpfChp != other.field_1_grpfChp)
             return false;
         if (field_2_hps != other.field_2_hps)
@@ -245,10 +243,7 @@ public abstract class CHPAbstractType {
             return false;
         if (field_7_dxaSpace != other.field_7_dxaSpace)
             return false;
-        if (field_8_cv == null) {
-            if (other.field_8_cv != null)
-                return false;
-        } else if (!field_8_cv.equals(other.field_8_cv))
+        if (!getCv().equals(other.getCv()))
             return false;
         if (field_9_ico != other.field_9_ico)
             return false;
@@ -260,45 +255,28 @@ public abstract class CHPAbstractType {
             return false;
         if (field_13_kcd != other.field_13_kcd)
             return false;
-        if (field_14_fUndetermine != other.field_14_fUndetermine)
-            return false;
         if (field_15_iss != other.field_15_iss)
             return false;
-        if (field_16_fSpecSymbol != other.field_16_fSpecSymbol)
-            return false;
         if (field_17_idct != other.field_17_idct)
             return false;
         if (field_18_idctHint != other.field_18_idctHint)
             return false;
         if (field_19_kul != other.field_19_kul)
             return false;
-        if (field_20_hresi == null) {
-            if (other.field_20_hresi != null)
-                return false;
-        } else if (!field_20_hresi.equals(other.field_20_hresi))
+        if (!getHresi().equals(other.getHresi()))
             return false;
         if (field_21_hpsKern != other.field_21_hpsKern)
             return false;
         if (field_22_hpsPos != other.field_22_hpsPos)
             return false;
-        if (field_23_shd == null) {
-            if (other.field_23_shd != null)
-                return false;
-        } else if (!field_23_shd.equals(other.field_23_shd))
+        if (!getShd().equals(other.getShd()))
             return false;
-        if (field_24_brc == null) {
-            if (other.field_24_brc != null)
-                return false;
-        } else if (!field_24_brc.equals(other.field_24_brc))
+        if (!getBrc().equals(other.getBrc()))
             return false;
         if (field_25_ibstRMark != other.field_25_ibstRMark)
             return false;
         if (field_26_sfxtText != other.field_26_sfxtText)
             return false;
-        if (field_27_fDblBdr != other.field_27_fDblBdr)
-            return false;
-        if (field_28_fBorderWS != other.field_28_fBorderWS)
-            return false;
         if (field_29_ufel != other.field_29_ufel)
             return false;
         if (field_30_copt != other.field_30_copt)
@@ -321,22 +299,13 @@ public abstract class CHPAbstractType {
             return false;
         if (field_39_fcData != other.field_39_fcData)
             return false;
-        if (field_40_hresiOld == null) {
-            if (other.field_40_hresiOld != null)
-                return false;
-        } else if (!field_40_hresiOld.equals(other.field_40_hresiOld))
+        if (!getHresiOld().equals(other.getHresiOld()))
             return false;
         if (field_41_ibstRMarkDel != other.field_41_ibstRMarkDel)
             return false;
-        if (field_42_dttmRMark == null) {
-            if (other.field_42_dttmRMark != null)
-                return false;
-        } else if (!field_42_dttmRMark.equals(other.field_42_dttmRMark))
+        if (!getDttmRMark().equals(other.getDttmRMark()))
             return false;
-        if (field_43_dttmRMarkDel == null) {
-            if (other.field_43_dttmRMarkDel != null)
-                return false;
-        } else if (!field_43_dttmRMarkDel.equals(other.field_43_dttmRMarkDel))
+        if (!getDttmRMarkDel().equals(other.getDttmRMarkDel()))
             return false;
         if (field_44_istd != other.field_44_istd)
             return false;
@@ -352,51 +321,26 @@ public abstract class CHPAbstractType {
             return false;
         if (field_50_chse != other.field_50_chse)
             return false;
-        if (field_51_fPropRMark != other.field_51_fPropRMark)
-            return false;
         if (field_52_ibstPropRMark != other.field_52_ibstPropRMark)
             return false;
-        if (field_53_dttmPropRMark == null) {
-            if (other.field_53_dttmPropRMark != null)
-                return false;
-        } else if (!field_53_dttmPropRMark.equals(other.field_53_dttmPropRMark))
-            return false;
-        if (field_54_fConflictOrig != other.field_54_fConflictOrig)
-            return false;
-        if (field_55_fConflictOtherDel != other.field_55_fConflictOtherDel)
+        if (!getDttmPropRMark().equals(other.getDttmPropRMark()))
             return false;
         if (field_56_wConflict != other.field_56_wConflict)
             return false;
         if (field_57_IbstConflict != other.field_57_IbstConflict)
             return false;
-        if (field_58_dttmConflict == null) {
-            if (other.field_58_dttmConflict != null)
-                return false;
-        } else if (!field_58_dttmConflict.equals(other.field_58_dttmConflict))
-            return false;
-        if (field_59_fDispFldRMark != other.field_59_fDispFldRMark)
+        if (!getDttmConflict().equals(other.getDttmConflict()))
             return false;
         if (field_60_ibstDispFldRMark != other.field_60_ibstDispFldRMark)
             return false;
-        if (field_61_dttmDispFldRMark == null) {
-            if (other.field_61_dttmDispFldRMark != null)
-                return false;
-        } else if (!field_61_dttmDispFldRMark
-                .equals(other.field_61_dttmDispFldRMark))
+        if (!getDttmDispFldRMark().equals(other.getDttmDispFldRMark()))
             return false;
-        if (!Arrays.equals(field_62_xstDispFldRMark,
-                other.field_62_xstDispFldRMark))
+        if (!Arrays.equals(getXstDispFldRMark(), other.getXstDispFldRMark()))
             return false;
         if (field_63_fcObjp != other.field_63_fcObjp)
             return false;
         if (field_64_lbrCRJ != other.field_64_lbrCRJ)
             return false;
-        if (field_65_fSpecVanish != other.field_65_fSpecVanish)
-            return false;
-        if (field_66_fHasOldProps != other.field_66_fHasOldProps)
-            return false;
-        if (field_67_fSdtVanish != other.field_67_fSdtVanish)
-            return false;
         return field_68_wCharScale == other.field_68_wCharScale;
     }
 
@@ -404,6 +348,7 @@ public abstract class CHPAbstractType {
     public int hashCode() {
         final int prime = 31;
         int result = 1;
+        result = prime * result + (int) (field_flags ^ (field_flags >>> 32));
         result = prime * result + field_1_grpfChp;
         result = prime * result + field_2_hps;
         result = prime * result + field_3_ftcAscii;
@@ -412,30 +357,26 @@ public abstract class CHPAbstractType {
         result = prime * result + field_6_ftcBi;
         result = prime * result + field_7_dxaSpace;
         result = prime * result
-                + ((field_8_cv == null) ? 0 : field_8_cv.hashCode());
+                + getCv().hashCode();
         result = prime * result + field_9_ico;
         result = prime * result + field_10_pctCharWidth;
         result = prime * result + field_11_lidDefault;
         result = prime * result + field_12_lidFE;
         result = prime * result + field_13_kcd;
-        result = prime * result + (field_14_fUndetermine ? 1231 : 1237);
         result = prime * result + field_15_iss;
-        result = prime * result + (field_16_fSpecSymbol ? 1231 : 1237);
         result = prime * result + field_17_idct;
         result = prime * result + field_18_idctHint;
         result = prime * result + field_19_kul;
         result = prime * result
-                + ((field_20_hresi == null) ? 0 : field_20_hresi.hashCode());
+                + getHresi().hashCode();
         result = prime * result + field_21_hpsKern;
         result = prime * result + field_22_hpsPos;
         result = prime * result
-                + ((field_23_shd == null) ? 0 : field_23_shd.hashCode());
+                + getShd().hashCode();
         result = prime * result
-                + ((field_24_brc == null) ? 0 : field_24_brc.hashCode());
+                + getBrc().hashCode();
         result = prime * result + field_25_ibstRMark;
         result = prime * result + field_26_sfxtText;
-        result = prime * result + (field_27_fDblBdr ? 1231 : 1237);
-        result = prime * result + (field_28_fBorderWS ? 1231 : 1237);
         result = prime * result + field_29_ufel;
         result = prime * result + field_30_copt;
         result = prime * result + field_31_hpsAsci;
@@ -447,19 +388,13 @@ public abstract class CHPAbstractType {
         result = prime * result + field_37_fcObj;
         result = prime * result + field_38_lTagObj;
         result = prime * result + field_39_fcData;
-        result = prime
-                * result
-                + ((field_40_hresiOld == null) ? 0 : field_40_hresiOld
-                .hashCode());
+        result = prime * result
+                + getHresiOld().hashCode();
         result = prime * result + field_41_ibstRMarkDel;
-        result = prime
-                * result
-                + ((field_42_dttmRMark == null) ? 0 : field_42_dttmRMark
-                .hashCode());
-        result = prime
-                * result
-                + ((field_43_dttmRMarkDel == null) ? 0 : field_43_dttmRMarkDel
-                .hashCode());
+        result = prime * result
+                + getDttmRMark().hashCode();
+        result = prime * result
+                + getDttmRMarkDel().hashCode();
         result = prime * result + field_44_istd;
         result = prime * result + field_45_idslRMReason;
         result = prime * result + field_46_idslReasonDel;
@@ -467,32 +402,19 @@ public abstract class CHPAbstractType {
         result = prime * result + field_48_Highlight;
         result = prime * result + field_49_CharsetFlags;
         result = prime * result + field_50_chse;
-        result = prime * result + (field_51_fPropRMark ? 1231 : 1237);
         result = prime * result + field_52_ibstPropRMark;
-        result = prime
-                * result
-                + ((field_53_dttmPropRMark == null) ? 0
-                : field_53_dttmPropRMark.hashCode());
-        result = prime * result + (field_54_fConflictOrig ? 1231 : 1237);
-        result = prime * result + (field_55_fConflictOtherDel ? 1231 : 1237);
+        result = prime * result
+                + getDttmPropRMark().hashCode();
         result = prime * result + field_56_wConflict;
         result = prime * result + field_57_IbstConflict;
-        result = prime
-                * result
-                + ((field_58_dttmConflict == null) ? 0 : field_58_dttmConflict
-                .hashCode());
-        result = prime * result + (field_59_fDispFldRMark ? 1231 : 1237);
+        result = prime * result
+                + getDttmConflict().hashCode();
         result = prime * result + field_60_ibstDispFldRMark;
-        result = prime
-                * result
-                + ((field_61_dttmDispFldRMark == null) ? 0
-                : field_61_dttmDispFldRMark.hashCode());
-        result = prime * result + Arrays.hashCode(field_62_xstDispFldRMark);
+        result = prime * result
+                + getDttmDispFldRMark().hashCode();
+        result = prime * result + Arrays.hashCode(getXstDispFldRMark());
         result = prime * result + field_63_fcObjp;
         result = prime * result + field_64_lbrCRJ;
-        result = prime * result + (field_65_fSpecVanish ? 1231 : 1237);
-        result = prime * result + (field_66_fHasOldProps ? 1231 : 1237);
-        result = prime * result + (field_67_fSdtVanish ? 1231 : 1237);
         result = prime * result + field_68_wCharScale;
         return result;
     }
@@ -859,6 +781,8 @@ public abstract class CHPAbstractType {
      */
     @Internal
     public Colorref getCv() {
+        if (field_8_cv == null)
+            field_8_cv = new Colorref();
         return field_8_cv;
     }
 
@@ -963,7 +887,7 @@ public abstract class CHPAbstractType {
      */
     @Internal
     public boolean getFUndetermine() {
-        return field_14_fUndetermine;
+        return (field_flags & FLAG_FUNDETERMINE) != 0;
     }
 
     /**
@@ -971,7 +895,10 @@ public abstract class CHPAbstractType {
      */
     @Internal
     public void setFUndetermine(boolean field_14_fUndetermine) {
-        this.field_14_fUndetermine = field_14_fUndetermine;
+        if (field_14_fUndetermine)
+            field_flags |= FLAG_FUNDETERMINE;
+        else
+            field_flags &= ~FLAG_FUNDETERMINE;
     }
 
     /**
@@ -1001,7 +928,7 @@ public abstract class CHPAbstractType {
      */
     @Internal
     public boolean getFSpecSymbol() {
-        return field_16_fSpecSymbol;
+        return (field_flags & FLAG_FSPECSYMBOL) != 0;
     }
 
     /**
@@ -1009,7 +936,10 @@ public abstract class CHPAbstractType {
      */
     @Internal
     public void setFSpecSymbol(boolean field_16_fSpecSymbol) {
-        this.field_16_fSpecSymbol = field_16_fSpecSymbol;
+        if (field_16_fSpecSymbol)
+            field_flags |= FLAG_FSPECSYMBOL;
+        else
+            field_flags &= ~FLAG_FSPECSYMBOL;
     }
 
     /**
@@ -1087,6 +1017,8 @@ public abstract class CHPAbstractType {
      */
     @Internal
     public Hyphenation getHresi() {
+        if (field_20_hresi == null)
+            field_20_hresi = new Hyphenation();
         return field_20_hresi;
     }
 
@@ -1135,6 +1067,8 @@ public abstract class CHPAbstractType {
      */
     @Internal
     public ShadingDescriptor getShd() {
+        if (field_23_shd == null)
+            field_23_shd = new ShadingDescriptor();
         return field_23_shd;
     }
 
@@ -1151,6 +1085,8 @@ public abstract class CHPAbstractType {
      */
     @Internal
     public BorderCode getBrc() {
+        if (field_24_brc == null)
+            field_24_brc = new BorderCode();
         return field_24_brc;
     }
 
@@ -1216,7 +1152,7 @@ public abstract class CHPAbstractType {
      */
     @Internal
     public boolean getFDblBdr() {
-        return field_27_fDblBdr;
+        return (field_flags & FLAG_FDBLBDR) != 0;
     }
 
     /**
@@ -1224,7 +1160,10 @@ public abstract class CHPAbstractType {
      */
     @Internal
     public void setFDblBdr(boolean field_27_fDblBdr) {
-        this.field_27_fDblBdr = field_27_fDblBdr;
+        if (field_27_fDblBdr)
+            field_flags |= FLAG_FDBLBDR;
+        else
+            field_flags &= ~FLAG_FDBLBDR;
     }
 
     /**
@@ -1232,7 +1171,7 @@ public abstract class CHPAbstractType {
      */
     @Internal
     public boolean getFBorderWS() {
-        return field_28_fBorderWS;
+        return (field_flags & FLAG_FBORDERWS) != 0;
     }
 
     /**
@@ -1240,7 +1179,10 @@ public abstract class CHPAbstractType {
      */
     @Internal
     public void setFBorderWS(boolean field_28_fBorderWS) {
-        this.field_28_fBorderWS = field_28_fBorderWS;
+        if (field_28_fBorderWS)
+            field_flags |= FLAG_FBORDERWS;
+        else
+            field_flags &= ~FLAG_FBORDERWS;
     }
 
     /**
@@ -1444,6 +1386,8 @@ public abstract class CHPAbstractType {
      */
     @Internal
     public Hyphenation getHresiOld() {
+        if (field_40_hresiOld == null)
+            field_40_hresiOld = new Hyphenation();
         return field_40_hresiOld;
     }
 
@@ -1479,6 +1423,8 @@ public abstract class CHPAbstractType {
      */
     @Internal
     public DateAndTime getDttmRMark() {
+        if (field_42_dttmRMark == null)
+            field_42_dttmRMark = new DateAndTime();
         return field_42_dttmRMark;
     }
 
@@ -1497,6 +1443,8 @@ public abstract class CHPAbstractType {
      */
     @Internal
     public DateAndTime getDttmRMarkDel() {
+        if (field_43_dttmRMarkDel == null)
+            field_43_dttmRMarkDel = new DateAndTime();
         return field_43_dttmRMarkDel;
     }
 
@@ -1638,7 +1586,7 @@ public abstract class CHPAbstractType {
      */
     @Internal
     public boolean getFPropRMark() {
-        return field_51_fPropRMark;
+        return (field_flags & FLAG_FPROPRMARK) != 0;
     }
 
     /**
@@ -1646,7 +1594,10 @@ public abstract class CHPAbstractType {
      */
     @Internal
     public void setFPropRMark(boolean field_51_fPropRMark) {
-        this.field_51_fPropRMark = field_51_fPropRMark;
+        if (field_51_fPropRMark)
+            field_flags |= FLAG_FPROPRMARK;
+        else
+            field_flags &= ~FLAG_FPROPRMARK;
     }
 
     /**
@@ -1673,6 +1624,8 @@ public abstract class CHPAbstractType {
      */
     @Internal
     public DateAndTime getDttmPropRMark() {
+        if (field_53_dttmPropRMark == null)
+            field_53_dttmPropRMark = new DateAndTime();
         return field_53_dttmPropRMark;
     }
 
@@ -1692,7 +1645,7 @@ public abstract class CHPAbstractType {
      */
     @Internal
     public boolean getFConflictOrig() {
-        return field_54_fConflictOrig;
+        return (field_flags & FLAG_FCONFLICTORIG) != 0;
     }
 
     /**
@@ -1702,7 +1655,10 @@ public abstract class CHPAbstractType {
      */
     @Internal
     public void setFConflictOrig(boolean field_54_fConflictOrig) {
-        this.field_54_fConflictOrig = field_54_fConflictOrig;
+        if (field_54_fConflictOrig)
+            field_flags |= FLAG_FCONFLICTORIG;
+        else
+            field_flags &= ~FLAG_FCONFLICTORIG;
     }
 
     /**
@@ -1711,7 +1667,7 @@ public abstract class CHPAbstractType {
      */
     @Internal
     public boolean getFConflictOtherDel() {
-        return field_55_fConflictOtherDel;
+        return (field_flags & FLAG_FCONFLICTOTHERDEL) != 0;
     }
 
     /**
@@ -1720,7 +1676,10 @@ public abstract class CHPAbstractType {
      */
     @Internal
     public void setFConflictOtherDel(boolean field_55_fConflictOtherDel) {
-        this.field_55_fConflictOtherDel = field_55_fConflictOtherDel;
+        if (field_55_fConflictOtherDel)
+            field_flags |= FLAG_FCONFLICTOTHERDEL;
+        else
+            field_flags &= ~FLAG_FCONFLICTOTHERDEL;
     }
 
     /**
@@ -1762,6 +1721,8 @@ public abstract class CHPAbstractType {
      */
     @Internal
     public DateAndTime getDttmConflict() {
+        if (field_58_dttmConflict == null)
+            field_58_dttmConflict = new DateAndTime();
         return field_58_dttmConflict;
     }
 
@@ -1780,7 +1741,7 @@ public abstract class CHPAbstractType {
      */
     @Internal
     public boolean getFDispFldRMark() {
-        return field_59_fDispFldRMark;
+        return (field_flags & FLAG_FDISPFLDRMARK) != 0;
     }
 
     /**
@@ -1790,7 +1751,10 @@ public abstract class CHPAbstractType {
      */
     @Internal
     public void setFDispFldRMark(boolean field_59_fDispFldRMark) {
-        this.field_59_fDispFldRMark = field_59_fDispFldRMark;
+        if (field_59_fDispFldRMark)
+            field_flags |= FLAG_FDISPFLDRMARK;
+        else
+            field_flags &= ~FLAG_FDISPFLDRMARK;
     }
 
     /**
@@ -1816,6 +1780,8 @@ public abstract class CHPAbstractType {
      */
     @Internal
     public DateAndTime getDttmDispFldRMark() {
+        if (field_61_dttmDispFldRMark == null)
+            field_61_dttmDispFldRMark = new DateAndTime();
         return field_61_dttmDispFldRMark;
     }
 
@@ -1832,6 +1798,8 @@ public abstract class CHPAbstractType {
      */
     @Internal
     public byte[] getXstDispFldRMark() {
+        if (field_62_xstDispFldRMark == null)
+            field_62_xstDispFldRMark = new byte[36];
         return field_62_xstDispFldRMark;
     }
 
@@ -1886,7 +1854,7 @@ public abstract class CHPAbstractType {
      */
     @Internal
     public boolean getFSpecVanish() {
-        return field_65_fSpecVanish;
+        return (field_flags & FLAG_FSPECVANISH) != 0;
     }
 
     /**
@@ -1894,7 +1862,10 @@ public abstract class CHPAbstractType {
      */
     @Internal
     public void setFSpecVanish(boolean field_65_fSpecVanish) {
-        this.field_65_fSpecVanish = field_65_fSpecVanish;
+        if (field_65_fSpecVanish)
+            field_flags |= FLAG_FSPECVANISH;
+        else
+            field_flags &= ~FLAG_FSPECVANISH;
     }
 
     /**
@@ -1903,7 +1874,7 @@ public abstract class CHPAbstractType {
      */
     @Internal
     public boolean getFHasOldProps() {
-        return field_66_fHasOldProps;
+        return (field_flags & FLAG_FHASOLDPROPS) != 0;
     }
 
     /**
@@ -1912,7 +1883,10 @@ public abstract class CHPAbstractType {
      */
     @Internal
     public void setFHasOldProps(boolean field_66_fHasOldProps) {
-        this.field_66_fHasOldProps = field_66_fHasOldProps;
+        if (field_66_fHasOldProps)
+            field_flags |= FLAG_FHASOLDPROPS;
+        else
+            field_flags &= ~FLAG_FHASOLDPROPS;
     }
 
     /**
@@ -1920,7 +1894,7 @@ public abstract class CHPAbstractType {
      */
     @Internal
     public boolean getFSdtVanish() {
-        return field_67_fSdtVanish;
+        return (field_flags & FLAG_FSDTVANISH) != 0;
     }
 
     /**
@@ -1928,7 +1902,10 @@ public abstract class CHPAbstractType {
      */
     @Internal
     public void setFSdtVanish(boolean field_67_fSdtVanish) {
-        this.field_67_fSdtVanish = field_67_fSdtVanish;
+        if (field_67_fSdtVanish)
+            field_flags |= FLAG_FSDTVANISH;
+        else
+            field_flags &= ~FLAG_FSDTVANISH;
     }
 
     /**
@@ -61,61 +61,69 @@ public abstract class PAPAbstractType {
     /**/private static BitField fVertical = new BitField(0x0001);
     /**/private static BitField fBackward = new BitField(0x0002);
     /**/private static BitField fRotateFont = new BitField(0x0004);
+    /*
+     * Boolean properties are kept as bits of one long, and objects with
+     * default values are created on first access only, to keep many
+     * property objects small
+     */
+    private static final long FLAG_FSIDEBYSIDE = 1L << 0;
+    private static final long FLAG_FKEEP = 1L << 1;
+    private static final long FLAG_FKEEPFOLLOW = 1L << 2;
+    private static final long FLAG_FPAGEBREAKBEFORE = 1L << 3;
+    private static final long FLAG_FNOLNN = 1L << 4;
+    private static final long FLAG_FINTABLE = 1L << 5;
+    private static final long FLAG_FINTABLEW97 = 1L << 6;
+    private static final long FLAG_FTTP = 1L << 7;
+    private static final long FLAG_FBRLNABOVE = 1L << 8;
+    private static final long FLAG_FBRLNBELOW = 1L << 9;
+    private static final long FLAG_FNOAUTOHYPH = 1L << 10;
+    private static final long FLAG_FMINHEIGHT = 1L << 11;
+    private static final long FLAG_FLOCKED = 1L << 12;
+    private static final long FLAG_FWIDOWCONTROL = 1L << 13;
+    private static final long FLAG_FKINSOKU = 1L << 14;
+    private static final long FLAG_FWORDWRAP = 1L << 15;
+    private static final long FLAG_FOVERFLOWPUNCT = 1L << 16;
+    private static final long FLAG_FTOPLINEPUNCT = 1L << 17;
+    private static final long FLAG_FAUTOSPACEDE = 1L << 18;
+    private static final long FLAG_FAUTOSPACEDN = 1L << 19;
+    private static final long FLAG_FBIDI = 1L << 20;
+    private static final long FLAG_FNUMRMINS = 1L << 21;
+    private static final long FLAG_FCRLF = 1L << 22;
+    private static final long FLAG_FUSEPGSUSETTINGS = 1L << 23;
+    private static final long FLAG_FADJUSTRIGHT = 1L << 24;
+    private static final long FLAG_FINNERTABLECELL = 1L << 25;
+    private static final long FLAG_FOPENTCH = 1L << 26;
+    private static final long FLAG_FTTPEMBEDDED = 1L << 27;
+    private static final long FLAG_FDYABEFOREAUTO = 1L << 28;
+    private static final long FLAG_FDYAAFTERAUTO = 1L << 29;
+    private static final long FLAG_FPROPRMARK = 1L << 30;
+    private static final long FLAG_FNOALLOWOVERLAP = 1L << 31;
+
     protected int field_1_istd;
-    protected boolean field_2_fSideBySide;
-    protected boolean field_3_fKeep;
-    protected boolean field_4_fKeepFollow;
-    protected boolean field_5_fPageBreakBefore;
     protected byte field_6_brcl;
     protected byte field_7_brcp;
     protected byte field_8_ilvl;
     protected int field_9_ilfo;
-    protected boolean field_10_fNoLnn;
     protected LineSpacingDescriptor field_11_lspd;
     protected int field_12_dyaBefore;
     protected int field_13_dyaAfter;
-    protected boolean field_14_fInTable;
-    protected boolean field_15_finTableW97;
-    protected boolean field_16_fTtp;
     protected int field_17_dxaAbs;
     protected int field_18_dyaAbs;
     protected int field_19_dxaWidth;
-    protected boolean field_20_fBrLnAbove;
-    protected boolean field_21_fBrLnBelow;
     protected byte field_22_pcVert;
     protected byte field_23_pcHorz;
     protected byte field_24_wr;
-    protected boolean field_25_fNoAutoHyph;
     protected int field_26_dyaHeight;
-    protected boolean field_27_fMinHeight;
     protected DropCapSpecifier field_28_dcs;
     protected int field_29_dyaFromText;
     protected int field_30_dxaFromText;
-    protected boolean field_31_fLocked;
-    protected boolean field_32_fWidowControl;
-    protected boolean field_33_fKinsoku;
-    protected boolean field_34_fWordWrap;
-    protected boolean field_35_fOverflowPunct;
-    protected boolean field_36_fTopLinePunct;
-    protected boolean field_37_fAutoSpaceDE;
-    protected boolean field_38_fAutoSpaceDN;
     protected int field_39_wAlignFont;
     protected short field_40_fontAlign;
     protected byte field_41_lvl;
-    protected boolean field_42_fBiDi;
-    protected boolean field_43_fNumRMIns;
-    protected boolean field_44_fCrLf;
-    protected boolean field_45_fUsePgsuSettings;
-    protected boolean field_46_fAdjustRight;
     protected int field_47_itap;
-    protected boolean field_48_fInnerTableCell;
-    protected boolean field_49_fOpenTch;
-    protected boolean field_50_fTtpEmbedded;
     protected short field_51_dxcRight;
     protected short field_52_dxcLeft;
     protected short field_53_dxcLeft1;
-    protected boolean field_54_fDyaBeforeAuto;
-    protected boolean field_55_fDyaAfterAuto;
     protected int field_56_dxaRight;
     protected int field_57_dxaLeft;
     protected int field_58_dxaLeft1;
@@ -129,7 +137,6 @@ public abstract class PAPAbstractType {
     protected ShadingDescriptor field_66_shd;
     protected byte[] field_67_anld;
     protected byte[] field_68_phe;
-    protected boolean field_69_fPropRMark;
     protected int field_70_ibstPropRMark;
     protected DateAndTime field_71_dttmPropRMark;
     protected int field_72_itbdMac;
@@ -137,30 +144,13 @@ public abstract class PAPAbstractType {
     protected TabDescriptor[] field_74_rgtbd;
     protected byte[] field_75_numrm;
     protected byte[] field_76_ptap;
-    protected boolean field_77_fNoAllowOverlap;
     protected long field_78_ipgp;
     protected long field_79_rsid;
+    protected long field_flags;
 
     protected PAPAbstractType() {
-        this.field_11_lspd = new LineSpacingDescriptor();
-        this.field_11_lspd = new LineSpacingDescriptor();
-        this.field_28_dcs = new DropCapSpecifier();
-        this.field_32_fWidowControl = true;
+        this.field_flags |= FLAG_FWIDOWCONTROL;
         this.field_41_lvl = 9;
-        this.field_60_brcTop = new BorderCode();
-        this.field_61_brcLeft = new BorderCode();
-        this.field_62_brcBottom = new BorderCode();
-        this.field_63_brcRight = new BorderCode();
-        this.field_64_brcBetween = new BorderCode();
-        this.field_65_brcBar = new BorderCode();
-        this.field_66_shd = new ShadingDescriptor();
-        this.field_67_anld = new byte[0];
-        this.field_68_phe = new byte[0];
-        this.field_71_dttmPropRMark = new DateAndTime();
-        this.field_73_rgdxaTab = new int[0];
-        this.field_74_rgtbd = new TabDescriptor[0];
-        this.field_75_numrm = new byte[0];
-        this.field_76_ptap = new byte[0];
     }
 
     public String toString() {
@@ -357,7 +347,7 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public boolean getFSideBySide() {
-        return field_2_fSideBySide;
+        return (field_flags & FLAG_FSIDEBYSIDE) != 0;
     }
 
     /**
@@ -365,7 +355,10 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public void setFSideBySide(boolean field_2_fSideBySide) {
-        this.field_2_fSideBySide = field_2_fSideBySide;
+        if (field_2_fSideBySide)
+            field_flags |= FLAG_FSIDEBYSIDE;
+        else
+            field_flags &= ~FLAG_FSIDEBYSIDE;
     }
 
     /**
@@ -373,7 +366,7 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public boolean getFKeep() {
-        return field_3_fKeep;
+        return (field_flags & FLAG_FKEEP) != 0;
     }
 
     /**
@@ -381,7 +374,10 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public void setFKeep(boolean field_3_fKeep) {
-        this.field_3_fKeep = field_3_fKeep;
+        if (field_3_fKeep)
+            field_flags |= FLAG_FKEEP;
+        else
+            field_flags &= ~FLAG_FKEEP;
     }
 
     /**
@@ -389,7 +385,7 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public boolean getFKeepFollow() {
-        return field_4_fKeepFollow;
+        return (field_flags & FLAG_FKEEPFOLLOW) != 0;
     }
 
     /**
@@ -397,7 +393,10 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public void setFKeepFollow(boolean field_4_fKeepFollow) {
-        this.field_4_fKeepFollow = field_4_fKeepFollow;
+        if (field_4_fKeepFollow)
+            field_flags |= FLAG_FKEEPFOLLOW;
+        else
+            field_flags &= ~FLAG_FKEEPFOLLOW;
     }
 
     /**
@@ -405,7 +404,7 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public boolean getFPageBreakBefore() {
-        return field_5_fPageBreakBefore;
+        return (field_flags & FLAG_FPAGEBREAKBEFORE) != 0;
     }
 
     /**
@@ -413,7 +412,10 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public void setFPageBreakBefore(boolean field_5_fPageBreakBefore) {
-        this.field_5_fPageBreakBefore = field_5_fPageBreakBefore;
+        if (field_5_fPageBreakBefore)
+            field_flags |= FLAG_FPAGEBREAKBEFORE;
+        else
+            field_flags &= ~FLAG_FPAGEBREAKBEFORE;
     }
 
     /**
@@ -536,7 +538,7 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public boolean getFNoLnn() {
-        return field_10_fNoLnn;
+        return (field_flags & FLAG_FNOLNN) != 0;
     }
 
     /**
@@ -544,7 +546,10 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public void setFNoLnn(boolean field_10_fNoLnn) {
-        this.field_10_fNoLnn = field_10_fNoLnn;
+        if (field_10_fNoLnn)
+            field_flags |= FLAG_FNOLNN;
+        else
+            field_flags &= ~FLAG_FNOLNN;
     }
 
     /**
@@ -552,6 +557,8 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public LineSpacingDescriptor getLspd() {
+        if (field_11_lspd == null)
+            field_11_lspd = new LineSpacingDescriptor();
         return field_11_lspd;
     }
 
@@ -600,7 +607,7 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public boolean getFInTable() {
-        return field_14_fInTable;
+        return (field_flags & FLAG_FINTABLE) != 0;
     }
 
     /**
@@ -608,7 +615,10 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public void setFInTable(boolean field_14_fInTable) {
-        this.field_14_fInTable = field_14_fInTable;
+        if (field_14_fInTable)
+            field_flags |= FLAG_FINTABLE;
+        else
+            field_flags &= ~FLAG_FINTABLE;
     }
 
     /**
@@ -616,7 +626,7 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public boolean getFinTableW97() {
-        return field_15_finTableW97;
+        return (field_flags & FLAG_FINTABLEW97) != 0;
     }
 
     /**
@@ -624,7 +634,10 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public void setFinTableW97(boolean field_15_finTableW97) {
-        this.field_15_finTableW97 = field_15_finTableW97;
+        if (field_15_finTableW97)
+            field_flags |= FLAG_FINTABLEW97;
+        else
+            field_flags &= ~FLAG_FINTABLEW97;
     }
 
     /**
@@ -632,7 +645,7 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public boolean getFTtp() {
-        return field_16_fTtp;
+        return (field_flags & FLAG_FTTP) != 0;
     }
 
     /**
@@ -640,7 +653,10 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public void setFTtp(boolean field_16_fTtp) {
-        this.field_16_fTtp = field_16_fTtp;
+        if (field_16_fTtp)
+            field_flags |= FLAG_FTTP;
+        else
+            field_flags &= ~FLAG_FTTP;
     }
 
     /**
@@ -696,7 +712,7 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public boolean getFBrLnAbove() {
-        return field_20_fBrLnAbove;
+        return (field_flags & FLAG_FBRLNABOVE) != 0;
     }
 
     /**
@@ -704,7 +720,10 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public void setFBrLnAbove(boolean field_20_fBrLnAbove) {
-        this.field_20_fBrLnAbove = field_20_fBrLnAbove;
+        if (field_20_fBrLnAbove)
+            field_flags |= FLAG_FBRLNABOVE;
+        else
+            field_flags &= ~FLAG_FBRLNABOVE;
     }
 
     /**
@@ -712,7 +731,7 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public boolean getFBrLnBelow() {
-        return field_21_fBrLnBelow;
+        return (field_flags & FLAG_FBRLNBELOW) != 0;
     }
 
     /**
@@ -720,7 +739,10 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public void setFBrLnBelow(boolean field_21_fBrLnBelow) {
-        this.field_21_fBrLnBelow = field_21_fBrLnBelow;
+        if (field_21_fBrLnBelow)
+            field_flags |= FLAG_FBRLNBELOW;
+        else
+            field_flags &= ~FLAG_FBRLNBELOW;
     }
 
     /**
@@ -776,7 +798,7 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public boolean getFNoAutoHyph() {
-        return field_25_fNoAutoHyph;
+        return (field_flags & FLAG_FNOAUTOHYPH) != 0;
     }
 
     /**
@@ -784,7 +806,10 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public void setFNoAutoHyph(boolean field_25_fNoAutoHyph) {
-        this.field_25_fNoAutoHyph = field_25_fNoAutoHyph;
+        if (field_25_fNoAutoHyph)
+            field_flags |= FLAG_FNOAUTOHYPH;
+        else
+            field_flags &= ~FLAG_FNOAUTOHYPH;
     }
 
     /**
@@ -811,7 +836,7 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public boolean getFMinHeight() {
-        return field_27_fMinHeight;
+        return (field_flags & FLAG_FMINHEIGHT) != 0;
     }
 
     /**
@@ -822,7 +847,10 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public void setFMinHeight(boolean field_27_fMinHeight) {
-        this.field_27_fMinHeight = field_27_fMinHeight;
+        if (field_27_fMinHeight)
+            field_flags |= FLAG_FMINHEIGHT;
+        else
+            field_flags &= ~FLAG_FMINHEIGHT;
     }
 
     /**
@@ -830,6 +858,8 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public DropCapSpecifier getDcs() {
+        if (field_28_dcs == null)
+            field_28_dcs = new DropCapSpecifier();
         return field_28_dcs;
     }
 
@@ -878,7 +908,7 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public boolean getFLocked() {
-        return field_31_fLocked;
+        return (field_flags & FLAG_FLOCKED) != 0;
     }
 
     /**
@@ -886,7 +916,10 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public void setFLocked(boolean field_31_fLocked) {
-        this.field_31_fLocked = field_31_fLocked;
+        if (field_31_fLocked)
+            field_flags |= FLAG_FLOCKED;
+        else
+            field_flags &= ~FLAG_FLOCKED;
     }
 
     /**
@@ -895,7 +928,7 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public boolean getFWidowControl() {
-        return field_32_fWidowControl;
+        return (field_flags & FLAG_FWIDOWCONTROL) != 0;
     }
 
     /**
@@ -904,7 +937,10 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public void setFWidowControl(boolean field_32_fWidowControl) {
-        this.field_32_fWidowControl = field_32_fWidowControl;
+        if (field_32_fWidowControl)
+            field_flags |= FLAG_FWIDOWCONTROL;
+        else
+            field_flags &= ~FLAG_FWIDOWCONTROL;
     }
 
     /**
@@ -912,7 +948,7 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public boolean getFKinsoku() {
-        return field_33_fKinsoku;
+        return (field_flags & FLAG_FKINSOKU) != 0;
     }
 
     /**
@@ -920,7 +956,10 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public void setFKinsoku(boolean field_33_fKinsoku) {
-        this.field_33_fKinsoku = field_33_fKinsoku;
+        if (field_33_fKinsoku)
+            field_flags |= FLAG_FKINSOKU;
+        else
+            field_flags &= ~FLAG_FKINSOKU;
     }
 
     /**
@@ -928,7 +967,7 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public boolean getFWordWrap() {
-        return field_34_fWordWrap;
+        return (field_flags & FLAG_FWORDWRAP) != 0;
     }
 
     /**
@@ -936,7 +975,10 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public void setFWordWrap(boolean field_34_fWordWrap) {
-        this.field_34_fWordWrap = field_34_fWordWrap;
+        if (field_34_fWordWrap)
+            field_flags |= FLAG_FWORDWRAP;
+        else
+            field_flags &= ~FLAG_FWORDWRAP;
     }
 
     /**
@@ -944,7 +986,7 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public boolean getFOverflowPunct() {
-        return field_35_fOverflowPunct;
+        return (field_flags & FLAG_FOVERFLOWPUNCT) != 0;
     }
 
     /**
@@ -952,7 +994,10 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public void setFOverflowPunct(boolean field_35_fOverflowPunct) {
-        this.field_35_fOverflowPunct = field_35_fOverflowPunct;
+        if (field_35_fOverflowPunct)
+            field_flags |= FLAG_FOVERFLOWPUNCT;
+        else
+            field_flags &= ~FLAG_FOVERFLOWPUNCT;
     }
 
     /**
@@ -960,7 +1005,7 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public boolean getFTopLinePunct() {
-        return field_36_fTopLinePunct;
+        return (field_flags & FLAG_FTOPLINEPUNCT) != 0;
     }
 
     /**
@@ -968,7 +1013,10 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public void setFTopLinePunct(boolean field_36_fTopLinePunct) {
-        this.field_36_fTopLinePunct = field_36_fTopLinePunct;
+        if (field_36_fTopLinePunct)
+            field_flags |= FLAG_FTOPLINEPUNCT;
+        else
+            field_flags &= ~FLAG_FTOPLINEPUNCT;
     }
 
     /**
@@ -976,7 +1024,7 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public boolean getFAutoSpaceDE() {
-        return field_37_fAutoSpaceDE;
+        return (field_flags & FLAG_FAUTOSPACEDE) != 0;
     }
 
     /**
@@ -984,7 +1032,10 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public void setFAutoSpaceDE(boolean field_37_fAutoSpaceDE) {
-        this.field_37_fAutoSpaceDE = field_37_fAutoSpaceDE;
+        if (field_37_fAutoSpaceDE)
+            field_flags |= FLAG_FAUTOSPACEDE;
+        else
+            field_flags &= ~FLAG_FAUTOSPACEDE;
     }
 
     /**
@@ -992,7 +1043,7 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public boolean getFAutoSpaceDN() {
-        return field_38_fAutoSpaceDN;
+        return (field_flags & FLAG_FAUTOSPACEDN) != 0;
     }
 
     /**
@@ -1000,7 +1051,10 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public void setFAutoSpaceDN(boolean field_38_fAutoSpaceDN) {
-        this.field_38_fAutoSpaceDN = field_38_fAutoSpaceDN;
+        if (field_38_fAutoSpaceDN)
+            field_flags |= FLAG_FAUTOSPACEDN;
+        else
+            field_flags &= ~FLAG_FAUTOSPACEDN;
     }
 
     /**
@@ -1064,7 +1118,7 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public boolean getFBiDi() {
-        return field_42_fBiDi;
+        return (field_flags & FLAG_FBIDI) != 0;
     }
 
     /**
@@ -1072,7 +1126,10 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public void setFBiDi(boolean field_42_fBiDi) {
-        this.field_42_fBiDi = field_42_fBiDi;
+        if (field_42_fBiDi)
+            field_flags |= FLAG_FBIDI;
+        else
+            field_flags &= ~FLAG_FBIDI;
     }
 
     /**
@@ -1080,7 +1137,7 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public boolean getFNumRMIns() {
-        return field_43_fNumRMIns;
+        return (field_flags & FLAG_FNUMRMINS) != 0;
     }
 
     /**
@@ -1088,7 +1145,10 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public void setFNumRMIns(boolean field_43_fNumRMIns) {
-        this.field_43_fNumRMIns = field_43_fNumRMIns;
+        if (field_43_fNumRMIns)
+            field_flags |= FLAG_FNUMRMINS;
+        else
+            field_flags &= ~FLAG_FNUMRMINS;
     }
 
     /**
@@ -1096,7 +1156,7 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public boolean getFCrLf() {
-        return field_44_fCrLf;
+        return (field_flags & FLAG_FCRLF) != 0;
     }
 
     /**
@@ -1104,7 +1164,10 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public void setFCrLf(boolean field_44_fCrLf) {
-        this.field_44_fCrLf = field_44_fCrLf;
+        if (field_44_fCrLf)
+            field_flags |= FLAG_FCRLF;
+        else
+            field_flags &= ~FLAG_FCRLF;
     }
 
     /**
@@ -1112,7 +1175,7 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public boolean getFUsePgsuSettings() {
-        return field_45_fUsePgsuSettings;
+        return (field_flags & FLAG_FUSEPGSUSETTINGS) != 0;
     }
 
     /**
@@ -1120,7 +1183,10 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public void setFUsePgsuSettings(boolean field_45_fUsePgsuSettings) {
-        this.field_45_fUsePgsuSettings = field_45_fUsePgsuSettings;
+        if (field_45_fUsePgsuSettings)
+            field_flags |= FLAG_FUSEPGSUSETTINGS;
+        else
+            field_flags &= ~FLAG_FUSEPGSUSETTINGS;
     }
 
     /**
@@ -1128,7 +1194,7 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public boolean getFAdjustRight() {
-        return field_46_fAdjustRight;
+        return (field_flags & FLAG_FADJUSTRIGHT) != 0;
     }
 
     /**
@@ -1136,7 +1202,10 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public void setFAdjustRight(boolean field_46_fAdjustRight) {
-        this.field_46_fAdjustRight = field_46_fAdjustRight;
+        if (field_46_fAdjustRight)
+            field_flags |= FLAG_FADJUSTRIGHT;
+        else
+            field_flags &= ~FLAG_FADJUSTRIGHT;
     }
 
     /**
@@ -1161,7 +1230,7 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public boolean getFInnerTableCell() {
-        return field_48_fInnerTableCell;
+        return (field_flags & FLAG_FINNERTABLECELL) != 0;
     }
 
     /**
@@ -1170,7 +1239,10 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public void setFInnerTableCell(boolean field_48_fInnerTableCell) {
-        this.field_48_fInnerTableCell = field_48_fInnerTableCell;
+        if (field_48_fInnerTableCell)
+            field_flags |= FLAG_FINNERTABLECELL;
+        else
+            field_flags &= ~FLAG_FINNERTABLECELL;
     }
 
     /**
@@ -1178,7 +1250,7 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public boolean getFOpenTch() {
-        return field_49_fOpenTch;
+        return (field_flags & FLAG_FOPENTCH) != 0;
     }
 
     /**
@@ -1186,7 +1258,10 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public void setFOpenTch(boolean field_49_fOpenTch) {
-        this.field_49_fOpenTch = field_49_fOpenTch;
+        if (field_49_fOpenTch)
+            field_flags |= FLAG_FOPENTCH;
+        else
+            field_flags &= ~FLAG_FOPENTCH;
     }
 
     /**
@@ -1195,7 +1270,7 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public boolean getFTtpEmbedded() {
-        return field_50_fTtpEmbedded;
+        return (field_flags & FLAG_FTTPEMBEDDED) != 0;
     }
 
     /**
@@ -1204,7 +1279,10 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public void setFTtpEmbedded(boolean field_50_fTtpEmbedded) {
-        this.field_50_fTtpEmbedded = field_50_fTtpEmbedded;
+        if (field_50_fTtpEmbedded)
+            field_flags |= FLAG_FTTPEMBEDDED;
+        else
+            field_flags &= ~FLAG_FTTPEMBEDDED;
     }
 
     /**
@@ -1260,7 +1338,7 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public boolean getFDyaBeforeAuto() {
-        return field_54_fDyaBeforeAuto;
+        return (field_flags & FLAG_FDYABEFOREAUTO) != 0;
     }
 
     /**
@@ -1268,7 +1346,10 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public void setFDyaBeforeAuto(boolean field_54_fDyaBeforeAuto) {
-        this.field_54_fDyaBeforeAuto = field_54_fDyaBeforeAuto;
+        if (field_54_fDyaBeforeAuto)
+            field_flags |= FLAG_FDYABEFOREAUTO;
+        else
+            field_flags &= ~FLAG_FDYABEFOREAUTO;
     }
 
     /**
@@ -1276,7 +1357,7 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public boolean getFDyaAfterAuto() {
-        return field_55_fDyaAfterAuto;
+        return (field_flags & FLAG_FDYAAFTERAUTO) != 0;
     }
 
     /**
@@ -1284,7 +1365,10 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public void setFDyaAfterAuto(boolean field_55_fDyaAfterAuto) {
-        this.field_55_fDyaAfterAuto = field_55_fDyaAfterAuto;
+        if (field_55_fDyaAfterAuto)
+            field_flags |= FLAG_FDYAAFTERAUTO;
+        else
+            field_flags &= ~FLAG_FDYAAFTERAUTO;
     }
 
     /**
@@ -1356,6 +1440,8 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public BorderCode getBrcTop() {
+        if (field_60_brcTop == null)
+            field_60_brcTop = new BorderCode();
         return field_60_brcTop;
     }
 
@@ -1372,6 +1458,8 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public BorderCode getBrcLeft() {
+        if (field_61_brcLeft == null)
+            field_61_brcLeft = new BorderCode();
         return field_61_brcLeft;
     }
 
@@ -1388,6 +1476,8 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public BorderCode getBrcBottom() {
+        if (field_62_brcBottom == null)
+            field_62_brcBottom = new BorderCode();
         return field_62_brcBottom;
     }
 
@@ -1404,6 +1494,8 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public BorderCode getBrcRight() {
+        if (field_63_brcRight == null)
+            field_63_brcRight = new BorderCode();
         return field_63_brcRight;
     }
 
@@ -1420,6 +1512,8 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public BorderCode getBrcBetween() {
+        if (field_64_brcBetween == null)
+            field_64_brcBetween = new BorderCode();
         return field_64_brcBetween;
     }
 
@@ -1436,6 +1530,8 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public BorderCode getBrcBar() {
+        if (field_65_brcBar == null)
+            field_65_brcBar = new BorderCode();
         return field_65_brcBar;
     }
 
@@ -1452,6 +1548,8 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public ShadingDescriptor getShd() {
+        if (field_66_shd == null)
+            field_66_shd = new ShadingDescriptor();
         return field_66_shd;
     }
 
@@ -1468,6 +1566,8 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public byte[] getAnld() {
+        if (field_67_anld == null)
+            field_67_anld = new byte[84];
         return field_67_anld;
     }
 
@@ -1484,6 +1584,8 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public byte[] getPhe() {
+        if (field_68_phe == null)
+            field_68_phe = new byte[12];
         return field_68_phe;
     }
 
@@ -1500,7 +1602,7 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public boolean getFPropRMark() {
-        return field_69_fPropRMark;
+        return (field_flags & FLAG_FPROPRMARK) != 0;
     }
 
     /**
@@ -1508,7 +1610,10 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public void setFPropRMark(boolean field_69_fPropRMark) {
-        this.field_69_fPropRMark = field_69_fPropRMark;
+        if (field_69_fPropRMark)
+            field_flags |= FLAG_FPROPRMARK;
+        else
+            field_flags &= ~FLAG_FPROPRMARK;
     }
 
     /**
@@ -1532,6 +1637,8 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public DateAndTime getDttmPropRMark() {
+        if (field_71_dttmPropRMark == null)
+            field_71_dttmPropRMark = new DateAndTime();
         return field_71_dttmPropRMark;
     }
 
@@ -1564,6 +1671,8 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public int[] getRgdxaTab() {
+        if (field_73_rgdxaTab == null)
+            field_73_rgdxaTab = new int[0];
         return field_73_rgdxaTab;
     }
 
@@ -1580,6 +1689,8 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public TabDescriptor[] getRgtbd() {
+        if (field_74_rgtbd == null)
+            field_74_rgtbd = new TabDescriptor[0];
         return field_74_rgtbd;
     }
 
@@ -1596,6 +1707,8 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public byte[] getNumrm() {
+        if (field_75_numrm == null)
+            field_75_numrm = new byte[0];
         return field_75_numrm;
     }
 
@@ -1612,6 +1725,8 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public byte[] getPtap() {
+        if (field_76_ptap == null)
+            field_76_ptap = new byte[0];
         return field_76_ptap;
     }
 
@@ -1629,7 +1744,7 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public boolean getFNoAllowOverlap() {
-        return field_77_fNoAllowOverlap;
+        return (field_flags & FLAG_FNOALLOWOVERLAP) != 0;
     }
 
     /**
@@ -1638,7 +1753,10 @@ public abstract class PAPAbstractType {
      */
     @Internal
     public void setFNoAllowOverlap(boolean field_77_fNoAllowOverlap) {
-        this.field_77_fNoAllowOverlap = field_77_fNoAllowOverlap;
+        if (field_77_fNoAllowOverlap)
+            field_flags |= FLAG_FNOALLOWOVERLAP;
+        else
+            field_flags &= ~FLAG_FNOALLOWOVERLAP;
     }
 
     /**
@@ -48,6 +48,36 @@ public final class CharacterSprmUncompressor extends SprmUncompressor {
 
     public static CharacterProperties uncompressCHP(StyleSheet styleSheet,
                                                     CharacterProperties parStyle, byte[] grpprl, int offset) {
+        CharacterProperties styleProperties = uncompressStyleCHP(styleSheet,
+                parStyle, getIstd(grpprl, offset));
+        return uncompressRunCHP(styleProperties, grpprl, offset);
+    }
+
+    /**
+     * Resolves character properties of the run with the given paragraph
+     * style. Style part is taken from the stylesheet, where it is resolved
+     * once per styles pair, so only the run own sprms are applied and only
+     * one object is cloned.
+     */
+    public static CharacterProperties uncompressCHP(StyleSheet styleSheet,
+                                                    int istd, byte[] grpprl, int offset) {
+        CharacterProperties styleProperties = styleSheet
+                .getResolvedCharacterStyle(istd, getIstd(grpprl, offset));
+        return uncompressRunCHP(styleProperties, grpprl, offset);
+    }
+
+    /**
+     * Applies CHPX of character style to character properties of paragraph
+     * style
+     *
+     * @param parStyle character properties of paragraph style, may be
+     *                 <tt>null</tt>
+     * @param style    character style index, or <tt>-1</tt> if none
+     * @return new properties, <tt>parStyle</tt> is not changed
+     */
+    @Internal
+    public static CharacterProperties uncompressStyleCHP(
+            StyleSheet styleSheet, CharacterProperties parStyle, int style) {
         CharacterProperties newProperties;
         if (parStyle == null) {
             parStyle = new CharacterProperties();
@@ -60,8 +90,7 @@ public final class CharacterSprmUncompressor extends SprmUncompressor {
          * not fully conform to specification, but the fastest way to make it
 		 * work. Shall be rewritten if any errors would be found -- vlsergey
 		 */
-        Integer style = getIstd(grpprl, offset);
-        if (style != null) {
+        if (style != -1) {
             try {
                 applySprms(parStyle, styleSheet.getCHPX(style), 0, false,
                         newProperties);
@@ -70,9 +99,12 @@ public final class CharacterSprmUncompressor extends SprmUncompressor {
                         style, " CHP SPRMs to CHP: ", exc, exc);
             }
         }
+        return newProperties;
+    }
 
-        CharacterProperties styleProperties = newProperties;
-        newProperties = styleProperties.clone();
+    private static CharacterProperties uncompressRunCHP(
+            CharacterProperties styleProperties, byte[] grpprl, int offset) {
+        CharacterProperties newProperties = styleProperties.clone();
 
         try {
             applySprms(styleProperties, grpprl, offset, true, newProperties);
@@ -89,7 +121,7 @@ public final class CharacterSprmUncompressor extends SprmUncompressor {
         SprmIterator sprmIt = new SprmIterator(grpprl, offset);
 
         while (sprmIt.hasNext()) {
-            SprmOperation sprm = sprmIt.next();
+            SprmOperation sprm = sprmIt.nextShared();
 
             if (sprm.getType() != 2) {
                 if (warnAboutNonChpSprms) {
@@ -103,16 +135,20 @@ public final class CharacterSprmUncompressor extends SprmUncompressor {
         }
     }
 
-    private static Integer getIstd(byte[] grpprl, int offset) {
-        Integer style = null;
+    /**
+     * @return style index set by sprmCIstd, or <tt>-1</tt> if there is no
+     * such sprm
+     */
+    private static int getIstd(byte[] grpprl, int offset) {
+        int style = -1;
         try {
             SprmIterator sprmIt = new SprmIterator(grpprl, offset);
             while (sprmIt.hasNext()) {
-                SprmOperation sprm = sprmIt.next();
+                SprmOperation sprm = sprmIt.nextShared();
 
                 if (sprm.getType() == 2 && sprm.getOperation() == 0x30) {
                     // sprmCIstd (0x4A30)
-                    style = Integer.valueOf(sprm.getOperand());
+                    style = sprm.getOperand();
                 }
             }
         } catch (Exception exc) {
@@ -651,7 +687,7 @@ public final class CharacterSprmUncompressor extends SprmUncompressor {
                         oldCHP.isFNoProof()));
                 break;
             default:
-                logger.log(POILogger.DEBUG, "Unknown CHP sprm ignored: " + sprm);
+                logger.log(POILogger.DEBUG, "Unknown CHP sprm ignored: ", sprm);
                 break;
         }
     }
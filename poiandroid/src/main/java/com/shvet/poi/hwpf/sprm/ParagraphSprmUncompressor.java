@@ -56,7 +56,7 @@ public final class ParagraphSprmUncompressor extends SprmUncompressor {
         SprmIterator sprmIt = new SprmIterator(grpprl, offset);
 
         while (sprmIt.hasNext()) {
-            SprmOperation sprm = sprmIt.next();
+            SprmOperation sprm = sprmIt.nextShared();
 
             // PAPXs can contain table sprms if the paragraph marks the end of a
             // table row
@@ -414,7 +414,7 @@ public final class ParagraphSprmUncompressor extends SprmUncompressor {
                 newPAP.setRsid(sprm.getOperand());
                 break;
             default:
-                logger.log(POILogger.DEBUG, "Unknown PAP sprm ignored: " + sprm);
+                logger.log(POILogger.DEBUG, "Unknown PAP sprm ignored: ", sprm);
                 break;
         }
     }
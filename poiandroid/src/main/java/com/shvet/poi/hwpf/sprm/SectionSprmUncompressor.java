@@ -32,7 +32,7 @@ public final class SectionSprmUncompressor extends SprmUncompressor {
         SprmIterator sprmIt = new SprmIterator(grpprl, offset);
 
         while (sprmIt.hasNext()) {
-            SprmOperation sprm = sprmIt.next();
+            SprmOperation sprm = sprmIt.nextShared();
             unCompressSEPOperation(newProperties, sprm);
         }
 
@@ -31,6 +31,11 @@ public final class SprmIterator {
     int _offset;
     private byte[] _grpprl;
 
+    /**
+     * Operation returned by {@link #nextShared()}, created on first use
+     */
+    private SprmOperation _shared;
+
     public SprmIterator(byte[] grpprl, int offset) {
         _grpprl = grpprl;
         _offset = offset;
@@ -47,4 +52,17 @@ public final class SprmIterator {
         return op;
     }
 
+    /**
+     * Same as {@link #next()}, but returns the same operation object every
+     * time, moved to the next sprm. Returned object is valid only until the
+     * next call and must not be kept; use {@link #next()} for that.
+     */
+    public SprmOperation nextShared() {
+        if (_shared == null)
+            _shared = new SprmOperation();
+        _shared.reset(_grpprl, _offset);
+        _offset += _shared.size();
+        return _shared;
+    }
+
 }
@@ -50,6 +50,13 @@ public final class SprmOperation {
             .getInstance(0x1c00);
     final static private short SPRM_LONG_PARAGRAPH = (short) 0xc615;
     final static private short SPRM_LONG_TABLE = (short) 0xd608;
+
+    /**
+     * Sizes of sprms (with opcode) by size code, <tt>-1</tt> for variable
+     * length operand
+     */
+    private static final int[] SIZES = {3, 3, 4, 6, 4, 4, -1, 5};
+
     private int _offset;
     private int _gOffset;
     private byte[] _grpprl;
@@ -57,11 +64,26 @@ public final class SprmOperation {
     private short _value;
 
     public SprmOperation(byte[] grpprl, int offset) {
+        reset(grpprl, offset);
+    }
+
+    /**
+     * Creates operation to be positioned by {@link #reset(byte[], int)}
+     */
+    SprmOperation() {
+    }
+
+    /**
+     * Makes this object represent the sprm at the given offset, so one
+     * instance can be reused while walking through grpprl
+     */
+    SprmOperation reset(byte[] grpprl, int offset) {
         _grpprl = grpprl;
         _value = LittleEndian.getShort(grpprl, offset);
         _offset = offset;
         _gOffset = offset + 2;
         _size = initSize(_value);
+        return this;
     }
 
     public static int getOperationFromOpcode(short opcode) {
@@ -142,31 +164,17 @@ public final class SprmOperation {
     }
 
     private int initSize(short sprm) {
-        switch (getSizeCode()) {
-            case 0:
-            case 1:
-                return 3;
-            case 2:
-            case 4:
-            case 5:
-                return 4;
-            case 3:
-                return 6;
-            case 6:
-                int offset = _gOffset;
-                if (sprm == SPRM_LONG_TABLE || sprm == SPRM_LONG_PARAGRAPH) {
-                    int retVal = (0x0000ffff & LittleEndian.getShort(_grpprl,
-                            offset)) + 3;
-                    _gOffset += 2;
-                    return retVal;
-                }
-                return (0x000000ff & _grpprl[_gOffset++]) + 3;
-            case 7:
-                return 5;
-            default:
-                throw new IllegalArgumentException(
-                        "SPRM contains an invalid size code");
+        final int size = SIZES[getSizeCode()];
+        if (size != -1)
+            return size;
+
+        int offset = _gOffset;
+        if (sprm == SPRM_LONG_TABLE || sprm == SPRM_LONG_PARAGRAPH) {
+            int retVal = (0x0000ffff & LittleEndian.getShort(_grpprl, offset)) + 3;
+            _gOffset += 2;
+            return retVal;
         }
+        return (0x000000ff & _grpprl[_gOffset++]) + 3;
     }
 
     public int size() {
@@ -40,7 +40,7 @@ public final class TableSprmUncompressor extends SprmUncompressor {
         SprmIterator sprmIt = new SprmIterator(grpprl, offset);
 
         while (sprmIt.hasNext()) {
-            SprmOperation sprm = sprmIt.next();
+            SprmOperation sprm = sprmIt.nextShared();
 
             // TAPXs are actually PAPXs so we have to make sure we are only
             // trying to
@@ -74,7 +74,7 @@ public final class TableSprmUncompressor extends SprmUncompressor {
         }
 
         for (SprmIterator iterator = sprmBuffer.iterator(); iterator.hasNext(); ) {
-            SprmOperation sprm = iterator.next();
+            SprmOperation sprm = iterator.nextShared();
 
 			/*
              * TAPXs are actually PAPXs so we have to make sure we are only
@@ -45,6 +45,18 @@ public interface Bookmarks {
     Map<Integer, List<Bookmark>> getBookmarksStartedBetween(
             int startInclusive, int endExclusive);
 
+    /**
+     * @return bookmarks containing the specified character position, sorted
+     * by start position (outer bookmarks first for the same start)
+     */
+    List<Bookmark> getBookmarksContaining(int position);
+
+    /**
+     * @return bookmarks overlapping specified range, sorted by start position
+     * (outer bookmarks first for the same start)
+     */
+    List<Bookmark> getBookmarksOverlapping(int startInclusive, int endExclusive);
+
     /**
      * Remove bookmark from document (but not the bookmark text)
      *
@@ -39,6 +39,7 @@ public class BookmarksImpl implements Bookmarks {
     private final BookmarksTables bookmarksTables;
     private Map<Integer, List<GenericPropertyNode>> sortedDescriptors = null;
     private int[] sortedStartPositions = null;
+    private IntervalIndex<Bookmark> index = null;
 
     public BookmarksImpl(BookmarksTables bookmarksTables) {
         this.bookmarksTables = bookmarksTables;
@@ -113,13 +114,45 @@ public class BookmarksImpl implements Bookmarks {
         return Collections.unmodifiableMap(result);
     }
 
+    public List<Bookmark> getBookmarksContaining(int position) {
+        return getIndex().findContaining(position);
+    }
+
+    public List<Bookmark> getBookmarksOverlapping(int startInclusive,
+                                                  int endExclusive) {
+        return getIndex().findOverlapping(startInclusive, endExclusive);
+    }
+
     public void remove(int index) {
         bookmarksTables.remove(index);
+        reset();
     }
 
     private void reset() {
         sortedDescriptors = null;
         sortedStartPositions = null;
+        index = null;
+    }
+
+    private IntervalIndex<Bookmark> getIndex() {
+        if (index != null)
+            return index;
+
+        final int count = bookmarksTables.getDescriptorsFirstCount();
+        final int limCount = bookmarksTables.getDescriptorsLimCount();
+        int[] starts = new int[count];
+        int[] ends = new int[count];
+        List<Bookmark> bookmarks = new ArrayList<Bookmark>(count);
+        for (int b = 0; b < count; b++) {
+            GenericPropertyNode first = bookmarksTables.getDescriptorFirst(b);
+            starts[b] = first.getStart();
+            // same as BookmarkImpl.getEnd(), without index lookup
+            ends[b] = b < limCount ? bookmarksTables.getDescriptorLim(b)
+                    .getStart() : first.getEnd();
+            bookmarks.add(getBookmark(first));
+        }
+        index = new IntervalIndex<Bookmark>(starts, ends, bookmarks);
+        return index;
     }
 
     private void updateSortedDescriptors() {
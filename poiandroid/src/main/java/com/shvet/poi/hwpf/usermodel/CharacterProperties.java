@@ -86,7 +86,6 @@ public final class CharacterProperties extends CHPAbstractType implements
 
     public CharacterProperties() {
         setFUsePgsuSettings(true);
-        setXstDispFldRMark(new byte[36]);
     }
 
     public boolean isMarkedDeleted() {
@@ -326,14 +325,24 @@ public final class CharacterProperties extends CHPAbstractType implements
         try {
             CharacterProperties cp = (CharacterProperties) super.clone();
 
-            cp.setCv(getCv().clone());
-            cp.setDttmRMark((DateAndTime) getDttmRMark().clone());
-            cp.setDttmRMarkDel((DateAndTime) getDttmRMarkDel().clone());
-            cp.setDttmPropRMark((DateAndTime) getDttmPropRMark().clone());
-            cp.setDttmDispFldRMark((DateAndTime) getDttmDispFldRMark().clone());
-            cp.setXstDispFldRMark(getXstDispFldRMark().clone());
-            cp.setShd(getShd().clone());
-            cp.setBrc((BorderCode) getBrc().clone());
+            // not created yet objects stay so in the copy
+            if (field_8_cv != null)
+                cp.setCv(field_8_cv.clone());
+            if (field_42_dttmRMark != null)
+                cp.setDttmRMark((DateAndTime) field_42_dttmRMark.clone());
+            if (field_43_dttmRMarkDel != null)
+                cp.setDttmRMarkDel((DateAndTime) field_43_dttmRMarkDel.clone());
+            if (field_53_dttmPropRMark != null)
+                cp.setDttmPropRMark((DateAndTime) field_53_dttmPropRMark.clone());
+            if (field_61_dttmDispFldRMark != null)
+                cp.setDttmDispFldRMark((DateAndTime) field_61_dttmDispFldRMark
+                        .clone());
+            if (field_62_xstDispFldRMark != null)
+                cp.setXstDispFldRMark(field_62_xstDispFldRMark.clone());
+            if (field_23_shd != null)
+                cp.setShd(field_23_shd.clone());
+            if (field_24_brc != null)
+                cp.setBrc((BorderCode) field_24_brc.clone());
 
             return cp;
         } catch (CloneNotSupportedException exc) {
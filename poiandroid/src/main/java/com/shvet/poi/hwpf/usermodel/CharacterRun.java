@@ -85,6 +85,12 @@ public final class CharacterRun extends Range implements Cloneable,
     protected SprmBuffer _chpx;
     protected CharacterProperties _props;
 
+    /**
+     * <tt>true</tt> if {@link #_props} are shared with other runs and shall be
+     * copied before change
+     */
+    private boolean _propsShared;
+
     /**
      * @param chpx   The chpx this object is based on.
      * @param ss     The stylesheet for the document this run belongs to.
@@ -94,7 +100,8 @@ public final class CharacterRun extends Range implements Cloneable,
     CharacterRun(CHPX chpx, StyleSheet ss, short istd, Range parent) {
         super(Math.max(parent._start, chpx.getStart()), Math.min(parent._end,
                 chpx.getEnd()), parent);
-        _props = chpx.getCharacterProperties(ss, istd);
+        _props = chpx.getSharedCharacterProperties(ss, istd);
+        _propsShared = true;
         _chpx = chpx.getSprmBuf();
         _istd = istd;
     }
@@ -108,12 +115,20 @@ public final class CharacterRun extends Range implements Cloneable,
         return TYPE_CHARACTER;
     }
 
+    private CharacterProperties getWritableProperties() {
+        if (_propsShared) {
+            _props = _props.clone();
+            _propsShared = false;
+        }
+        return _props;
+    }
+
     public boolean isMarkedDeleted() {
         return _props.isFRMarkDel();
     }
 
     public void markDeleted(boolean mark) {
-        _props.setFRMarkDel(mark);
+        getWritableProperties().setFRMarkDel(mark);
 
         byte newVal = (byte) (mark ? 1 : 0);
         _chpx.updateSprm(SPRM_FRMARKDEL, newVal);
@@ -125,7 +140,7 @@ public final class CharacterRun extends Range implements Cloneable,
     }
 
     public void setBold(boolean bold) {
-        _props.setFBold(bold);
+        getWritableProperties().setFBold(bold);
 
         byte newVal = (byte) (bold ? 1 : 0);
         _chpx.updateSprm(SPRM_FBOLD, newVal);
@@ -137,7 +152,7 @@ public final class CharacterRun extends Range implements Cloneable,
     }
 
     public void setItalic(boolean italic) {
-        _props.setFItalic(italic);
+        getWritableProperties().setFItalic(italic);
 
         byte newVal = (byte) (italic ? 1 : 0);
         _chpx.updateSprm(SPRM_FITALIC, newVal);
@@ -149,7 +164,7 @@ public final class CharacterRun extends Range implements Cloneable,
     }
 
     public void setOutline(boolean outlined) {
-        _props.setFOutline(outlined);
+        getWritableProperties().setFOutline(outlined);
 
         byte newVal = (byte) (outlined ? 1 : 0);
         _chpx.updateSprm(SPRM_FOUTLINE, newVal);
@@ -161,7 +176,7 @@ public final class CharacterRun extends Range implements Cloneable,
     }
 
     public void setFldVanish(boolean fldVanish) {
-        _props.setFFldVanish(fldVanish);
+        getWritableProperties().setFFldVanish(fldVanish);
 
         byte newVal = (byte) (fldVanish ? 1 : 0);
         _chpx.updateSprm(SPRM_FFLDVANISH, newVal);
@@ -173,7 +188,7 @@ public final class CharacterRun extends Range implements Cloneable,
     }
 
     public void setSmallCaps(boolean smallCaps) {
-        _props.setFSmallCaps(smallCaps);
+        getWritableProperties().setFSmallCaps(smallCaps);
 
         byte newVal = (byte) (smallCaps ? 1 : 0);
         _chpx.updateSprm(SPRM_FSMALLCAPS, newVal);
@@ -185,7 +200,7 @@ public final class CharacterRun extends Range implements Cloneable,
     }
 
     public void setCapitalized(boolean caps) {
-        _props.setFCaps(caps);
+        getWritableProperties().setFCaps(caps);
 
         byte newVal = (byte) (caps ? 1 : 0);
         _chpx.updateSprm(SPRM_FCAPS, newVal);
@@ -197,7 +212,7 @@ public final class CharacterRun extends Range implements Cloneable,
     }
 
     public void setVanished(boolean vanish) {
-        _props.setFVanish(vanish);
+        getWritableProperties().setFVanish(vanish);
 
         byte newVal = (byte) (vanish ? 1 : 0);
         _chpx.updateSprm(SPRM_FVANISH, newVal);
@@ -209,7 +224,7 @@ public final class CharacterRun extends Range implements Cloneable,
     }
 
     public void markInserted(boolean mark) {
-        _props.setFRMark(mark);
+        getWritableProperties().setFRMark(mark);
 
         byte newVal = (byte) (mark ? 1 : 0);
         _chpx.updateSprm(SPRM_FRMARK, newVal);
@@ -225,7 +240,7 @@ public final class CharacterRun extends Range implements Cloneable,
     }
 
     public void strikeThrough(boolean strike) {
-        _props.setFStrike(strike);
+        getWritableProperties().setFStrike(strike);
 
         byte newVal = (byte) (strike ? 1 : 0);
         _chpx.updateSprm(SPRM_FSTRIKE, newVal);
@@ -237,7 +252,7 @@ public final class CharacterRun extends Range implements Cloneable,
     }
 
     public void setShadow(boolean shadow) {
-        _props.setFShadow(shadow);
+        getWritableProperties().setFShadow(shadow);
 
         byte newVal = (byte) (shadow ? 1 : 0);
         _chpx.updateSprm(SPRM_FSHADOW, newVal);
@@ -249,7 +264,7 @@ public final class CharacterRun extends Range implements Cloneable,
     }
 
     public void setEmbossed(boolean emboss) {
-        _props.setFEmboss(emboss);
+        getWritableProperties().setFEmboss(emboss);
 
         byte newVal = (byte) (emboss ? 1 : 0);
         _chpx.updateSprm(SPRM_FEMBOSS, newVal);
@@ -261,7 +276,7 @@ public final class CharacterRun extends Range implements Cloneable,
     }
 
     public void setImprinted(boolean imprint) {
-        _props.setFImprint(imprint);
+        getWritableProperties().setFImprint(imprint);
 
         byte newVal = (byte) (imprint ? 1 : 0);
         _chpx.updateSprm(SPRM_FIMPRINT, newVal);
@@ -273,7 +288,7 @@ public final class CharacterRun extends Range implements Cloneable,
     }
 
     public void setDoubleStrikethrough(boolean dstrike) {
-        _props.setFDStrike(dstrike);
+        getWritableProperties().setFDStrike(dstrike);
 
         byte newVal = (byte) (dstrike ? 1 : 0);
         _chpx.updateSprm(SPRM_FDSTRIKE, newVal);
@@ -281,21 +296,21 @@ public final class CharacterRun extends Range implements Cloneable,
     }
 
     public void setFtcAscii(int ftcAscii) {
-        _props.setFtcAscii(ftcAscii);
+        getWritableProperties().setFtcAscii(ftcAscii);
 
         _chpx.updateSprm(SPRM_RGFTCASCII, (short) ftcAscii);
 
     }
 
     public void setFtcFE(int ftcFE) {
-        _props.setFtcFE(ftcFE);
+        getWritableProperties().setFtcFE(ftcFE);
 
         _chpx.updateSprm(SPRM_RGFTCFAREAST, (short) ftcFE);
 
     }
 
     public void setFtcOther(int ftcOther) {
-        _props.setFtcOther(ftcOther);
+        getWritableProperties().setFtcOther(ftcOther);
 
         _chpx.updateSprm(SPRM_RGFTCNOTFAREAST, (short) ftcOther);
 
@@ -306,7 +321,7 @@ public final class CharacterRun extends Range implements Cloneable,
     }
 
     public void setFontSize(int halfPoints) {
-        _props.setHps(halfPoints);
+        getWritableProperties().setHps(halfPoints);
 
         _chpx.updateSprm(SPRM_HPS, (short) halfPoints);
 
@@ -317,7 +332,7 @@ public final class CharacterRun extends Range implements Cloneable,
     }
 
     public void setCharacterSpacing(int twips) {
-        _props.setDxaSpace(twips);
+        getWritableProperties().setDxaSpace(twips);
 
         _chpx.updateSprm(SPRM_DXASPACE, twips);
 
@@ -328,7 +343,7 @@ public final class CharacterRun extends Range implements Cloneable,
     }
 
     public void setSubSuperScriptIndex(short iss) {
-        _props.setDxaSpace(iss);
+        getWritableProperties().setDxaSpace(iss);
 
         _chpx.updateSprm(SPRM_DXASPACE, iss);
 
@@ -339,7 +354,7 @@ public final class CharacterRun extends Range implements Cloneable,
     }
 
     public void setUnderlineCode(int kul) {
-        _props.setKul((byte) kul);
+        getWritableProperties().setKul((byte) kul);
         _chpx.updateSprm(SPRM_KUL, (byte) kul);
     }
 
@@ -348,7 +363,7 @@ public final class CharacterRun extends Range implements Cloneable,
     }
 
     public void setColor(int color) {
-        _props.setIco((byte) color);
+        getWritableProperties().setIco((byte) color);
         _chpx.updateSprm(SPRM_ICO, (byte) color);
     }
 
@@ -357,7 +372,7 @@ public final class CharacterRun extends Range implements Cloneable,
     }
 
     public void setVerticalOffset(int hpsPos) {
-        _props.setHpsPos((short) hpsPos);
+        getWritableProperties().setHpsPos((short) hpsPos);
         _chpx.updateSprm(SPRM_HPSPOS, (byte) hpsPos);
     }
 
@@ -366,7 +381,7 @@ public final class CharacterRun extends Range implements Cloneable,
     }
 
     public void setKerning(int kern) {
-        _props.setHpsKern(kern);
+        getWritableProperties().setHpsKern(kern);
         _chpx.updateSprm(SPRM_HPSKERN, (short) kern);
     }
 
@@ -375,8 +390,8 @@ public final class CharacterRun extends Range implements Cloneable,
     }
 
     public void setHighlighted(byte color) {
-        _props.setFHighlight(true);
-        _props.setIcoHighlight(color);
+        getWritableProperties().setFHighlight(true);
+        getWritableProperties().setIcoHighlight(color);
         _chpx.updateSprm(SPRM_HIGHLIGHT, color);
     }
 
@@ -397,7 +412,7 @@ public final class CharacterRun extends Range implements Cloneable,
     }
 
     public void setSpecialCharacter(boolean spec) {
-        _props.setFSpec(spec);
+        getWritableProperties().setFSpec(spec);
 
         byte newVal = (byte) (spec ? 1 : 0);
         _chpx.updateSprm(SPRM_FSPEC, newVal);
@@ -408,7 +423,7 @@ public final class CharacterRun extends Range implements Cloneable,
     }
 
     public void setObj(boolean obj) {
-        _props.setFObj(obj);
+        getWritableProperties().setFObj(obj);
 
         byte newVal = (byte) (obj ? 1 : 0);
         _chpx.updateSprm(SPRM_FOBJ, newVal);
@@ -419,7 +434,7 @@ public final class CharacterRun extends Range implements Cloneable,
     }
 
     public void setPicOffset(int offset) {
-        _props.setFcPic(offset);
+        getWritableProperties().setFcPic(offset);
         _chpx.updateSprm(SPRM_PICLOCATION, offset);
     }
 
@@ -433,7 +448,7 @@ public final class CharacterRun extends Range implements Cloneable,
     }
 
     public void setData(boolean data) {
-        _props.setFData(data);
+        getWritableProperties().setFData(data);
 
         byte newVal = (byte) (data ? 1 : 0);
         _chpx.updateSprm(SPRM_FOBJ, newVal);
@@ -444,7 +459,7 @@ public final class CharacterRun extends Range implements Cloneable,
     }
 
     public void setOle2(boolean ole) {
-        _props.setFOle2(ole);
+        getWritableProperties().setFOle2(ole);
 
         byte newVal = (byte) (ole ? 1 : 0);
         _chpx.updateSprm(SPRM_FOBJ, newVal);
@@ -455,7 +470,7 @@ public final class CharacterRun extends Range implements Cloneable,
     }
 
     public void setObjOffset(int obj) {
-        _props.setFcObj(obj);
+        getWritableProperties().setFcObj(obj);
         _chpx.updateSprm(SPRM_OBJLOCATION, obj);
     }
 
@@ -470,7 +485,7 @@ public final class CharacterRun extends Range implements Cloneable,
      * Set the ico24 field for the CHP record.
      */
     public void setIco24(int colour24) {
-        _props.setIco24(colour24);
+        getWritableProperties().setIco24(colour24);
     }
 
     /**
@@ -493,15 +508,8 @@ public final class CharacterRun extends Range implements Cloneable,
      */
     public Object clone() throws CloneNotSupportedException {
         CharacterRun cp = (CharacterRun) super.clone();
-        cp._props.setDttmRMark((DateAndTime) _props.getDttmRMark().clone());
-        cp._props.setDttmRMarkDel((DateAndTime) _props.getDttmRMarkDel()
-                .clone());
-        cp._props.setDttmPropRMark((DateAndTime) _props.getDttmPropRMark()
-                .clone());
-        cp._props.setDttmDispFldRMark((DateAndTime) _props
-                .getDttmDispFldRMark().clone());
-        cp._props.setXstDispFldRMark(_props.getXstDispFldRMark().clone());
-        cp._props.setShd(_props.getShd().clone());
+        cp._props = _props.clone();
+        cp._propsShared = false;
 
         return cp;
     }
@@ -560,7 +568,8 @@ public final class CharacterRun extends Range implements Cloneable,
     }
 
     public BorderCode getBorder() {
-        return _props.getBrc();
+        // border code is mutable, don't expose shared one
+        return getWritableProperties().getBrc();
     }
 
     public int getLanguageCode() {
@@ -19,6 +19,7 @@ package com.shvet.poi.hwpf.usermodel;
 import com.shvet.poi.hwpf.model.FieldsDocumentPart;
 
 import java.util.Collection;
+import java.util.List;
 
 /**
  * User-friendly interface to access document {@link Field}s
@@ -29,4 +30,17 @@ public interface Fields {
     Field getFieldByStartOffset(FieldsDocumentPart documentPart, int offset);
 
     Collection<Field> getFields(FieldsDocumentPart part);
+
+    /**
+     * @return fields of document part containing the specified character
+     * position, outer fields first
+     */
+    List<Field> getFieldsContaining(FieldsDocumentPart part, int offset);
+
+    /**
+     * @return fields of document part overlapping specified range, sorted by
+     * start position (outer fields first for the same start)
+     */
+    List<Field> getFieldsOverlapping(FieldsDocumentPart part,
+                                     int startInclusive, int endExclusive);
 }
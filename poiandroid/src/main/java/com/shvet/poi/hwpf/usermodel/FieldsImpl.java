@@ -38,6 +38,7 @@ import java.util.Map;
 @Internal
 public class FieldsImpl implements Fields {
     private Map<FieldsDocumentPart, Map<Integer, FieldImpl>> _fieldsByOffset;
+    private Map<FieldsDocumentPart, IntervalIndex<Field>> _fieldsIndexes = new HashMap<FieldsDocumentPart, IntervalIndex<Field>>();
     private PlexOfFieldComparator comparator = new PlexOfFieldComparator();
 
     public FieldsImpl(FieldsTables fieldsTables) {
@@ -109,6 +110,36 @@ public class FieldsImpl implements Fields {
         return map.get(Integer.valueOf(offset));
     }
 
+    public List<Field> getFieldsContaining(FieldsDocumentPart part, int offset) {
+        return getFieldsIndex(part).findContaining(offset);
+    }
+
+    public List<Field> getFieldsOverlapping(FieldsDocumentPart part,
+                                            int startInclusive, int endExclusive) {
+        return getFieldsIndex(part).findOverlapping(startInclusive,
+                endExclusive);
+    }
+
+    private IntervalIndex<Field> getFieldsIndex(FieldsDocumentPart part) {
+        IntervalIndex<Field> index = _fieldsIndexes.get(part);
+        if (index == null) {
+            Map<Integer, FieldImpl> map = _fieldsByOffset.get(part);
+            List<Field> fields = map == null ? Collections.<Field>emptyList()
+                    : new ArrayList<Field>(map.values());
+
+            int[] starts = new int[fields.size()];
+            int[] ends = new int[fields.size()];
+            for (int i = 0; i < starts.length; i++) {
+                Field field = fields.get(i);
+                starts[i] = field.getFieldStartOffset();
+                ends[i] = field.getFieldEndOffset();
+            }
+            index = new IntervalIndex<Field>(starts, ends, fields);
+            _fieldsIndexes.put(part, index);
+        }
+        return index;
+    }
+
     private Map<Integer, FieldImpl> parseFieldStructure(
             List<PlexOfField> plexOfFields) {
         if (plexOfFields == null || plexOfFields.isEmpty())
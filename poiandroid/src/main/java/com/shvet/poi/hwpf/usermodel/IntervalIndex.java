@@ -0,0 +1,141 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package com.shvet.poi.hwpf.usermodel;
+
+import com.shvet.poi.util.Internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Static interval tree of character position ranges <tt>[start; end)</tt>.
+ * Intervals are kept sorted by start in arrays, and implicit balanced tree
+ * over them stores maximum end of every subtree, so both stabbing and overlap
+ * queries visit only <tt>O((k + 1) log n)</tt> nodes for <tt>k</tt> found
+ * intervals, instead of all of them. Empty intervals are never found.
+ *
+ * @param <T> type of objects attached to intervals
+ */
+@Internal
+final class IntervalIndex<T> {
+    private final int[] _starts;
+    private final int[] _ends;
+    private final Object[] _values;
+
+    /**
+     * Maximum end of intervals of subtree with root in the given index
+     */
+    private final int[] _maxEnds;
+
+    IntervalIndex(int[] starts, int[] ends, List<? extends T> values) {
+        final int size = values.size();
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = Integer.valueOf(i);
+        }
+        final int[] unsortedStarts = starts;
+        final int[] unsortedEnds = ends;
+        // outer intervals first for equal starts
+        Arrays.sort(order, new Comparator<Integer>() {
+            public int compare(Integer o1, Integer o2) {
+                int i1 = o1.intValue(), i2 = o2.intValue();
+                if (unsortedStarts[i1] != unsortedStarts[i2])
+                    return unsortedStarts[i1] < unsortedStarts[i2] ? -1 : 1;
+                if (unsortedEnds[i1] != unsortedEnds[i2])
+                    return unsortedEnds[i1] > unsortedEnds[i2] ? -1 : 1;
+                return i1 < i2 ? -1 : (i1 == i2 ? 0 : 1);
+            }
+        });
+
+        _starts = new int[size];
+        _ends = new int[size];
+        _values = new Object[size];
+        for (int i = 0; i < size; i++) {
+            int index = order[i].intValue();
+            _starts[i] = starts[index];
+            _ends[i] = ends[index];
+            _values[i] = values.get(index);
+        }
+
+        _maxEnds = new int[size];
+        fillMaxEnds(0, size);
+    }
+
+    private int fillMaxEnds(int low, int high) {
+        if (low >= high)
+            return Integer.MIN_VALUE;
+
+        int mid = (low + high) >>> 1;
+        int maxEnd = Math.max(_ends[mid],
+                Math.max(fillMaxEnds(low, mid), fillMaxEnds(mid + 1, high)));
+        _maxEnds[mid] = maxEnd;
+        return maxEnd;
+    }
+
+    int size() {
+        return _values.length;
+    }
+
+    /**
+     * @return values of intervals containing the given position, ordered by
+     * interval start (outer intervals first)
+     */
+    List<T> findContaining(int position) {
+        return findOverlapping(position, position + 1);
+    }
+
+    /**
+     * @return values of intervals overlapping the given range, ordered by
+     * interval start (outer intervals first)
+     */
+    List<T> findOverlapping(int startInclusive, int endExclusive) {
+        if (startInclusive >= endExclusive || _values.length == 0)
+            return Collections.emptyList();
+
+        List<T> result = new ArrayList<T>();
+        findOverlapping(0, _values.length, startInclusive, endExclusive,
+                result);
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void findOverlapping(int low, int high, int startInclusive,
+                                 int endExclusive, List<T> result) {
+        if (low >= high)
+            return;
+
+        int mid = (low + high) >>> 1;
+        // nothing in subtree ends after range start
+        if (_maxEnds[mid] <= startInclusive)
+            return;
+
+        findOverlapping(low, mid, startInclusive, endExclusive, result);
+
+        // nodes on the right start even later
+        if (_starts[mid] >= endExclusive)
+            return;
+
+        if (_ends[mid] > startInclusive && _starts[mid] < _ends[mid])
+            result.add((T) _values[mid]);
+
+        findOverlapping(mid + 1, high, startInclusive, endExclusive, result);
+    }
+}
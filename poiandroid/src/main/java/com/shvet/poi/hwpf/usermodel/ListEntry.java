@@ -32,6 +32,14 @@ public final class ListEntry extends Paragraph {
         super(papx, parent);
     }
 
+    /**
+     * @return number label of this list entry (like <tt>1.2.a</tt>), see
+     * {@link ListNumbering}
+     */
+    public String getListLabel() {
+        return _doc.getListNumbering().getLabel(this);
+    }
+
     @Deprecated
     public int type() {
         return TYPE_LISTENTRY;
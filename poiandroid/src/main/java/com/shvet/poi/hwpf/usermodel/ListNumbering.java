@@ -0,0 +1,337 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package com.shvet.poi.hwpf.usermodel;
+
+import com.shvet.poi.hwpf.HWPFDocumentCore;
+import com.shvet.poi.hwpf.model.LFO;
+import com.shvet.poi.hwpf.model.LFOData;
+import com.shvet.poi.hwpf.model.ListData;
+import com.shvet.poi.hwpf.model.ListFormatOverrideLevel;
+import com.shvet.poi.hwpf.model.ListLevel;
+import com.shvet.poi.hwpf.model.ListTables;
+import com.shvet.poi.hwpf.model.PAPX;
+import com.shvet.poi.util.POILogFactory;
+import com.shvet.poi.util.POILogger;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Number labels (like <tt>1.2.a</tt>) of document list paragraphs, computed
+ * for all paragraphs in one forward pass over paragraph properties. Every
+ * list (lsid) keeps its own counters of all 9 levels, which are restarted
+ * according to level restart rules and LFO start-at overrides.
+ * <p>
+ * Numbering is built once per document, see
+ * {@link HWPFDocumentCore#getListNumbering()}, and built again after
+ * document text is changed.
+ */
+public final class ListNumbering {
+    private static final POILogger logger = POILogFactory
+            .getLogger(ListNumbering.class);
+
+    private static final int LEVELS = 9;
+
+    private static final int NFC_ARABIC = 0x00;
+    private static final int NFC_UPPER_ROMAN = 0x01;
+    private static final int NFC_LOWER_ROMAN = 0x02;
+    private static final int NFC_UPPER_LETTER = 0x03;
+    private static final int NFC_LOWER_LETTER = 0x04;
+    private static final int NFC_ORDINAL = 0x05;
+    private static final int NFC_ARABIC_LZ = 0x16;
+    private static final int NFC_BULLET = 0x17;
+    private static final int NFC_NONE = 0xFF;
+
+    private static final String[] ROMAN_DIGITS = {"m", "cm", "d", "cd", "c",
+            "xc", "l", "xl", "x", "ix", "v", "iv", "i"};
+    private static final int[] ROMAN_VALUES = {1000, 900, 500, 400, 100, 90,
+            50, 40, 10, 9, 5, 4, 1};
+
+    /**
+     * Labels by paragraph (PAPX) index, <tt>null</tt> for paragraphs not in
+     * list
+     */
+    private final String[] _labels;
+
+    /**
+     * Paragraphs start positions, for lookup by character position
+     */
+    private final int[] _starts;
+
+    /**
+     * Counters of one list
+     */
+    private static final class Counters {
+        final int[] numbers = new int[LEVELS];
+        final boolean[] started = new boolean[LEVELS];
+    }
+
+    public ListNumbering(HWPFDocumentCore doc) {
+        List<PAPX> paragraphs = doc.getParagraphTable().getParagraphs();
+        final int size = paragraphs.size();
+        _labels = new String[size];
+        _starts = new int[size];
+
+        ListTables listTables = doc.getListTables();
+        Map<Integer, Counters> lists = new HashMap<Integer, Counters>();
+        // LFO start-at overrides are applied once, by (ilfo, level)
+        Set<Integer> appliedOverrides = new HashSet<Integer>();
+
+        for (int i = 0; i < size; i++) {
+            PAPX papx = paragraphs.get(i);
+            _starts[i] = papx.getStart();
+            if (listTables == null)
+                continue;
+
+            ParagraphProperties props = Paragraph.getSharedProperties(doc,
+                    papx);
+            final int ilfo = props.getIlfo();
+            final int ilvl = props.getIlvl();
+            if (ilfo <= 0 || ilvl < 0 || ilvl >= LEVELS)
+                continue;
+
+            LFO lfo;
+            LFOData lfoData;
+            try {
+                lfo = listTables.getLfo(ilfo);
+                lfoData = listTables.getLfoData(ilfo);
+            } catch (NoSuchElementException exc) {
+                logger.log(POILogger.WARN, "Paragraph refers to LFO #",
+                        Integer.valueOf(ilfo), " that does not exists");
+                continue;
+            }
+            ListData listData = listTables.getListData(lfo.getLsid());
+            if (listData == null)
+                continue;
+
+            ListLevel[] levels = getLevels(listData, lfoData);
+            if (levels[ilvl] == null)
+                continue;
+
+            Integer lsid = Integer.valueOf(lfo.getLsid());
+            Counters counters = lists.get(lsid);
+            if (counters == null) {
+                counters = new Counters();
+                lists.put(lsid, counters);
+            }
+
+            ListFormatOverrideLevel override = getOverride(lfoData, ilvl);
+            Integer overrideKey = Integer.valueOf(ilfo * LEVELS + ilvl);
+            if (override != null && override.isStartAt()
+                    && appliedOverrides.add(overrideKey)) {
+                counters.numbers[ilvl] = override.getIStartAt();
+                counters.started[ilvl] = true;
+            } else if (counters.started[ilvl]) {
+                counters.numbers[ilvl]++;
+            } else {
+                counters.numbers[ilvl] = levels[ilvl].getStartAt();
+                counters.started[ilvl] = true;
+            }
+
+            // restart less significant levels
+            for (int level = ilvl + 1; level < LEVELS; level++) {
+                ListLevel listLevel = levels[level];
+                if (listLevel == null)
+                    continue;
+                int restart = listLevel.getRestart();
+                if (restart == -1 || ilvl < restart)
+                    counters.started[level] = false;
+            }
+
+            _labels[i] = formatLabel(levels, ilvl, counters);
+        }
+    }
+
+    /**
+     * @return levels of list with LFO formatting overrides applied
+     */
+    private static ListLevel[] getLevels(ListData listData, LFOData lfoData) {
+        ListLevel[] levels = new ListLevel[LEVELS];
+        for (int level = 0; level < LEVELS && level < listData.numLevels(); level++) {
+            levels[level] = listData.getLevel(level);
+        }
+        if (lfoData != null) {
+            for (ListFormatOverrideLevel override : lfoData.getRgLfoLvl()) {
+                int level = override.getLevelNum();
+                if (override.isFormatting() && override.getLevel() != null
+                        && level >= 0 && level < LEVELS)
+                    levels[level] = override.getLevel();
+            }
+        }
+        return levels;
+    }
+
+    private static ListFormatOverrideLevel getOverride(LFOData lfoData,
+                                                       int level) {
+        if (lfoData == null)
+            return null;
+        for (ListFormatOverrideLevel override : lfoData.getRgLfoLvl()) {
+            if (override.getLevelNum() == level)
+                return override;
+        }
+        return null;
+    }
+
+    private static String formatLabel(ListLevel[] levels, int ilvl,
+                                      Counters counters) {
+        ListLevel level = levels[ilvl];
+        String numberText = level.getNumberText();
+        if (numberText == null)
+            return "";
+        if (level.getNumberFormat() == NFC_BULLET)
+            return numberText;
+
+        final boolean legal = level.isLegalNumbering();
+        StringBuilder label = new StringBuilder(numberText.length() + 8);
+        for (int i = 0; i < numberText.length(); i++) {
+            char c = numberText.charAt(i);
+            if (c >= LEVELS) {
+                label.append(c);
+                continue;
+            }
+
+            // placeholder of level number
+            ListLevel placeholderLevel = levels[c];
+            int number;
+            int format;
+            if (placeholderLevel == null) {
+                number = counters.numbers[c];
+                format = NFC_ARABIC;
+            } else {
+                number = counters.started[c] || c == ilvl ? counters.numbers[c]
+                        : placeholderLevel.getStartAt();
+                format = placeholderLevel.getNumberFormat();
+            }
+            if (legal && format != NFC_ARABIC_LZ)
+                format = NFC_ARABIC;
+            formatNumber(label, number, format);
+        }
+        return label.toString();
+    }
+
+    private static void formatNumber(StringBuilder out, int number, int format) {
+        switch (format) {
+            case NFC_UPPER_ROMAN:
+            case NFC_LOWER_ROMAN:
+                if (number <= 0 || number >= 4000) {
+                    out.append(number);
+                    break;
+                }
+                int start = out.length();
+                for (int i = 0; i < ROMAN_VALUES.length; i++) {
+                    while (number >= ROMAN_VALUES[i]) {
+                        out.append(ROMAN_DIGITS[i]);
+                        number -= ROMAN_VALUES[i];
+                    }
+                }
+                if (format == NFC_UPPER_ROMAN) {
+                    for (int i = start; i < out.length(); i++) {
+                        out.setCharAt(i, Character.toUpperCase(out.charAt(i)));
+                    }
+                }
+                break;
+            case NFC_UPPER_LETTER:
+            case NFC_LOWER_LETTER:
+                if (number <= 0) {
+                    out.append(number);
+                    break;
+                }
+                // a..z, then aa..zz, and so on
+                char letter = (char) ((format == NFC_UPPER_LETTER ? 'A' : 'a')
+                        + (number - 1) % 26);
+                for (int i = (number - 1) / 26; i >= 0; i--) {
+                    out.append(letter);
+                }
+                break;
+            case NFC_ORDINAL:
+                out.append(number);
+                int tens = number % 100;
+                if (tens >= 11 && tens <= 13)
+                    out.append("th");
+                else if (number % 10 == 1)
+                    out.append("st");
+                else if (number % 10 == 2)
+                    out.append("nd");
+                else if (number % 10 == 3)
+                    out.append("rd");
+                else
+                    out.append("th");
+                break;
+            case NFC_ARABIC_LZ:
+                if (number >= 0 && number < 10)
+                    out.append('0');
+                out.append(number);
+                break;
+            case NFC_NONE:
+                break;
+            case NFC_ARABIC:
+            default:
+                out.append(number);
+                break;
+        }
+    }
+
+    /**
+     * @return number of document paragraphs this numbering was built for
+     */
+    public int size() {
+        return _labels.length;
+    }
+
+    /**
+     * @param paragraphIndex index of paragraph in document paragraph table
+     * @return label of paragraph, or <tt>null</tt> if paragraph is not in
+     * list
+     */
+    public String getLabel(int paragraphIndex) {
+        return _labels[paragraphIndex];
+    }
+
+    /**
+     * @return label of the given paragraph, or <tt>null</tt> if paragraph is
+     * not in list
+     */
+    public String getLabel(Paragraph paragraph) {
+        int index = findParagraph(paragraph.getStartOffset());
+        return index != -1 ? _labels[index] : null;
+    }
+
+    /**
+     * @return index of the paragraph containing the given character position,
+     * or <tt>-1</tt> if there is no such paragraph
+     */
+    private int findParagraph(int cp) {
+        int low = 0;
+        int high = _starts.length - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (_starts[mid] <= cp) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+}
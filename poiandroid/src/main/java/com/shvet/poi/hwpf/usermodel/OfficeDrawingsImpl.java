@@ -25,7 +25,6 @@ import com.shvet.poi.ddf.EscherProperties;
 import com.shvet.poi.ddf.EscherRecord;
 import com.shvet.poi.ddf.EscherRecordFactory;
 import com.shvet.poi.ddf.EscherSimpleProperty;
-import com.shvet.poi.ddf.EscherSpRecord;
 import com.shvet.poi.ddf.EscherTertiaryOptRecord;
 import com.shvet.poi.hwpf.model.EscherRecordHolder;
 import com.shvet.poi.hwpf.model.FSPA;
@@ -96,16 +95,7 @@ public class OfficeDrawingsImpl implements OfficeDrawings {
 
     private EscherContainerRecord getEscherShapeRecordContainer(
             final int shapeId) {
-        for (EscherContainerRecord spContainer : _escherRecordHolder
-                .getSpContainers()) {
-            EscherSpRecord escherSpRecord = spContainer
-                    .getChildById((short) 0xF00A);
-            if (escherSpRecord != null
-                    && escherSpRecord.getShapeId() == shapeId)
-                return spContainer;
-        }
-
-        return null;
+        return _escherRecordHolder.getSpContainer(shapeId);
     }
 
     private OfficeDrawing getOfficeDrawing(final FSPA fspa) {
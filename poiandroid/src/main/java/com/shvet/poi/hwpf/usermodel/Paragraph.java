@@ -22,6 +22,7 @@ import com.shvet.poi.hwpf.model.LFO;
 import com.shvet.poi.hwpf.model.ListLevel;
 import com.shvet.poi.hwpf.model.ListTables;
 import com.shvet.poi.hwpf.model.PAPX;
+import com.shvet.poi.hwpf.model.PropertiesCache;
 import com.shvet.poi.hwpf.model.StyleSheet;
 import com.shvet.poi.hwpf.sprm.ParagraphSprmUncompressor;
 import com.shvet.poi.hwpf.sprm.SprmBuffer;
@@ -95,6 +96,12 @@ public class Paragraph extends Range implements Cloneable {
     protected ParagraphProperties _props;
     protected SprmBuffer _papx;
 
+    /**
+     * <tt>true</tt> if {@link #_props} are shared with other paragraphs and
+     * shall be copied before change
+     */
+    private boolean _propsShared;
+
     @Deprecated
     protected Paragraph(int startIdxInclusive, int endIdxExclusive, Table parent) {
         super(startIdxInclusive, endIdxExclusive, parent);
@@ -124,26 +131,63 @@ public class Paragraph extends Range implements Cloneable {
         _istd = papx.getIstd();
     }
 
+    /**
+     * @param properties resolved paragraph properties, treated as shared and
+     *                   copied before change
+     */
     @Internal
     Paragraph(PAPX papx, ParagraphProperties properties, Range parent) {
         super(Math.max(parent._start, papx.getStart()), Math.min(parent._end,
                 papx.getEnd()), parent);
         _props = properties;
+        _propsShared = true;
         _papx = papx.getSprmBuf();
         _istd = papx.getIstd();
     }
 
     @Internal
     static Paragraph newParagraph(Range parent, PAPX papx) {
-        HWPFDocumentCore doc = parent._doc;
-        ListTables listTables = doc.getListTables();
-        StyleSheet styleSheet = doc.getStyleSheet();
+        ParagraphProperties properties = getSharedProperties(parent._doc, papx);
+        if (properties.getIlfo() > 0)
+            return new ListEntry(papx, properties, parent);
+
+        return new Paragraph(papx, properties, parent);
+    }
 
-        ParagraphProperties properties = new ParagraphProperties();
-        properties.setIstd(papx.getIstd());
+    /**
+     * @return resolved paragraph properties, shared through stylesheet cache
+     * (if any) and so not to be changed
+     */
+    @Internal
+    static ParagraphProperties getSharedProperties(HWPFDocumentCore doc,
+                                                   PAPX papx) {
+        StyleSheet styleSheet = doc.getStyleSheet();
 
-        properties = newParagraph_applyStyleProperties(styleSheet, papx,
-                properties);
+        PropertiesCache<ParagraphProperties> cache = styleSheet != null ? styleSheet
+                .getParagraphPropertiesCache() : null;
+        ParagraphProperties properties = null;
+        if (cache != null)
+            properties = cache.get(papx.getIstd(), papx.getGrpprl());
+
+        if (properties == null) {
+            properties = newParagraph_resolveProperties(doc.getListTables(),
+                    styleSheet, papx);
+            if (cache != null)
+                cache.put(papx.getIstd(), papx.getGrpprl(), properties);
+        }
+        return properties;
+    }
+
+    private static ParagraphProperties newParagraph_resolveProperties(
+            ListTables listTables, StyleSheet styleSheet, PAPX papx) {
+        ParagraphProperties properties;
+        if (styleSheet != null) {
+            // style PAPX is applied once per style, not per paragraph
+            properties = styleSheet.getResolvedParagraphStyle(papx.getIstd());
+        } else {
+            properties = new ParagraphProperties();
+            properties.setIstd(papx.getIstd());
+        }
         properties = ParagraphSprmUncompressor.uncompressPAP(properties,
                 papx.getGrpprl(), 2);
 
@@ -170,11 +214,7 @@ public class Paragraph extends Range implements Cloneable {
                 }
             }
         }
-
-        if (properties.getIlfo() > 0)
-            return new ListEntry(papx, properties, parent);
-
-        return new Paragraph(papx, properties, parent);
+        return properties;
     }
 
     protected static ParagraphProperties newParagraph_applyStyleProperties(
@@ -201,6 +241,52 @@ public class Paragraph extends Range implements Cloneable {
         return TYPE_PARAGRAPH;
     }
 
+    private ParagraphProperties getWritableProperties() {
+        if (_propsShared) {
+            _props = cloneProperties();
+            _propsShared = false;
+        }
+        return _props;
+    }
+
+    /*
+     * Read-only getters return copies of shared objects, so properties are not
+     * cloned as a whole just to be read
+     */
+    private BorderCode copyIfShared(BorderCode brc) {
+        if (!_propsShared)
+            return brc;
+        try {
+            return (BorderCode) brc.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private LineSpacingDescriptor copyIfShared(LineSpacingDescriptor lspd) {
+        if (!_propsShared)
+            return lspd;
+        try {
+            return (LineSpacingDescriptor) lspd.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private ShadingDescriptor copyIfShared(ShadingDescriptor shd) {
+        if (!_propsShared)
+            return shd;
+        try {
+            return shd.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private DropCapSpecifier copyIfShared(DropCapSpecifier dcs) {
+        return _propsShared ? dcs.clone() : dcs;
+    }
+
     public boolean isInTable() {
         return _props.getFInTable();
     }
@@ -220,7 +306,7 @@ public class Paragraph extends Range implements Cloneable {
     }
 
     private void setTableRowEnd(boolean val) {
-        _props.setFTtp(val);
+        getWritableProperties().setFTtp(val);
         _papx.updateSprm(SPRM_FTTP, val);
     }
 
@@ -241,7 +327,7 @@ public class Paragraph extends Range implements Cloneable {
     }
 
     public void setJustification(byte jc) {
-        _props.setJc(jc);
+        getWritableProperties().setJc(jc);
         _papx.updateSprm(SPRM_JC, jc);
     }
 
@@ -250,7 +336,7 @@ public class Paragraph extends Range implements Cloneable {
     }
 
     public void setKeepOnPage(boolean fKeep) {
-        _props.setFKeep(fKeep);
+        getWritableProperties().setFKeep(fKeep);
         _papx.updateSprm(SPRM_FKEEP, fKeep);
     }
 
@@ -259,7 +345,7 @@ public class Paragraph extends Range implements Cloneable {
     }
 
     public void setKeepWithNext(boolean fKeepFollow) {
-        _props.setFKeepFollow(fKeepFollow);
+        getWritableProperties().setFKeepFollow(fKeepFollow);
         _papx.updateSprm(SPRM_FKEEPFOLLOW, fKeepFollow);
     }
 
@@ -268,7 +354,7 @@ public class Paragraph extends Range implements Cloneable {
     }
 
     public void setPageBreakBefore(boolean fPageBreak) {
-        _props.setFPageBreakBefore(fPageBreak);
+        getWritableProperties().setFPageBreakBefore(fPageBreak);
         _papx.updateSprm(SPRM_FPAGEBREAKBEFORE, fPageBreak);
     }
 
@@ -277,7 +363,7 @@ public class Paragraph extends Range implements Cloneable {
     }
 
     public void setLineNotNumbered(boolean fNoLnn) {
-        _props.setFNoLnn(fNoLnn);
+        getWritableProperties().setFNoLnn(fNoLnn);
         _papx.updateSprm(SPRM_FNOLINENUMB, fNoLnn);
     }
 
@@ -286,7 +372,7 @@ public class Paragraph extends Range implements Cloneable {
     }
 
     public void setSideBySide(boolean fSideBySide) {
-        _props.setFSideBySide(fSideBySide);
+        getWritableProperties().setFSideBySide(fSideBySide);
         _papx.updateSprm(SPRM_FSIDEBYSIDE, fSideBySide);
     }
 
@@ -295,7 +381,7 @@ public class Paragraph extends Range implements Cloneable {
     }
 
     public void setAutoHyphenated(boolean autoHyph) {
-        _props.setFNoAutoHyph(!autoHyph);
+        getWritableProperties().setFNoAutoHyph(!autoHyph);
         _papx.updateSprm(SPRM_FNOAUTOHYPH, !autoHyph);
     }
 
@@ -304,7 +390,7 @@ public class Paragraph extends Range implements Cloneable {
     }
 
     public void setWidowControl(boolean widowControl) {
-        _props.setFWidowControl(widowControl);
+        getWritableProperties().setFWidowControl(widowControl);
         _papx.updateSprm(SPRM_FWIDOWCONTROL, widowControl);
     }
 
@@ -313,7 +399,7 @@ public class Paragraph extends Range implements Cloneable {
     }
 
     public void setIndentFromRight(int dxaRight) {
-        _props.setDxaRight(dxaRight);
+        getWritableProperties().setDxaRight(dxaRight);
         _papx.updateSprm(SPRM_DXARIGHT, (short) dxaRight);
     }
 
@@ -322,7 +408,7 @@ public class Paragraph extends Range implements Cloneable {
     }
 
     public void setIndentFromLeft(int dxaLeft) {
-        _props.setDxaLeft(dxaLeft);
+        getWritableProperties().setDxaLeft(dxaLeft);
         _papx.updateSprm(SPRM_DXALEFT, (short) dxaLeft);
     }
 
@@ -331,16 +417,16 @@ public class Paragraph extends Range implements Cloneable {
     }
 
     public void setFirstLineIndent(int first) {
-        _props.setDxaLeft1(first);
+        getWritableProperties().setDxaLeft1(first);
         _papx.updateSprm(SPRM_DXALEFT1, (short) first);
     }
 
     public LineSpacingDescriptor getLineSpacing() {
-        return _props.getLspd();
+        return copyIfShared(_props.getLspd());
     }
 
     public void setLineSpacing(LineSpacingDescriptor lspd) {
-        _props.setLspd(lspd);
+        getWritableProperties().setLspd(lspd);
         _papx.updateSprm(SPRM_DYALINE, lspd.toInt());
     }
 
@@ -349,7 +435,7 @@ public class Paragraph extends Range implements Cloneable {
     }
 
     public void setSpacingBefore(int before) {
-        _props.setDyaBefore(before);
+        getWritableProperties().setDyaBefore(before);
         _papx.updateSprm(SPRM_DYABEFORE, (short) before);
     }
 
@@ -358,7 +444,7 @@ public class Paragraph extends Range implements Cloneable {
     }
 
     public void setSpacingAfter(int after) {
-        _props.setDyaAfter(after);
+        getWritableProperties().setDyaAfter(after);
         _papx.updateSprm(SPRM_DYAAFTER, (short) after);
     }
 
@@ -367,7 +453,7 @@ public class Paragraph extends Range implements Cloneable {
     }
 
     public void setKinsoku(boolean kinsoku) {
-        _props.setFKinsoku(kinsoku);
+        getWritableProperties().setFKinsoku(kinsoku);
         _papx.updateSprm(SPRM_FKINSOKU, kinsoku);
     }
 
@@ -376,7 +462,7 @@ public class Paragraph extends Range implements Cloneable {
     }
 
     public void setWordWrapped(boolean wrap) {
-        _props.setFWordWrap(wrap);
+        getWritableProperties().setFWordWrap(wrap);
         _papx.updateSprm(SPRM_FWORDWRAP, wrap);
     }
 
@@ -385,7 +471,7 @@ public class Paragraph extends Range implements Cloneable {
     }
 
     public void setFontAlignment(int align) {
-        _props.setWAlignFont(align);
+        getWritableProperties().setWAlignFont(align);
         _papx.updateSprm(SPRM_WALIGNFONT, (short) align);
     }
 
@@ -394,7 +480,7 @@ public class Paragraph extends Range implements Cloneable {
     }
 
     public void setVertical(boolean vertical) {
-        _props.setFVertical(vertical);
+        getWritableProperties().setFVertical(vertical);
         _papx.updateSprm(SPRM_FRAMETEXTFLOW, getFrameTextFlow());
     }
 
@@ -403,71 +489,71 @@ public class Paragraph extends Range implements Cloneable {
     }
 
     public void setBackward(boolean bward) {
-        _props.setFBackward(bward);
+        getWritableProperties().setFBackward(bward);
         _papx.updateSprm(SPRM_FRAMETEXTFLOW, getFrameTextFlow());
     }
 
     public BorderCode getTopBorder() {
-        return _props.getBrcTop();
+        return copyIfShared(_props.getBrcTop());
     }
 
     public void setTopBorder(BorderCode top) {
-        _props.setBrcTop(top);
+        getWritableProperties().setBrcTop(top);
         _papx.updateSprm(SPRM_BRCTOP, top.toInt());
     }
 
     public BorderCode getLeftBorder() {
-        return _props.getBrcLeft();
+        return copyIfShared(_props.getBrcLeft());
     }
 
     public void setLeftBorder(BorderCode left) {
-        _props.setBrcLeft(left);
+        getWritableProperties().setBrcLeft(left);
         _papx.updateSprm(SPRM_BRCLEFT, left.toInt());
     }
 
     public BorderCode getBottomBorder() {
-        return _props.getBrcBottom();
+        return copyIfShared(_props.getBrcBottom());
     }
 
     public void setBottomBorder(BorderCode bottom) {
-        _props.setBrcBottom(bottom);
+        getWritableProperties().setBrcBottom(bottom);
         _papx.updateSprm(SPRM_BRCBOTTOM, bottom.toInt());
     }
 
     public BorderCode getRightBorder() {
-        return _props.getBrcRight();
+        return copyIfShared(_props.getBrcRight());
     }
 
     public void setRightBorder(BorderCode right) {
-        _props.setBrcRight(right);
+        getWritableProperties().setBrcRight(right);
         _papx.updateSprm(SPRM_BRCRIGHT, right.toInt());
     }
 
     public BorderCode getBarBorder() {
-        return _props.getBrcBar();
+        return copyIfShared(_props.getBrcBar());
     }
 
     public void setBarBorder(BorderCode bar) {
-        _props.setBrcBar(bar);
+        getWritableProperties().setBrcBar(bar);
         _papx.updateSprm(SPRM_BRCBAR, bar.toInt());
     }
 
     public ShadingDescriptor getShading() {
-        return _props.getShd();
+        return copyIfShared(_props.getShd());
     }
 
     public void setShading(ShadingDescriptor shd) {
-        _props.setShd(shd);
+        getWritableProperties().setShd(shd);
         // TODO: remove old one
         _papx.addSprm(SPRM_SHD, shd.serialize());
     }
 
     public DropCapSpecifier getDropCap() {
-        return _props.getDcs();
+        return copyIfShared(_props.getDcs());
     }
 
     public void setDropCap(DropCapSpecifier dcs) {
-        _props.setDcs(dcs);
+        getWritableProperties().setDcs(dcs);
         _papx.updateSprm(SPRM_DCS, dcs.toShort());
     }
 
@@ -514,6 +600,10 @@ public class Paragraph extends Range implements Cloneable {
      * @return array of positions of itbdMac tab stops
      */
     public int[] getTabStopsPositions() {
+        if (_propsShared) {
+            // properties are shared with other paragraphs
+            return _props.getRgdxaTab().clone();
+        }
         return _props.getRgdxaTab();
     }
 
@@ -545,6 +635,7 @@ public class Paragraph extends Range implements Cloneable {
     public Object clone() throws CloneNotSupportedException {
         Paragraph p = (Paragraph) super.clone();
         p._props = (ParagraphProperties) _props.clone();
+        p._propsShared = false;
         // p._baseStyle = _baseStyle;
         p._papx = new SprmBuffer(0);
         return p;
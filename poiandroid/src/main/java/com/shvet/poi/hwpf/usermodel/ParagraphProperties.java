@@ -25,23 +25,33 @@ public final class ParagraphProperties extends PAPAbstractType implements
     private boolean jcLogical = false;
 
     public ParagraphProperties() {
-        setAnld(new byte[84]);
-        setPhe(new byte[12]);
     }
 
     public Object clone() throws CloneNotSupportedException {
         ParagraphProperties pp = (ParagraphProperties) super.clone();
-        pp.setAnld(getAnld().clone());
-        pp.setBrcTop((BorderCode) getBrcTop().clone());
-        pp.setBrcLeft((BorderCode) getBrcLeft().clone());
-        pp.setBrcBottom((BorderCode) getBrcBottom().clone());
-        pp.setBrcRight((BorderCode) getBrcRight().clone());
-        pp.setBrcBetween((BorderCode) getBrcBetween().clone());
-        pp.setBrcBar((BorderCode) getBrcBar().clone());
-        pp.setDcs(getDcs().clone());
-        pp.setLspd((LineSpacingDescriptor) getLspd().clone());
-        pp.setShd(getShd().clone());
-        pp.setPhe(getPhe().clone());
+        // not created yet objects stay so in the copy
+        if (field_67_anld != null)
+            pp.setAnld(field_67_anld.clone());
+        if (field_60_brcTop != null)
+            pp.setBrcTop((BorderCode) field_60_brcTop.clone());
+        if (field_61_brcLeft != null)
+            pp.setBrcLeft((BorderCode) field_61_brcLeft.clone());
+        if (field_62_brcBottom != null)
+            pp.setBrcBottom((BorderCode) field_62_brcBottom.clone());
+        if (field_63_brcRight != null)
+            pp.setBrcRight((BorderCode) field_63_brcRight.clone());
+        if (field_64_brcBetween != null)
+            pp.setBrcBetween((BorderCode) field_64_brcBetween.clone());
+        if (field_65_brcBar != null)
+            pp.setBrcBar((BorderCode) field_65_brcBar.clone());
+        if (field_28_dcs != null)
+            pp.setDcs(field_28_dcs.clone());
+        if (field_11_lspd != null)
+            pp.setLspd((LineSpacingDescriptor) field_11_lspd.clone());
+        if (field_66_shd != null)
+            pp.setShd(field_66_shd.clone());
+        if (field_68_phe != null)
+            pp.setPhe(field_68_phe.clone());
         return pp;
     }
 
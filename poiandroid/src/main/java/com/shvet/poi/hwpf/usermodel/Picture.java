@@ -26,6 +26,7 @@ import com.shvet.poi.ddf.EscherProperty;
 import com.shvet.poi.ddf.EscherRecord;
 import com.shvet.poi.hwpf.model.PICF;
 import com.shvet.poi.hwpf.model.PICFAndOfficeArtData;
+import com.shvet.poi.util.Internal;
 import com.shvet.poi.util.POILogFactory;
 import com.shvet.poi.util.POILogger;
 import com.shvet.poi.util.PngUtils;
@@ -35,6 +36,8 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.util.Arrays;
 import java.util.List;
 import java.util.zip.InflaterInputStream;
@@ -95,8 +98,24 @@ public final class Picture {
      */
     public Picture(int dataBlockStartOfsset, byte[] _dataStream,
                    boolean fillBytes) {
-        _picfAndOfficeArtData = new PICFAndOfficeArtData(_dataStream,
-                dataBlockStartOfsset);
+        this(dataBlockStartOfsset, _dataStream, dataBlockStartOfsset,
+                fillBytes);
+    }
+
+    /**
+     * Builds a Picture object for a Picture stored in the DataStream, which
+     * data (starting with PICF) was copied from DataStream to the separate
+     * buffer
+     *
+     * @param dataBlockStartOfsset offset of picture data in DataStream
+     * @param pictureData          buffer with picture data
+     * @param pictureDataOffset    offset of picture data in the buffer
+     */
+    @Internal
+    public Picture(int dataBlockStartOfsset, byte[] pictureData,
+                   int pictureDataOffset, boolean fillBytes) {
+        _picfAndOfficeArtData = new PICFAndOfficeArtData(pictureData,
+                pictureDataOffset);
         _picf = _picfAndOfficeArtData.getPicf();
 
         this.dataBlockStartOfsset = dataBlockStartOfsset;
@@ -134,6 +153,11 @@ public final class Picture {
         return matched;
     }
 
+    private static boolean isCompressed(byte[] rawContent) {
+        return matchSignature(rawContent, COMPRESSED1, 32)
+                || matchSignature(rawContent, COMPRESSED2, 32);
+    }
+
     private void fillImageContent() {
         if (content != null && content.length > 0)
             return;
@@ -146,8 +170,7 @@ public final class Picture {
 		 * similarity between all the samples I have obtained, nor any
 		 * similarity in the data block contents.
 		 */
-        if (matchSignature(rawContent, COMPRESSED1, 32)
-                || matchSignature(rawContent, COMPRESSED2, 32)) {
+        if (isCompressed(rawContent)) {
             try {
                 InflaterInputStream in = new InflaterInputStream(
                         new ByteArrayInputStream(rawContent, 33,
@@ -564,4 +587,62 @@ public final class Picture {
         }
     }
 
+    /**
+     * Writes Picture's content bytes to specified OutputStream. Compressed
+     * pictures are inflated straight to the stream, so unlike
+     * {@link #getContent()} no array of the whole uncompressed picture is
+     * created.
+     *
+     * @param out a stream to write to
+     * @throws IOException if some exception is occured while writing to specified out,
+     *                     or if compressed content is corrupt (in which case
+     *                     part of it may have been written already)
+     */
+    public void writeContentTo(OutputStream out) throws IOException {
+        if (content != null && content.length > 0) {
+            out.write(content, 0, content.length);
+            return;
+        }
+
+        byte[] rawContent = getRawContent();
+        if (isCompressed(rawContent)) {
+            InflaterInputStream in = new InflaterInputStream(
+                    new ByteArrayInputStream(rawContent, 33,
+                            rawContent.length - 33));
+            byte[] buf = new byte[4096];
+            while (true) {
+                int readBytes;
+                try {
+                    readBytes = in.read(buf);
+                } catch (IOException e) {
+                    // only decompression can fail, but output is incomplete
+                    throw new IOException(
+                            "Possibly corrupt compression or non-compressed data",
+                            e);
+                }
+                if (readBytes <= 0)
+                    break;
+                out.write(buf, 0, readBytes);
+            }
+        } else {
+            // cut off 16-byte prefix of PNG created on MAC
+            int offset = PngUtils.matchesPngHeader(rawContent, 16) ? 16 : 0;
+            out.write(rawContent, offset, rawContent.length - offset);
+        }
+    }
+
+    /**
+     * Writes Picture's content bytes to specified channel, inflating
+     * compressed pictures on the fly
+     *
+     * @param channel a channel to write to
+     * @throws IOException if some exception is occured while writing to specified channel
+     * @see #writeContentTo(OutputStream)
+     */
+    public void writeContentTo(WritableByteChannel channel) throws IOException {
+        OutputStream out = Channels.newOutputStream(channel);
+        writeContentTo(out);
+        out.flush();
+    }
+
 }
@@ -20,6 +20,7 @@ package com.shvet.poi.hwpf.usermodel;
 import com.shvet.poi.hwpf.HWPFDocument;
 import com.shvet.poi.hwpf.HWPFDocumentCore;
 import com.shvet.poi.hwpf.model.CHPX;
+import com.shvet.poi.hwpf.model.CompactRunList;
 import com.shvet.poi.hwpf.model.FileInformationBlock;
 import com.shvet.poi.hwpf.model.ListTables;
 import com.shvet.poi.hwpf.model.PAPX;
@@ -37,7 +38,14 @@ import com.shvet.poi.util.POILogFactory;
 import com.shvet.poi.util.POILogger;
 
 import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 
 /**
@@ -262,7 +270,7 @@ public class Range { // TODO -instantiable superclass
                                          int start) {
         if (rpl.size() == 0)
             return -1;
-        if (rpl.get(0).getStart() >= start)
+        if (CompactRunList.getNodeStart(rpl, 0) >= start)
             return 0;
 
         int low = 0;
@@ -270,14 +278,14 @@ public class Range { // TODO -instantiable superclass
 
         while (low <= high) {
             int mid = (low + high) >>> 1;
-            PropertyNode<?> node = rpl.get(mid);
+            int nodeStart = CompactRunList.getNodeStart(rpl, mid);
 
-            if (node.getStart() < start) {
+            if (nodeStart < start) {
                 low = mid + 1;
-            } else if (node.getStart() > start) {
+            } else if (nodeStart > start) {
                 high = mid - 1;
             } else {
-                assert node.getStart() == start;
+                assert nodeStart == start;
                 return mid;
             }
         }
@@ -287,7 +295,7 @@ public class Range { // TODO -instantiable superclass
 
     private static int binarySearchEnd(List<? extends PropertyNode<?>> rpl,
                                        int foundStart, int end) {
-        if (rpl.get(rpl.size() - 1).getEnd() <= end)
+        if (CompactRunList.getNodeEnd(rpl, rpl.size() - 1) <= end)
             return rpl.size() - 1;
 
         int low = foundStart;
@@ -295,14 +303,14 @@ public class Range { // TODO -instantiable superclass
 
         while (low <= high) {
             int mid = (low + high) >>> 1;
-            PropertyNode<?> node = rpl.get(mid);
+            int nodeEnd = CompactRunList.getNodeEnd(rpl, mid);
 
-            if (node.getEnd() < end) {
+            if (nodeEnd < end) {
                 low = mid + 1;
-            } else if (node.getEnd() > end) {
+            } else if (nodeEnd > end) {
                 high = mid - 1;
             } else {
-                assert node.getEnd() == end;
+                assert nodeEnd == end;
                 return mid;
             }
         }
@@ -388,6 +396,7 @@ public class Range { // TODO -instantiable superclass
         initAll();
 
         _text.insert(_start, text);
+        textChanged(_start, text.length());
         _doc.getCharacterTable().adjustForInsert(_charStart, text.length());
         _doc.getParagraphTable().adjustForInsert(_parStart, text.length());
         _doc.getSectionTable().adjustForInsert(_sectionStart, text.length());
@@ -415,6 +424,7 @@ public class Range { // TODO -instantiable superclass
         initAll();
 
         _text.insert(_end, text);
+        textChanged(_end, text.length());
 
         _doc.getCharacterTable().adjustForInsert(_charEnd - 1, text.length());
         _doc.getParagraphTable().adjustForInsert(_parEnd - 1, text.length());
@@ -613,6 +623,7 @@ public class Range { // TODO -instantiable superclass
         }
 
         _text.delete(_start, _end);
+        textChanged(_start, -(_end - _start));
         Range parent = _parent.get();
         if (parent != null) {
             parent.adjustForInsert(-(_end - _start));
@@ -812,6 +823,172 @@ public class Range { // TODO -instantiable superclass
         }
     }
 
+    /**
+     * Replaces (all instances of) several placeholders at once. Unlike
+     * {@link #replaceText(String, String)} called for every placeholder, range
+     * text is scanned only once, and all the document tables are adjusted in
+     * one pass for all the replacements. Inserted values get the formatting
+     * of the placeholders text they replace.
+     * <p>
+     * Matches are searched in the original text only, so values are not
+     * scanned for placeholders. If several placeholders match at the same
+     * position the longest one is replaced.
+     *
+     * @param replacements placeholders (e.g., "${organization}") mapped to
+     *                     their values (e.g., "Apache Software Foundation")
+     * @return number of replaced placeholders
+     */
+    public int replaceText(Map<String, String> replacements) {
+        // placeholders by their first char, longest first
+        Map<Character, List<String>> placeholders = new HashMap<Character, List<String>>();
+        for (String placeholder : replacements.keySet()) {
+            if (placeholder == null || placeholder.length() == 0)
+                throw new IllegalArgumentException("Placeholder is empty");
+
+            Character first = Character.valueOf(placeholder.charAt(0));
+            List<String> list = placeholders.get(first);
+            if (list == null) {
+                list = new ArrayList<String>(1);
+                placeholders.put(first, list);
+            }
+            list.add(placeholder);
+        }
+        for (List<String> list : placeholders.values()) {
+            Collections.sort(list, new Comparator<String>() {
+                public int compare(String o1, String o2) {
+                    return o2.length() - o1.length();
+                }
+            });
+        }
+
+        // single scan: matches positions and new range text
+        int[] matchStarts = new int[16];
+        String[] matchPlaceholders = new String[16];
+        int matches = 0;
+        StringBuilder newText = new StringBuilder(_end - _start);
+        for (int cp = _start; cp < _end; ) {
+            String found = null;
+            List<String> candidates = placeholders.get(Character.valueOf(_text
+                    .charAt(cp)));
+            if (candidates != null) {
+                for (String candidate : candidates) {
+                    if (cp + candidate.length() <= _end
+                            && regionMatches(_text, cp, candidate)) {
+                        found = candidate;
+                        break;
+                    }
+                }
+            }
+            if (found == null) {
+                newText.append(_text.charAt(cp));
+                cp++;
+                continue;
+            }
+
+            if (matches == matchStarts.length) {
+                matchStarts = Arrays.copyOf(matchStarts, matches * 2);
+                matchPlaceholders = Arrays.copyOf(matchPlaceholders,
+                        matches * 2);
+            }
+            matchStarts[matches] = cp;
+            matchPlaceholders[matches] = found;
+            matches++;
+
+            newText.append(replacements.get(found));
+            cp += found.length();
+        }
+        if (matches == 0)
+            return 0;
+
+        initAll();
+
+        int[] oldLengths = new int[matches];
+        int[] newLengths = new int[matches];
+        int[] shifts = new int[matches];
+        int shift = 0;
+        for (int i = 0; i < matches; i++) {
+            oldLengths[i] = matchPlaceholders[i].length();
+            newLengths[i] = replacements.get(matchPlaceholders[i]).length();
+            shifts[i] = shift;
+            shift += newLengths[i] - oldLengths[i];
+        }
+
+        adjustForReplace(_characters, matchStarts, oldLengths, newLengths,
+                shifts, matches);
+        adjustForReplace(_paragraphs, matchStarts, oldLengths, newLengths,
+                shifts, matches);
+        adjustForReplace(_sections, matchStarts, oldLengths, newLengths,
+                shifts, matches);
+
+        for (int i = 0; i < matches; i++) {
+            // same as inserting value before placeholder and deleting it
+            int start = matchStarts[i] + shifts[i];
+            if (_doc instanceof HWPFDocument) {
+                BookmarksImpl bookmarks = (BookmarksImpl) ((HWPFDocument) _doc)
+                        .getBookmarks();
+                bookmarks.afterInsert(start, newLengths[i]);
+                bookmarks.afterDelete(start + newLengths[i], oldLengths[i]);
+            }
+            adjustFIB(start, newLengths[i]);
+            adjustFIB(start + newLengths[i], -oldLengths[i]);
+            textChanged(start, newLengths[i]);
+            textChanged(start + newLengths[i], -oldLengths[i]);
+        }
+
+        _text.replace(_start, _end, newText.toString());
+        adjustForInsert(shift);
+
+        assert sanityCheck();
+        return matches;
+    }
+
+    private static boolean regionMatches(CharSequence text, int offset,
+                                         String str) {
+        for (int i = 0; i < str.length(); i++) {
+            if (text.charAt(offset + i) != str.charAt(i))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Moves nodes bounds after text of matches is replaced. Bounds inside of
+     * replaced text are moved to the end of new text, bounds after it are
+     * shifted, same as insert of new text before the old one followed by
+     * delete of the old text would do.
+     */
+    private static void adjustForReplace(
+            List<? extends PropertyNode<?>> nodes, int[] matchStarts,
+            int[] oldLengths, int[] newLengths, int[] shifts, int matches) {
+        final int firstMatch = matchStarts[0];
+        for (int i = 0; i < nodes.size(); i++) {
+            // nodes before the first match are not changed, no need to
+            // create them if list is compact
+            if (CompactRunList.getNodeEnd(nodes, i) <= firstMatch)
+                continue;
+
+            PropertyNode<?> node = nodes.get(i);
+            node.setStart(adjustForReplace(node.getStart(), matchStarts,
+                    oldLengths, newLengths, shifts, matches));
+            node.setEnd(adjustForReplace(node.getEnd(), matchStarts,
+                    oldLengths, newLengths, shifts, matches));
+        }
+    }
+
+    private static int adjustForReplace(int cp, int[] matchStarts,
+                                        int[] oldLengths, int[] newLengths,
+                                        int[] shifts, int matches) {
+        // last match that starts before cp
+        int index = Arrays.binarySearch(matchStarts, 0, matches, cp);
+        index = (index >= 0 ? index : -index - 1) - 1;
+        if (index < 0)
+            return cp;
+
+        if (cp <= matchStarts[index] + oldLengths[index])
+            return matchStarts[index] + shifts[index] + newLengths[index];
+        return cp + shifts[index] + newLengths[index] - oldLengths[index];
+    }
+
     /**
      * Gets the character run at index. The index is relative to this range.
      *
@@ -856,6 +1033,16 @@ public class Range { // TODO -instantiable superclass
         return chp;
     }
 
+    /**
+     * Creates cursor to walk paragraphs and character runs of this range in
+     * one pass, without creating paragraph and run objects.
+     *
+     * @return new cursor positioned before the first paragraph
+     */
+    public RangeCursor newCursor() {
+        return new RangeCursor(this);
+    }
+
     /**
      * Gets the section at index. The index is relative to this range.
      *
@@ -933,14 +1120,9 @@ public class Range { // TODO -instantiable superclass
             }
         }
 
-        Range overallRange = _doc.getOverallRange();
-        int limit = _paragraphs.size();
-        for (; tableEndInclusive < limit - 1; tableEndInclusive++) {
-            Paragraph next = Paragraph.newParagraph(overallRange,
-                    _paragraphs.get(tableEndInclusive + 1));
-            if (!next.isInTable() || next.getTableLevel() < tableLevel)
-                break;
-        }
+        TableIndex tableIndex = getTableIndex();
+        if (tableIndex.getTableLevel(tableEndInclusive) == tableLevel)
+            tableEndInclusive = tableIndex.getTableEnd(tableEndInclusive);
 
         initAll();
         if (tableEndInclusive >= this._parEnd) {
@@ -958,7 +1140,58 @@ public class Range { // TODO -instantiable superclass
         int endOffsetExclusive = _paragraphs.get(tableEndInclusive).getEnd();
 
         return new Table(paragraph.getStartOffset(), endOffsetExclusive, this,
-                paragraph.getTableLevel());
+                paragraph.getTableLevel(), tableIndex);
+    }
+
+    /**
+     * Iterates over tables started in this range. Nested tables are not
+     * returned, they are accessible through cells of outer tables. Table
+     * structure of document is found once, on first call to this method or
+     * {@link #getTable(Paragraph)}.
+     *
+     * @return iterator over tables started in this range
+     */
+    public Iterator<Table> getTables() {
+        initParagraphs();
+        final TableIndex tableIndex = getTableIndex();
+        return new Iterator<Table>() {
+            private int next = findTableStart(_parStart);
+
+            private int findTableStart(int from) {
+                while (from < _parEnd && !tableIndex.isInTable(from))
+                    from++;
+                return from;
+            }
+
+            public boolean hasNext() {
+                return next < _parEnd;
+            }
+
+            public Table next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+
+                final int start = next;
+                final int end = tableIndex.getTableEnd(start);
+                next = findTableStart(end + 1);
+
+                return new Table(Math.max(_start, _paragraphs.get(start)
+                        .getStart()), _paragraphs.get(end).getEnd(),
+                        Range.this, tableIndex.getTableLevel(start),
+                        tableIndex);
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    /**
+     * @return table structure of document paragraphs, shared by all ranges
+     */
+    TableIndex getTableIndex() {
+        return _doc.getTableIndex();
     }
 
     /**
@@ -1019,12 +1252,13 @@ public class Range { // TODO -instantiable superclass
     private int[] findRange(List<? extends PropertyNode<?>> rpl, int start,
                             int end) {
         int startIndex = binarySearchStart(rpl, start);
-        while (startIndex > 0 && rpl.get(startIndex - 1).getStart() >= start)
+        while (startIndex > 0
+                && CompactRunList.getNodeStart(rpl, startIndex - 1) >= start)
             startIndex--;
 
         int endIndex = binarySearchEnd(rpl, startIndex, end);
         while (endIndex < rpl.size() - 1
-                && rpl.get(endIndex + 1).getEnd() <= end)
+                && CompactRunList.getNodeEnd(rpl, endIndex + 1) <= end)
             endIndex++;
 
         if (startIndex < 0 || startIndex >= rpl.size() || startIndex > endIndex
@@ -1105,6 +1339,14 @@ public class Range { // TODO -instantiable superclass
      * @param adjustment The (signed) value that should be added to the FIB CCP fields
      */
     protected void adjustFIB(int adjustment) {
+        adjustFIB(_start, adjustment);
+    }
+
+    /**
+     * Adjusts FIB character count of the part that contains the given
+     * character position
+     */
+    private void adjustFIB(int cp, int adjustment) {
         assert (_doc instanceof HWPFDocument);
 
         // update the FIB.CCPText field (this should happen once per adjustment,
@@ -1148,7 +1390,7 @@ public class Range { // TODO -instantiable superclass
             currentEnd += currentLength;
 
             // do we need to shift this part?
-            if (_start > currentEnd)
+            if (cp > currentEnd)
                 continue;
 
             fib.setSubdocumentTextStreamLength(type, currentLength + adjustment);
@@ -1157,6 +1399,14 @@ public class Range { // TODO -instantiable superclass
         }
     }
 
+    /**
+     * Reports text change to the document, which drops its paragraph caches
+     * and tracks changes for incremental save
+     */
+    private void textChanged(int cp, int adjustment) {
+        _doc.textChanged(cp, adjustment);
+    }
+
     /**
      * adjust this range after an insert happens.
      *
@@ -0,0 +1,287 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package com.shvet.poi.hwpf.usermodel;
+
+import com.shvet.poi.hwpf.model.CHPX;
+import com.shvet.poi.hwpf.model.CompactRunList;
+import com.shvet.poi.hwpf.model.PAPX;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Forward-only cursor over paragraphs of a {@link Range} and character runs of
+ * each paragraph. Unlike {@link Range#getParagraph(int)} and
+ * {@link Paragraph#getCharacterRun(int)} it does not create new objects for
+ * every paragraph and run: cursor itself is a view of the current paragraph
+ * and run, and properties are shared with the stylesheet caches, so the whole
+ * range is walked in one linear pass.
+ * <p>
+ * Properties returned by cursor are shared and must not be changed. Use
+ * {@link #getParagraph()} and {@link #getCharacterRun()} to get regular
+ * (modifiable) objects. Cursor is not valid after range text is changed.
+ * <p>
+ * Typical usage:
+ * <pre>
+ * RangeCursor cursor = range.newCursor();
+ * while (cursor.nextParagraph()) {
+ *     while (cursor.nextCharacterRun()) {
+ *         if (cursor.getCharacterProperties().isFBold())
+ *             ...
+ *     }
+ * }
+ * </pre>
+ */
+public final class RangeCursor {
+    private final Range _range;
+    private final List<PAPX> _paragraphs;
+    private final List<CHPX> _characters;
+
+    private final int _parEnd;
+    private final int _charEnd;
+
+    /**
+     * Index of current paragraph in document paragraphs list
+     */
+    private int _parIndex;
+    private int _parStartCp;
+    private int _parEndCp;
+    private ParagraphProperties _papProps;
+
+    /**
+     * Index of the first run that may intersect current or next paragraphs
+     */
+    private int _firstRunIndex;
+
+    /**
+     * Index of current run in document runs list
+     */
+    private int _runIndex;
+    private int _runStartCp;
+    private int _runEndCp;
+    private CharacterProperties _chpProps;
+
+    RangeCursor(Range range) {
+        _range = range;
+        _paragraphs = range._paragraphs;
+        _characters = range._characters;
+
+        // finds list bounds of the range
+        range.numParagraphs();
+        range.numCharacterRuns();
+
+        _parIndex = range._parStart - 1;
+        _parEnd = range._parEnd;
+        _firstRunIndex = range._charStart;
+        _charEnd = range._charEnd;
+        _runIndex = -1;
+    }
+
+    /**
+     * Moves cursor to the next paragraph of the range
+     *
+     * @return <tt>false</tt> if there are no more paragraphs
+     */
+    public boolean nextParagraph() {
+        while (++_parIndex < _parEnd) {
+            _parStartCp = Math.max(_range._start,
+                    CompactRunList.getNodeStart(_paragraphs, _parIndex));
+            _parEndCp = Math.min(_range._end,
+                    CompactRunList.getNodeEnd(_paragraphs, _parIndex));
+            if (_parStartCp >= _parEndCp)
+                continue;
+
+            _papProps = null;
+            _runIndex = -1;
+            // runs before paragraph won't be needed anymore
+            while (_firstRunIndex < _charEnd
+                    && CompactRunList.getNodeEnd(_characters,
+                    _firstRunIndex) <= _parStartCp)
+                _firstRunIndex++;
+            return true;
+        }
+        _parIndex = _parEnd;
+        _runIndex = -1;
+        return false;
+    }
+
+    /**
+     * Moves cursor to the next character run of the current paragraph. Runs
+     * are cut by paragraph bounds.
+     *
+     * @return <tt>false</tt> if there are no more runs in paragraph
+     */
+    public boolean nextCharacterRun() {
+        checkParagraph();
+
+        int index = _runIndex < 0 ? _firstRunIndex : _runIndex + 1;
+        for (; index < _charEnd; index++) {
+            int runStart = CompactRunList.getNodeStart(_characters, index);
+            if (runStart >= _parEndCp)
+                break;
+
+            _runStartCp = Math.max(_parStartCp, runStart);
+            _runEndCp = Math.min(_parEndCp,
+                    CompactRunList.getNodeEnd(_characters, index));
+            if (_runStartCp >= _runEndCp)
+                continue;
+
+            _runIndex = index;
+            _chpProps = null;
+            return true;
+        }
+        _runIndex = _charEnd;
+        return false;
+    }
+
+    private void checkParagraph() {
+        if (_parIndex < _range._parStart || _parIndex >= _parEnd)
+            throw new NoSuchElementException("Cursor is not at paragraph");
+    }
+
+    private void checkCharacterRun() {
+        checkParagraph();
+        if (_runIndex < 0 || _runIndex >= _charEnd)
+            throw new NoSuchElementException("Cursor is not at character run");
+    }
+
+    /**
+     * @return index of current paragraph in the range
+     */
+    public int getParagraphIndex() {
+        checkParagraph();
+        return _parIndex - _range._parStart;
+    }
+
+    /**
+     * @return start offset of current paragraph, cut by range bounds
+     */
+    public int getParagraphStartOffset() {
+        checkParagraph();
+        return _parStartCp;
+    }
+
+    /**
+     * @return end offset of current paragraph, cut by range bounds
+     */
+    public int getParagraphEndOffset() {
+        checkParagraph();
+        return _parEndCp;
+    }
+
+    /**
+     * @return style index of current paragraph
+     */
+    public short getParagraphStyleIndex() {
+        checkParagraph();
+        return _paragraphs.get(_parIndex).getIstd();
+    }
+
+    /**
+     * @return shared properties of current paragraph, must not be changed
+     */
+    public ParagraphProperties getParagraphProperties() {
+        checkParagraph();
+        if (_papProps == null) {
+            _papProps = Paragraph.getSharedProperties(_range._doc,
+                    _paragraphs.get(_parIndex));
+        }
+        return _papProps;
+    }
+
+    /**
+     * @return new (modifiable) paragraph object for current paragraph
+     */
+    public Paragraph getParagraph() {
+        checkParagraph();
+        return Paragraph.newParagraph(_range, _paragraphs.get(_parIndex));
+    }
+
+    /**
+     * @return start offset of current character run, cut by paragraph bounds
+     */
+    public int getCharacterRunStartOffset() {
+        checkCharacterRun();
+        return _runStartCp;
+    }
+
+    /**
+     * @return end offset of current character run, cut by paragraph bounds
+     */
+    public int getCharacterRunEndOffset() {
+        checkCharacterRun();
+        return _runEndCp;
+    }
+
+    /**
+     * @return shared properties of current character run, must not be
+     * changed
+     */
+    public CharacterProperties getCharacterProperties() {
+        checkCharacterRun();
+        if (_chpProps == null) {
+            _chpProps = _characters.get(_runIndex)
+                    .getSharedCharacterProperties(
+                            _range._doc.getStyleSheet(),
+                            getParagraphStyleIndex());
+        }
+        return _chpProps;
+    }
+
+    /**
+     * @return new (modifiable) character run object for current run, with
+     * current paragraph as parent range
+     */
+    public CharacterRun getCharacterRun() {
+        checkCharacterRun();
+        return new CharacterRun(_characters.get(_runIndex),
+                _range._doc.getStyleSheet(), getParagraphStyleIndex(),
+                getParagraph());
+    }
+
+    /**
+     * @return text of current character run, if cursor is at run, or text of
+     * current paragraph otherwise
+     */
+    public String text() {
+        return _range._text.substring(getTextStart(), getTextEnd());
+    }
+
+    /**
+     * Appends text of current character run, if cursor is at run, or text of
+     * current paragraph otherwise, without creating intermediate string
+     */
+    public void appendText(Appendable out) throws IOException {
+        out.append(_range._text, getTextStart(), getTextEnd());
+    }
+
+    private boolean isAtCharacterRun() {
+        return _runIndex >= 0 && _runIndex < _charEnd;
+    }
+
+    private int getTextStart() {
+        checkParagraph();
+        return isAtCharacterRun() ? _runStartCp : _parStartCp;
+    }
+
+    private int getTextEnd() {
+        checkParagraph();
+        return isAtCharacterRun() ? _runEndCp : _parEndCp;
+    }
+}
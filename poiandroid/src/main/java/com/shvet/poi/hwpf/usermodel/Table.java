@@ -26,9 +26,20 @@ public final class Table extends Range {
 
     private int _tableLevel;
 
+    /**
+     * Table structure of document, if known when table is created
+     */
+    private TableIndex _tableIndex;
+
     Table(int startIdxInclusive, int endIdxExclusive, Range parent, int levelNum) {
+        this(startIdxInclusive, endIdxExclusive, parent, levelNum, null);
+    }
+
+    Table(int startIdxInclusive, int endIdxExclusive, Range parent,
+          int levelNum, TableIndex tableIndex) {
         super(startIdxInclusive, endIdxExclusive, parent);
         _tableLevel = levelNum;
+        _tableIndex = tableIndex;
         initRows();
     }
 
@@ -46,6 +57,12 @@ public final class Table extends Range {
             return;
 
         _rows = new ArrayList<TableRow>();
+        if (_tableIndex != null) {
+            initRowsFromIndex();
+            _rowsFound = true;
+            return;
+        }
+
         int rowStart = 0;
         int rowEnd = 0;
 
@@ -64,6 +81,24 @@ public final class Table extends Range {
         _rowsFound = true;
     }
 
+    /**
+     * Same as rows search by paragraphs, but with paragraph properties taken
+     * from table index
+     */
+    private void initRowsFromIndex() {
+        numParagraphs();
+        int rowStart = _parStart;
+        for (int p = _parStart; p < _parEnd; p++) {
+            if (_tableIndex.isTableRowEnd(p)
+                    && _tableIndex.getTableLevel(p) == _tableLevel) {
+                _rows.add(new TableRow(Math.max(_start, _paragraphs.get(
+                        rowStart).getStart()), Math.min(_end, _paragraphs
+                        .get(p).getEnd()), this, _tableLevel));
+                rowStart = p + 1;
+            }
+        }
+    }
+
     public int numRows() {
         initRows();
         return _rows.size();
@@ -72,6 +107,7 @@ public final class Table extends Range {
     @Override
     protected void reset() {
         _rowsFound = false;
+        _tableIndex = null;
     }
 
     public int type() {
@@ -0,0 +1,101 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package com.shvet.poi.hwpf.usermodel;
+
+import com.shvet.poi.hwpf.HWPFDocumentCore;
+import com.shvet.poi.hwpf.model.PAPX;
+import com.shvet.poi.util.Internal;
+
+import java.util.List;
+
+/**
+ * Table structure of document paragraphs, built in one pass over paragraph
+ * properties (shared through stylesheet cache, so no {@link Paragraph}
+ * objects are created). For every paragraph it keeps table nesting level,
+ * table row end flag, and the last paragraph of the table of the same level
+ * started at this paragraph.
+ * <p>
+ * Index is built once per document, see
+ * {@link HWPFDocumentCore#getTableIndex()}, and built again after document
+ * text is changed.
+ */
+@Internal
+public final class TableIndex {
+    /**
+     * Level of paragraph not in table, less than any table level
+     */
+    private static final int NOT_IN_TABLE = -1;
+
+    private final int[] _levels;
+    private final boolean[] _rowEnds;
+    private final int[] _tableEnds;
+
+    public TableIndex(HWPFDocumentCore doc, List<PAPX> paragraphs) {
+        final int size = paragraphs.size();
+        _levels = new int[size];
+        _rowEnds = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            ParagraphProperties props = Paragraph.getSharedProperties(doc,
+                    paragraphs.get(i));
+            _levels[i] = props.getFInTable() ? props.getItap() : NOT_IN_TABLE;
+            _rowEnds[i] = props.getFTtp() || props.getFTtpEmbedded();
+        }
+
+        /*
+         * Table of level L started at paragraph i lasts until paragraph
+         * before the next one not in table or of lower level, i.e. until the
+         * next smaller level. Found for all paragraphs with one stack.
+         */
+        _tableEnds = new int[size];
+        int[] stack = new int[size];
+        int stackSize = 0;
+        for (int i = 0; i < size; i++) {
+            while (stackSize > 0 && _levels[i] < _levels[stack[stackSize - 1]]) {
+                _tableEnds[stack[--stackSize]] = i - 1;
+            }
+            stack[stackSize++] = i;
+        }
+        while (stackSize > 0) {
+            _tableEnds[stack[--stackSize]] = size - 1;
+        }
+    }
+
+    int size() {
+        return _levels.length;
+    }
+
+    boolean isInTable(int paragraphIndex) {
+        return _levels[paragraphIndex] != NOT_IN_TABLE;
+    }
+
+    int getTableLevel(int paragraphIndex) {
+        return _levels[paragraphIndex];
+    }
+
+    boolean isTableRowEnd(int paragraphIndex) {
+        return _rowEnds[paragraphIndex];
+    }
+
+    /**
+     * @return index of the last paragraph of the table started at the given
+     * paragraph, with table level of that paragraph
+     */
+    int getTableEnd(int paragraphIndex) {
+        return _tableEnds[paragraphIndex];
+    }
+}
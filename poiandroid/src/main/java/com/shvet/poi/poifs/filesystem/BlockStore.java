@@ -38,6 +38,13 @@ public abstract class BlockStore {
     protected abstract ByteBuffer getBlockAt(final int offset)
             throws IOException;
 
+    /**
+     * Load a read-only view of the block at the given offset.
+     */
+    protected ByteBuffer getBlockViewAt(final int offset) throws IOException {
+        return getBlockAt(offset).asReadOnlyBuffer();
+    }
+
     /**
      * Extends the file if required to hold blocks up to the specified offset,
      * and return the block from there.
@@ -225,9 +225,19 @@ public final class NDocumentInputStream extends DocumentInputStream {
 
         long rval = new_offset - _current_offset;
 
-        // TODO Do this better
-        byte[] skip = new byte[(int) rval];
-        readFully(skip);
+        // wind on over the blocks, without copying skipped data
+        int toSkip = (int) rval;
+        while (toSkip > 0) {
+            if (_buffer == null || _buffer.remaining() == 0) {
+                _current_block_count++;
+                _buffer = _data.next();
+            }
+
+            int limit = Math.min(toSkip, _buffer.remaining());
+            _buffer.position(_buffer.position() + limit);
+            _current_offset += limit;
+            toSkip -= limit;
+        }
         return rval;
     }
 
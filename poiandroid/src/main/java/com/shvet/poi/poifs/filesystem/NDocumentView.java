@@ -0,0 +1,190 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package com.shvet.poi.poifs.filesystem;
+
+import com.shvet.poi.poifs.property.DocumentProperty;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Read-only random access to the contents of a DocumentEntry managed by a
+ * {@link NPOIFSFileSystem} instance.
+ * <p>
+ * Unlike {@link NDocumentInputStream} used to fill a byte array, this class
+ * keeps read-only views of the file system blocks, so document bytes are not
+ * copied: they stay in the file system buffer, or in the file mapping if file
+ * system was opened from a file. The view is only valid until file system is
+ * closed or the document is changed.
+ */
+public final class NDocumentView {
+    private final ByteBuffer[] _blocks;
+
+    /**
+     * Offsets of blocks starts in document, with document size at the last
+     * position
+     */
+    private final int[] _blockOffsets;
+
+    private final int _document_size;
+
+    /**
+     * Create a view of the specified DocumentEntry
+     *
+     * @param document the DocumentEntry to be read
+     * @throws IOException if the DocumentEntry cannot be opened, or is not a
+     *                     part of {@link NPOIFSFileSystem}
+     */
+    public NDocumentView(DocumentEntry document) throws IOException {
+        this(getNPOIFSDocument(document));
+    }
+
+    /**
+     * Create a view of the specified Document
+     *
+     * @param document the Document to be read
+     */
+    public NDocumentView(NPOIFSDocument document) {
+        _document_size = document.getSize();
+
+        List<ByteBuffer> blocks = new ArrayList<ByteBuffer>();
+        int size = 0;
+        for (Iterator<ByteBuffer> iterator = document.getBlockViewIterator(); iterator
+                .hasNext() && size < _document_size; ) {
+            ByteBuffer block = iterator.next().slice().asReadOnlyBuffer();
+            if (block.remaining() > _document_size - size)
+                block.limit(_document_size - size);
+
+            blocks.add(block);
+            size += block.remaining();
+        }
+        if (size < _document_size) {
+            throw new IndexOutOfBoundsException("Document blocks cover only "
+                    + size + " of " + _document_size + " bytes");
+        }
+
+        _blocks = blocks.toArray(new ByteBuffer[blocks.size()]);
+        _blockOffsets = new int[_blocks.length + 1];
+        for (int i = 0; i < _blocks.length; i++) {
+            _blockOffsets[i + 1] = _blockOffsets[i] + _blocks[i].remaining();
+        }
+    }
+
+    private static NPOIFSDocument getNPOIFSDocument(DocumentEntry document)
+            throws IOException {
+        if (!(document instanceof DocumentNode)) {
+            throw new IOException("Cannot open internal document storage, "
+                    + document + " not a Document Node");
+        }
+
+        DocumentNode doc = (DocumentNode) document;
+        NPOIFSFileSystem filesystem = ((DirectoryNode) doc.getParent())
+                .getNFileSystem();
+        if (filesystem == null) {
+            throw new IOException("Cannot open internal document storage, "
+                    + document + " is not a part of NPOIFSFileSystem");
+        }
+
+        DocumentProperty property = (DocumentProperty) doc.getProperty();
+        return new NPOIFSDocument(property, filesystem);
+    }
+
+    /**
+     * @return size of the document
+     */
+    public int getSize() {
+        return _document_size;
+    }
+
+    private int getBlockIndex(int offset) {
+        if (offset < 0 || offset >= _document_size) {
+            throw new IndexOutOfBoundsException("Offset " + offset
+                    + " is outside of document of size " + _document_size);
+        }
+
+        int index = Arrays.binarySearch(_blockOffsets, offset);
+        // for not exact match binarySearch returns (-(insertion point) - 1)
+        return index >= 0 ? index : -index - 2;
+    }
+
+    public byte getByte(int offset) {
+        int index = getBlockIndex(offset);
+        return _blocks[index].get(offset - _blockOffsets[index]);
+    }
+
+    public int getUByte(int offset) {
+        return getByte(offset) & 0xFF;
+    }
+
+    public short getShort(int offset) {
+        return (short) (getUByte(offset) + (getUByte(offset + 1) << 8));
+    }
+
+    public int getUShort(int offset) {
+        return getShort(offset) & 0xFFFF;
+    }
+
+    public int getInt(int offset) {
+        return getUByte(offset) + (getUByte(offset + 1) << 8)
+                + (getUByte(offset + 2) << 16) + (getUByte(offset + 3) << 24);
+    }
+
+    /**
+     * Copies part of the document into the array
+     *
+     * @param offset    document offset to copy from
+     * @param dst       destination array
+     * @param dstOffset destination array offset
+     * @param length    number of bytes to copy
+     */
+    public void read(int offset, byte[] dst, int dstOffset, int length) {
+        if (length == 0)
+            return;
+        if (length < 0 || offset + length > _document_size) {
+            throw new IndexOutOfBoundsException("Unable to read " + length
+                    + " bytes from " + offset + " in document of size "
+                    + _document_size);
+        }
+
+        int index = getBlockIndex(offset);
+        int read = 0;
+        while (read < length) {
+            ByteBuffer block = _blocks[index].duplicate();
+            int blockOffset = offset + read - _blockOffsets[index];
+            int limit = Math.min(length - read, block.remaining()
+                    - blockOffset);
+            block.position(blockOffset);
+            block.get(dst, dstOffset + read, limit);
+            read += limit;
+            index++;
+        }
+    }
+
+    /**
+     * @return copy of the given part of the document
+     */
+    public byte[] getBytes(int offset, int length) {
+        byte[] result = new byte[length];
+        read(offset, result, 0, length);
+        return result;
+    }
+}
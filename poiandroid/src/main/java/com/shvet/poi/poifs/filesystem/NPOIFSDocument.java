@@ -181,6 +181,15 @@ public final class NPOIFSDocument implements POIFSViewable {
         }
     }
 
+    Iterator<ByteBuffer> getBlockViewIterator() {
+        if (getSize() > 0) {
+            return _stream.getBlockViewIterator();
+        } else {
+            List<ByteBuffer> empty = Collections.emptyList();
+            return empty.iterator();
+        }
+    }
+
     /**
      * @return size of the document
      */
@@ -545,6 +545,22 @@ public class NPOIFSFileSystem extends BlockStore implements POIFSViewable,
         }
     }
 
+    /**
+     * Load a read-only view of the block at the given offset.
+     */
+    @Override
+    protected ByteBuffer getBlockViewAt(final int offset) throws IOException {
+        // The header block doesn't count, so add one
+        long blockWanted = offset + 1;
+        long startAt = blockWanted * bigBlockSize.getBigBlockSize();
+        try {
+            return _data.readView(bigBlockSize.getBigBlockSize(), startAt);
+        } catch (IndexOutOfBoundsException e) {
+            throw new IndexOutOfBoundsException("Block " + offset
+                    + " not found - " + e);
+        }
+    }
+
     /**
      * Load the block at the given offset, extending the file if needed
      */
@@ -82,7 +82,20 @@ public class NPOIFSStream implements Iterable<ByteBuffer> {
             throw new IllegalStateException(
                     "Can't read from a new stream before it has been written to");
         }
-        return new StreamBlockByteBufferIterator(startBlock);
+        return new StreamBlockByteBufferIterator(startBlock, false);
+    }
+
+    /**
+     * Returns an iterator that'll supply one read-only {@link ByteBuffer} per
+     * block in the stream. Returned buffers may share memory with the data
+     * source, so they shall not be kept after the stream is changed.
+     */
+    public Iterator<ByteBuffer> getBlockViewIterator() {
+        if (startBlock == POIFSConstants.END_OF_CHAIN) {
+            throw new IllegalStateException(
+                    "Can't read from a new stream before it has been written to");
+        }
+        return new StreamBlockByteBufferIterator(startBlock, true);
     }
 
     /**
@@ -133,9 +146,15 @@ public class NPOIFSStream implements Iterable<ByteBuffer> {
             Iterator<ByteBuffer> {
         private ChainLoopDetector loopDetector;
         private int nextBlock;
+        private final boolean views;
 
         protected StreamBlockByteBufferIterator(int firstBlock) {
+            this(firstBlock, false);
+        }
+
+        protected StreamBlockByteBufferIterator(int firstBlock, boolean views) {
             this.nextBlock = firstBlock;
+            this.views = views;
             try {
                 this.loopDetector = blockStore.getChainLoopDetector();
             } catch (IOException e) {
@@ -155,7 +174,8 @@ public class NPOIFSStream implements Iterable<ByteBuffer> {
 
             try {
                 loopDetector.claim(nextBlock);
-                ByteBuffer data = blockStore.getBlockAt(nextBlock);
+                ByteBuffer data = views ? blockStore.getBlockViewAt(nextBlock)
+                        : blockStore.getBlockAt(nextBlock);
                 nextBlock = blockStore.getNextBlock(nextBlock);
                 return data;
             } catch (IOException e) {
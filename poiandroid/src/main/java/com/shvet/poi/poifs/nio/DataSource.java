@@ -27,6 +27,14 @@ import java.nio.ByteBuffer;
 public abstract class DataSource {
     public abstract ByteBuffer read(int length, long position) throws IOException;
 
+    /**
+     * Reads the data for viewing only. The returned buffer is read-only, and
+     * may be shared with other views of the same source
+     */
+    public ByteBuffer readView(int length, long position) throws IOException {
+        return read(length, position).asReadOnlyBuffer();
+    }
+
     public abstract void write(ByteBuffer src, long position) throws IOException;
 
     public abstract long size() throws IOException;
@@ -37,6 +37,8 @@ public class FileBackedDataSource extends DataSource {
     private boolean writable;
     // remember file base, which needs to be closed too
     private RandomAccessFile srcFile;
+    // read-only mapping of the whole file, shared by all blocks
+    private ByteBuffer readOnlyMapping;
 
     public FileBackedDataSource(File file) throws FileNotFoundException {
         this(newSrcFile(file, "r"), true);
@@ -102,6 +104,28 @@ public class FileBackedDataSource extends DataSource {
         return dst;
     }
 
+    /**
+     * Returns the data as a read-only buffer. For a read-only source the file
+     * is mapped once, and views of that mapping are handed out, so no bytes
+     * are copied
+     */
+    @Override
+    public ByteBuffer readView(int length, long position) throws IOException {
+        if (writable || position + length > channel.size()
+                || channel.size() > Integer.MAX_VALUE) {
+            return super.readView(length, position);
+        }
+
+        if (readOnlyMapping == null) {
+            readOnlyMapping = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    channel.size());
+        }
+        ByteBuffer dst = readOnlyMapping.duplicate();
+        dst.position((int) position);
+        dst.limit((int) position + length);
+        return dst.slice();
+    }
+
     @Override
     public void write(ByteBuffer src, long position) throws IOException {
         channel.write(src, position);
@@ -122,6 +146,7 @@ public class FileBackedDataSource extends DataSource {
 
     @Override
     public void close() throws IOException {
+        readOnlyMapping = null;
         if (srcFile != null) {
             // see http://bugs.java.com/bugdatabase/view_bug.do?bug_id=4796385
             srcFile.close();
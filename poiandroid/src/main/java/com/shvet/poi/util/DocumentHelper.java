@@ -36,6 +36,9 @@ public final class DocumentHelper {
     // must only be used to create empty documents, do not use it for parsing!
     private static final DocumentBuilder documentBuilderSingleton = newDocumentBuilder();
     private static POILogger logger = POILogFactory.getLogger(DocumentHelper.class);
+    // parsing builder of every thread, reused instead of creating new one
+    // under the factory lock for every parsed part
+    private static final ThreadLocal<DocumentBuilder> parsingDocumentBuilder = new ThreadLocal<DocumentBuilder>();
 
     static {
         documentBuilderFactory.setNamespaceAware(true);
@@ -91,13 +94,22 @@ public final class DocumentHelper {
 
     /**
      * Parses the given stream via the default (sensible)
-     * DocumentBuilder
+     * DocumentBuilder. Builder is created once per thread and
+     * reset before every use.
      *
      * @param inp Stream to read the XML data from
      * @return the parsed Document
      */
     public static Document readDocument(InputStream inp) throws IOException, SAXException {
-        return newDocumentBuilder().parse(inp);
+        DocumentBuilder documentBuilder = parsingDocumentBuilder.get();
+        if (documentBuilder == null) {
+            documentBuilder = newDocumentBuilder();
+            parsingDocumentBuilder.set(documentBuilder);
+        } else {
+            documentBuilder.reset();
+            documentBuilder.setEntityResolver(SAXHelper.IGNORING_ENTITY_RESOLVER);
+        }
+        return documentBuilder.parse(inp);
     }
 
     /**